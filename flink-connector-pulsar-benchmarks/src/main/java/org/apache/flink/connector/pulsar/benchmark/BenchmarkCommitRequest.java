@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.connector.sink2.Committer.CommitRequest;
+import org.apache.flink.connector.pulsar.sink.committer.PulsarCommittable;
+import org.apache.flink.util.FlinkRuntimeException;
+
+/**
+ * A {@link CommitRequest} which records the commit failure. The committer may signal the failure in
+ * the Pulsar client threads, so the benchmark thread should check it after committing.
+ */
+final class BenchmarkCommitRequest implements CommitRequest<PulsarCommittable> {
+
+    private final PulsarCommittable committable;
+    private volatile Throwable failure;
+    private volatile boolean retry;
+
+    BenchmarkCommitRequest(PulsarCommittable committable) {
+        this.committable = committable;
+    }
+
+    /** Fail the benchmark if the committable hasn't been committed. */
+    void checkCommitted() {
+        if (failure != null) {
+            throw new FlinkRuntimeException("Failed to commit " + committable, failure);
+        }
+        if (retry) {
+            throw new FlinkRuntimeException(
+                    "Failed to commit " + committable + ", the commit should be retried.");
+        }
+    }
+
+    @Override
+    public PulsarCommittable getCommittable() {
+        return committable;
+    }
+
+    @Override
+    public int getNumberOfRetries() {
+        return 0;
+    }
+
+    @Override
+    public void signalFailedWithKnownReason(Throwable t) {
+        this.failure = t;
+    }
+
+    @Override
+    public void signalFailedWithUnknownReason(Throwable t) {
+        this.failure = t;
+    }
+
+    @Override
+    public void retryLater() {
+        this.retry = true;
+    }
+
+    @Override
+    public void updateAndRetryLater(PulsarCommittable committable) {
+        this.retry = true;
+    }
+
+    @Override
+    public void signalAlreadyCommitted() {
+        // Nothing to do.
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.api.common.typeutils.base.StringSerializer;
+import org.apache.flink.connector.pulsar.source.reader.deserializer.PulsarDeserializationSchema;
+import org.apache.flink.connector.pulsar.source.reader.deserializer.PulsarDeserializationSchemaWrapper;
+import org.apache.flink.connector.pulsar.source.reader.deserializer.PulsarSchemaWrapper;
+import org.apache.flink.connector.pulsar.source.reader.deserializer.PulsarStreamingDeserializationSchema;
+import org.apache.flink.connector.pulsar.source.reader.deserializer.PulsarTypeInformationWrapper;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.util.Collector;
+import org.apache.flink.util.IOUtils;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The deserializers compared in the source benchmarks. They all produce the same string record, so
+ * the difference is only the cost of the deserialization path. Every deserializer defines its own
+ * payload format for the generated messages.
+ */
+public enum BenchmarkDeserializer {
+
+    /** A Flink {@link SimpleStringSchema} wrapped by {@link PulsarDeserializationSchemaWrapper}. */
+    FLINK_SCHEMA {
+        @Override
+        PulsarDeserializationSchema<String> createSchema() {
+            return new PulsarDeserializationSchemaWrapper<>(new SimpleStringSchema());
+        }
+    },
+
+    /** The Pulsar {@link Schema#STRING} wrapped by {@link PulsarSchemaWrapper}. */
+    PULSAR_SCHEMA {
+        @Override
+        PulsarDeserializationSchema<String> createSchema() {
+            return new PulsarSchemaWrapper<>(Schema.STRING);
+        }
+    },
+
+    /** The Flink string serializer wrapped by {@link PulsarTypeInformationWrapper}. */
+    TYPE_INFORMATION {
+        @Override
+        PulsarDeserializationSchema<String> createSchema() {
+            return new PulsarTypeInformationWrapper<>(Types.STRING, new ExecutionConfig());
+        }
+
+        @Override
+        byte[] createPayload(int size) throws IOException {
+            DataOutputSerializer output = new DataOutputSerializer(size + 8);
+            StringSerializer.INSTANCE.serialize(createRecord(size), output);
+            return output.getCopyOfBuffer();
+        }
+    },
+
+    /** A {@link PulsarStreamingDeserializationSchema} which reads the payload from the stream. */
+    STREAMING {
+        @Override
+        PulsarDeserializationSchema<String> createSchema() {
+            return new StringStreamingDeserializationSchema();
+        }
+    };
+
+    abstract PulsarDeserializationSchema<String> createSchema();
+
+    /** Create the message payload which could be deserialized into a record of the given size. */
+    byte[] createPayload(int size) throws IOException {
+        return createRecord(size).getBytes(UTF_8);
+    }
+
+    /** Create a string record with the given size in bytes. */
+    static String createRecord(int size) {
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        return builder.toString();
+    }
+
+    /** Read the whole payload stream as a UTF-8 string. */
+    private static class StringStreamingDeserializationSchema
+            implements PulsarStreamingDeserializationSchema<String> {
+        private static final long serialVersionUID = 4521375926401389625L;
+
+        @Override
+        public void deserialize(Message<byte[]> message, InputStream payload, Collector<String> out)
+                throws Exception {
+            byte[] bytes = new byte[message.size()];
+            IOUtils.readFully(payload, bytes, 0, bytes.length);
+            out.collect(new String(bytes, UTF_8));
+        }
+
+        @Override
+        public TypeInformation<String> getProducedType() {
+            return Types.STRING;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.operators.MailboxExecutor;
+import org.apache.flink.api.common.operators.ProcessingTimeService;
+import org.apache.flink.api.common.serialization.SerializationSchema;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.connector.sink2.Sink.InitContext;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.SinkWriterMetricGroup;
+import org.apache.flink.util.SimpleUserCodeClassLoader;
+import org.apache.flink.util.UserCodeClassLoader;
+
+import java.util.OptionalLong;
+
+import static org.apache.flink.metrics.groups.UnregisteredMetricsGroup.createSinkWriterMetricGroup;
+
+/** The {@link InitContext} for creating the sink writer in the benchmark thread. */
+final class BenchmarkInitContext implements InitContext {
+
+    private final BenchmarkMailboxExecutor mailboxExecutor;
+    private final BenchmarkProcessingTimeService timeService;
+    private final SinkWriterMetricGroup metricGroup;
+
+    BenchmarkInitContext(
+            BenchmarkMailboxExecutor mailboxExecutor, BenchmarkProcessingTimeService timeService) {
+        this.mailboxExecutor = mailboxExecutor;
+        this.timeService = timeService;
+        this.metricGroup = createSinkWriterMetricGroup();
+    }
+
+    @Override
+    public UserCodeClassLoader getUserCodeClassLoader() {
+        return SimpleUserCodeClassLoader.create(getClass().getClassLoader());
+    }
+
+    @Override
+    public MailboxExecutor getMailboxExecutor() {
+        return mailboxExecutor;
+    }
+
+    @Override
+    public ProcessingTimeService getProcessingTimeService() {
+        return timeService;
+    }
+
+    @Override
+    public int getSubtaskId() {
+        return 0;
+    }
+
+    @Override
+    public int getNumberOfParallelSubtasks() {
+        return 1;
+    }
+
+    @Override
+    public int getAttemptNumber() {
+        return 0;
+    }
+
+    // The following three methods are for compatibility with Flink 1.18. Removed the commented out
+    // `@Override` when we move to 1.18.
+
+    // @Override
+    public boolean isObjectReuseEnabled() {
+        return false;
+    }
+
+    // @Override
+    public <IN> TypeSerializer<IN> createInputSerializer() {
+        return null;
+    }
+
+    // @Override
+    public JobID getJobId() {
+        return null;
+    }
+
+    @Override
+    public SinkWriterMetricGroup metricGroup() {
+        return metricGroup;
+    }
+
+    @Override
+    public OptionalLong getRestoredCheckpointId() {
+        return OptionalLong.empty();
+    }
+
+    @Override
+    public SerializationSchema.InitializationContext asSerializationSchemaInitializationContext() {
+        return new SerializationSchema.InitializationContext() {
+            @Override
+            public MetricGroup getMetricGroup() {
+                return metricGroup;
+            }
+
+            @Override
+            public UserCodeClassLoader getUserCodeClassLoader() {
+                return BenchmarkInitContext.this.getUserCodeClassLoader();
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.common.operators.MailboxExecutor;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.function.ThrowingRunnable;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A {@link MailboxExecutor} which queues the mails for the benchmark thread. The benchmark thread
+ * runs the queued mails between the records like the mailbox loop of a Flink task, so the sink
+ * writer isn't accessed by the Pulsar client threads.
+ */
+final class BenchmarkMailboxExecutor implements MailboxExecutor {
+
+    private final BlockingQueue<ThrowingRunnable<? extends Exception>> mails =
+            new LinkedBlockingQueue<>();
+
+    @Override
+    public void execute(
+            ThrowingRunnable<? extends Exception> command,
+            String descriptionFormat,
+            Object... descriptionArgs) {
+        mails.add(command);
+    }
+
+    @Override
+    public void yield() throws InterruptedException {
+        run(mails.take());
+    }
+
+    @Override
+    public boolean tryYield() {
+        ThrowingRunnable<? extends Exception> mail = mails.poll();
+        if (mail == null) {
+            return false;
+        }
+        run(mail);
+        return true;
+    }
+
+    /** Run all the queued mails without blocking. */
+    void drain() {
+        while (tryYield()) {
+            // Keep running the mails.
+        }
+    }
+
+    private void run(ThrowingRunnable<? extends Exception> mail) {
+        try {
+            mail.run();
+        } catch (Exception e) {
+            throw new FlinkRuntimeException("Failed to run the mail in benchmark.", e);
+        }
+    }
+}
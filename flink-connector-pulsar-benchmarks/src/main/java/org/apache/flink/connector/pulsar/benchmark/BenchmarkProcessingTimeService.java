@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.common.operators.ProcessingTimeService;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ProcessingTimeService} on the wall clock. The fired timers are executed in the {@link
+ * BenchmarkMailboxExecutor} like the timers of a Flink task.
+ */
+final class BenchmarkProcessingTimeService implements ProcessingTimeService, AutoCloseable {
+
+    private final BenchmarkMailboxExecutor mailboxExecutor;
+    private final ScheduledExecutorService timer;
+
+    BenchmarkProcessingTimeService(BenchmarkMailboxExecutor mailboxExecutor) {
+        this.mailboxExecutor = mailboxExecutor;
+        this.timer =
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "pulsar-benchmark-timer");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    @Override
+    public long getCurrentProcessingTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public ScheduledFuture<?> registerTimer(long timestamp, ProcessingTimeCallback target) {
+        long delay = Math.max(0, timestamp - getCurrentProcessingTime());
+        return timer.schedule(
+                () ->
+                        mailboxExecutor.execute(
+                                () -> target.onProcessingTime(timestamp), "Benchmark timer"),
+                delay,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
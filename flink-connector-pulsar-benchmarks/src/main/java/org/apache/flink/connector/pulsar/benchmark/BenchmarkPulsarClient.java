@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.pulsar.client.admin.PulsarAdmin;
+import org.apache.pulsar.client.admin.Topics;
+import org.apache.pulsar.client.api.Consumer;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.transaction.TransactionBuilder;
+import org.apache.pulsar.client.api.transaction.TxnID;
+import org.apache.pulsar.client.impl.BenchmarkProducer;
+import org.apache.pulsar.client.impl.ConsumerInterceptors;
+import org.apache.pulsar.client.impl.LookupService;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.apache.pulsar.client.impl.ProducerInterceptors;
+import org.apache.pulsar.client.impl.PulsarClientImpl;
+import org.apache.pulsar.client.impl.conf.ClientConfigurationData;
+import org.apache.pulsar.client.impl.conf.ConsumerConfigurationData;
+import org.apache.pulsar.client.impl.conf.ProducerConfigurationData;
+import org.apache.pulsar.client.impl.transaction.TransactionBuilderImpl;
+import org.apache.pulsar.client.impl.transaction.TransactionCoordinatorClientImpl;
+import org.apache.pulsar.common.naming.TopicName;
+import org.apache.pulsar.common.partition.PartitionedTopicMetadata;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link PulsarClient} which replays the pre-built messages from memory instead of connecting to
+ * a broker. Every subscribed consumer receives the backlog of its partition from the position of
+ * its subscription, and returns null once the backlog has been received. The created producers
+ * acknowledge the messages once they are sent, and the transactions are committed without a
+ * transaction coordinator. The connector creates its consumers, producers and transactions by
+ * casting the client to the {@link PulsarClientImpl}, so this client extends it. The service URL is
+ * required by the constructor, but it is never connected.
+ *
+ * <p>The topic metadata and the subscription positions are served by the {@link PulsarAdmin}
+ * created by {@link #createAdmin()}.
+ */
+final class BenchmarkPulsarClient extends PulsarClientImpl {
+
+    private final Message<byte[]>[] messages;
+    private final Map<String, Integer> partitions;
+    private final Map<String, Message<byte[]>[]> backlogs;
+    private final Map<String, Integer> positions;
+    private final BenchmarkCoordinatorClient coordinatorClient;
+
+    /** Create a client without messages, the backlogs could be added for the partitions. */
+    @SuppressWarnings("unchecked")
+    BenchmarkPulsarClient() throws PulsarClientException {
+        this((Message<byte[]>[]) new Message<?>[0]);
+    }
+
+    /** Create a client which replays the given messages for the partitions without backlog. */
+    BenchmarkPulsarClient(Message<byte[]>[] messages) throws PulsarClientException {
+        super(configuration());
+        this.messages = messages;
+        this.partitions = new ConcurrentHashMap<>();
+        this.backlogs = new ConcurrentHashMap<>();
+        this.positions = new ConcurrentHashMap<>();
+        this.coordinatorClient = new BenchmarkCoordinatorClient(this);
+    }
+
+    private static ClientConfigurationData configuration() {
+        ClientConfigurationData configuration = new ClientConfigurationData();
+        configuration.setServiceUrl("pulsar://localhost:6650");
+        return configuration;
+    }
+
+    /** Record the metadata of a topic, zero partitions means a non-partitioned topic. */
+    void createTopic(String topic, int numberOfPartitions) {
+        partitions.put(TopicName.get(topic).toString(), numberOfPartitions);
+    }
+
+    /** Replay the given messages for the partition, their entry ids should be their indexes. */
+    void addBacklog(String partition, Message<byte[]>[] backlog) {
+        backlogs.put(TopicName.get(partition).toString(), backlog);
+    }
+
+    /** Create an admin which queries the topic metadata and seeks the subscriptions. */
+    PulsarAdmin createAdmin() {
+        Topics topics =
+                (Topics)
+                        Proxy.newProxyInstance(
+                                BenchmarkPulsarClient.class.getClassLoader(),
+                                new Class<?>[] {Topics.class},
+                                (proxy, method, args) -> invokeTopics(method, args));
+        return (PulsarAdmin)
+                Proxy.newProxyInstance(
+                        BenchmarkPulsarClient.class.getClassLoader(),
+                        new Class<?>[] {PulsarAdmin.class},
+                        (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "topics":
+                                    return topics;
+                                case "close":
+                                    return null;
+                                case "hashCode":
+                                    return System.identityHashCode(proxy);
+                                case "equals":
+                                    return proxy == args[0];
+                                case "toString":
+                                    return "BenchmarkPulsarAdmin";
+                                default:
+                                    throw new UnsupportedOperationException(method.getName());
+                            }
+                        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<Consumer<T>> subscribeAsync(
+            ConsumerConfigurationData<T> conf,
+            Schema<T> schema,
+            ConsumerInterceptors<T> interceptors) {
+        String topic = conf.getTopicNames().iterator().next();
+        String subscription = conf.getSubscriptionName();
+        int position = positions.getOrDefault(subscriptionKey(topic, subscription), 0);
+        Consumer<T> consumer =
+                (Consumer<T>)
+                        Proxy.newProxyInstance(
+                                BenchmarkPulsarClient.class.getClassLoader(),
+                                new Class<?>[] {Consumer.class},
+                                new ReplayConsumer(
+                                        topic, conf.getConsumerName(), backlog(topic), position));
+        return CompletableFuture.completedFuture(consumer);
+    }
+
+    @Override
+    public <T> CompletableFuture<Producer<T>> createProducerAsync(
+            ProducerConfigurationData conf, Schema<T> schema, ProducerInterceptors interceptors) {
+        return CompletableFuture.completedFuture(
+                new BenchmarkProducer<>(this, conf, schema, interceptors));
+    }
+
+    @Override
+    public LookupService getLookup() {
+        return (LookupService)
+                Proxy.newProxyInstance(
+                        BenchmarkPulsarClient.class.getClassLoader(),
+                        new Class<?>[] {LookupService.class},
+                        (proxy, method, args) -> {
+                            switch (method.getName()) {
+                                case "getPartitionedTopicMetadata":
+                                    return CompletableFuture.completedFuture(
+                                            partitionedTopicMetadata(args[0].toString()));
+                                case "close":
+                                    return null;
+                                default:
+                                    throw new UnsupportedOperationException(method.getName());
+                            }
+                        });
+    }
+
+    @Override
+    public TransactionBuilder newTransaction() {
+        return new TransactionBuilderImpl(this, coordinatorClient);
+    }
+
+    @Override
+    public TransactionCoordinatorClientImpl getTcClient() {
+        return coordinatorClient;
+    }
+
+    /** Only the topic methods used by the source and sink are supported. */
+    private Object invokeTopics(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getPartitionedTopicMetadata":
+                return partitionedTopicMetadata((String) args[0]);
+            case "getLastMessageId":
+                Message<byte[]>[] backlog = backlog((String) args[0]);
+                return backlog.length == 0
+                        ? MessageId.earliest
+                        : backlog[backlog.length - 1].getMessageId();
+            case "getSubscriptions":
+                // The subscriptions are created by resetting their cursors.
+                return Collections.emptyList();
+            case "createSubscription":
+                return null;
+            case "resetCursor":
+                if (args.length == 4 && args[2] instanceof MessageId) {
+                    resetCursor(
+                            (String) args[0],
+                            (String) args[1],
+                            (MessageId) args[2],
+                            (Boolean) args[3]);
+                    return null;
+                }
+                break;
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException(method.getName());
+    }
+
+    private void resetCursor(
+            String topic, String subscription, MessageId messageId, boolean excluded) {
+        int length = backlog(topic).length;
+        long position = messageId.equals(MessageId.latest) ? length : 0;
+        if (messageId instanceof MessageIdImpl && !messageId.equals(MessageId.earliest)) {
+            position = ((MessageIdImpl) messageId).getEntryId() + (excluded ? 1 : 0);
+        }
+        positions.put(subscriptionKey(topic, subscription), (int) Math.min(position, length));
+    }
+
+    private PartitionedTopicMetadata partitionedTopicMetadata(String topic) {
+        return new PartitionedTopicMetadata(
+                partitions.getOrDefault(TopicName.get(topic).toString(), 0));
+    }
+
+    private Message<byte[]>[] backlog(String topic) {
+        return backlogs.getOrDefault(TopicName.get(topic).toString(), messages);
+    }
+
+    private static String subscriptionKey(String topic, String subscription) {
+        return TopicName.get(topic) + "|" + subscription;
+    }
+
+    /** Only the consumer methods used by the split reader are supported. */
+    private static final class ReplayConsumer implements InvocationHandler {
+
+        private final String topic;
+        private final String consumerName;
+        private final Message<byte[]>[] messages;
+        private int next;
+
+        private ReplayConsumer(
+                String topic, String consumerName, Message<byte[]>[] messages, int next) {
+            this.topic = topic;
+            this.consumerName = consumerName;
+            this.messages = messages;
+            this.next = next;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "receive":
+                    return next < messages.length ? messages[next++] : null;
+                case "getTopic":
+                    return topic;
+                case "getConsumerName":
+                    return consumerName;
+                case "isConnected":
+                    return true;
+                case "pause":
+                case "resume":
+                case "acknowledgeCumulative":
+                case "close":
+                    return null;
+                case "closeAsync":
+                    return CompletableFuture.completedFuture(null);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "ReplayConsumer{topic=" + topic + ", next=" + next + "}";
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }
+    }
+
+    /** The transaction coordinator client which completes all the requests immediately. */
+    private static final class BenchmarkCoordinatorClient extends TransactionCoordinatorClientImpl {
+
+        private final AtomicLong nextTxnId = new AtomicLong();
+
+        private BenchmarkCoordinatorClient(PulsarClient client) {
+            super(client);
+        }
+
+        @Override
+        public CompletableFuture<TxnID> newTransactionAsync(long timeout, TimeUnit unit) {
+            return CompletableFuture.completedFuture(new TxnID(0, nextTxnId.getAndIncrement()));
+        }
+
+        @Override
+        public CompletableFuture<Void> addPublishPartitionToTxnAsync(
+                TxnID txnID, List<String> partitions) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> commitAsync(TxnID txnID) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> abortAsync(TxnID txnID) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
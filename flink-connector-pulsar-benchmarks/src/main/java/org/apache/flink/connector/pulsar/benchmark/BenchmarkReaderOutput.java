@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.common.eventtime.Watermark;
+import org.apache.flink.api.connector.source.ReaderOutput;
+import org.apache.flink.api.connector.source.SourceOutput;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A {@link ReaderOutput} which consumes the records by the JMH {@link Blackhole}. The records
+ * emitted from all the splits are counted together.
+ */
+final class BenchmarkReaderOutput<T> implements ReaderOutput<T> {
+
+    private final Blackhole blackhole;
+    private long records;
+
+    BenchmarkReaderOutput(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    /** The number of the records emitted since this output was created. */
+    long records() {
+        return records;
+    }
+
+    @Override
+    public void collect(T record) {
+        blackhole.consume(record);
+        records++;
+    }
+
+    @Override
+    public void collect(T record, long timestamp) {
+        blackhole.consume(record);
+        blackhole.consume(timestamp);
+        records++;
+    }
+
+    @Override
+    public void emitWatermark(Watermark watermark) {
+        blackhole.consume(watermark);
+    }
+
+    @Override
+    public void markIdle() {
+        // Nothing to do.
+    }
+
+    @Override
+    public void markActive() {
+        // Nothing to do.
+    }
+
+    @Override
+    public SourceOutput<T> createOutputForSplit(String splitId) {
+        return this;
+    }
+
+    @Override
+    public void releaseOutputForSplit(String splitId) {
+        // Nothing to do.
+    }
+}
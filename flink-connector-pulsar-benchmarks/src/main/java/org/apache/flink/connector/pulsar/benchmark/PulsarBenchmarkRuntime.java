@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.DeliveryGuarantee;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.connector.pulsar.testutils.runtime.PulsarRuntime;
+import org.apache.flink.connector.pulsar.testutils.runtime.PulsarRuntimeOperator;
+
+import org.apache.pulsar.client.admin.PulsarAdmin;
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.impl.MessageIdImpl;
+import org.apache.pulsar.client.impl.MessageImpl;
+import org.apache.pulsar.common.api.proto.MessageMetadata;
+
+import javax.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.connector.base.DeliveryGuarantee.EXACTLY_ONCE;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.shareAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.shareClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ADMIN_URL;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_CLIENT_SHARING;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_TRANSACTION;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_SERVICE_URL;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SEND_TIMEOUT_MS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_DELIVERY_GUARANTEE;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_TRANSACTION_TIMEOUT;
+import static org.apache.flink.connector.pulsar.source.enumerator.topic.TopicNameUtils.topicNameWithPartition;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * The Pulsar instance used by the benchmarks. A standalone Pulsar would be started in docker by
+ * default. The benchmarks could run against a running Pulsar cluster by setting the system
+ * properties {@code pulsar.benchmark.serviceUrl} and {@code pulsar.benchmark.adminUrl}, the
+ * transaction should be enabled on this cluster.
+ *
+ * <p>The benchmarks could also run offline by setting the system property {@code
+ * pulsar.benchmark.offline} to {@code true}. The source and sink components would acquire a shared
+ * {@link BenchmarkPulsarClient} and its admin, which replay the backlogs from memory and complete
+ * the producers and transactions without a broker.
+ */
+final class PulsarBenchmarkRuntime implements AutoCloseable {
+
+    static final String SERVICE_URL_PROPERTY = "pulsar.benchmark.serviceUrl";
+    static final String ADMIN_URL_PROPERTY = "pulsar.benchmark.adminUrl";
+    static final String OFFLINE_PROPERTY = "pulsar.benchmark.offline";
+
+    // The offline client is never connected to these URLs.
+    private static final String OFFLINE_SERVICE_URL = "pulsar://localhost:6650";
+    private static final String OFFLINE_ADMIN_URL = "http://localhost:8080";
+
+    @Nullable private final PulsarRuntime runtime;
+    @Nullable private final BenchmarkPulsarClient offlineClient;
+    @Nullable private final PulsarAdmin offlineAdmin;
+
+    private PulsarBenchmarkRuntime(PulsarRuntime runtime) {
+        this.runtime = runtime;
+        this.offlineClient = null;
+        this.offlineAdmin = null;
+    }
+
+    private PulsarBenchmarkRuntime(BenchmarkPulsarClient offlineClient, PulsarAdmin offlineAdmin) {
+        this.runtime = null;
+        this.offlineClient = offlineClient;
+        this.offlineAdmin = offlineAdmin;
+    }
+
+    /** Start the Pulsar runtime, it should be closed after the benchmark trial. */
+    static PulsarBenchmarkRuntime start() throws Exception {
+        if (Boolean.getBoolean(OFFLINE_PROPERTY)) {
+            BenchmarkPulsarClient client = new BenchmarkPulsarClient();
+            PulsarAdmin admin = client.createAdmin();
+            SinkConfiguration configuration = new SinkConfiguration(offlineConfig());
+            shareClient(configuration, client);
+            shareAdmin(configuration, admin);
+            return new PulsarBenchmarkRuntime(client, admin);
+        }
+
+        String serviceUrl = System.getProperty(SERVICE_URL_PROPERTY);
+        String adminUrl = System.getProperty(ADMIN_URL_PROPERTY);
+
+        PulsarRuntime runtime;
+        if (serviceUrl != null && adminUrl != null) {
+            runtime = PulsarRuntime.remote(serviceUrl, adminUrl);
+        } else {
+            runtime = PulsarRuntime.container();
+        }
+        runtime.startUp();
+
+        return new PulsarBenchmarkRuntime(runtime);
+    }
+
+    PulsarRuntimeOperator operator() {
+        checkState(runtime != null, "The Pulsar runtime isn't available in the offline mode.");
+        return runtime.operator();
+    }
+
+    /** Create the configuration with the service URL and admin URL of this runtime. */
+    Configuration config() {
+        return offlineClient == null ? operator().config() : offlineConfig();
+    }
+
+    /** Create the sink configuration, the offline client is acquired by this configuration. */
+    Configuration sinkConfig(DeliveryGuarantee deliveryGuarantee) {
+        if (offlineClient == null) {
+            return operator().sinkConfig(deliveryGuarantee);
+        }
+
+        Configuration configuration = offlineConfig();
+        configuration.set(PULSAR_WRITE_DELIVERY_GUARANTEE, deliveryGuarantee);
+        if (deliveryGuarantee == EXACTLY_ONCE) {
+            configuration.set(PULSAR_WRITE_TRANSACTION_TIMEOUT, Duration.ofMinutes(5).toMillis());
+            configuration.set(PULSAR_SEND_TIMEOUT_MS, 0L);
+        }
+        return configuration;
+    }
+
+    /** Create the topics with random names, so the trials wouldn't affect each other. */
+    List<String> createTopics(String prefix, int topics, int partitions) throws Exception {
+        String name = prefix + "-" + UUID.randomUUID();
+        List<String> topicNames = new ArrayList<>(topics);
+        for (int i = 0; i < topics; i++) {
+            String topic = name + "-" + i;
+            if (offlineClient == null) {
+                operator().createTopic(topic, partitions);
+            } else {
+                offlineClient.createTopic(topic, partitions);
+            }
+            topicNames.add(topic);
+        }
+        return topicNames;
+    }
+
+    /** Write the backlog with the same payload into every partition of the given topic. */
+    void produceBacklog(String topic, int partitions, byte[] payload, int messages)
+            throws Exception {
+        for (int i = 0; i < partitions; i++) {
+            String partitionName = topicNameWithPartition(topic, i);
+            if (offlineClient != null) {
+                offlineClient.addBacklog(
+                        partitionName, offlineBacklog(partitionName, i, payload, messages));
+                continue;
+            }
+            try (Producer<byte[]> producer =
+                    operator()
+                            .client()
+                            .newProducer(Schema.BYTES)
+                            .topic(partitionName)
+                            .enableBatching(true)
+                            .blockIfQueueFull(true)
+                            .create()) {
+                List<CompletableFuture<MessageId>> futures = new ArrayList<>(messages);
+                for (int j = 0; j < messages; j++) {
+                    futures.add(producer.sendAsync(payload));
+                }
+                producer.flush();
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (offlineClient != null) {
+            releaseAdmin(offlineAdmin);
+            releaseClient(offlineClient);
+        } else {
+            runtime.tearDown();
+        }
+    }
+
+    /**
+     * Build the messages of a partition in memory. The entry ids are the indexes of the messages,
+     * and the publish times start from 1.
+     */
+    @SuppressWarnings("unchecked")
+    private static Message<byte[]>[] offlineBacklog(
+            String partitionName, int partitionIndex, byte[] payload, int messages) {
+        Message<byte[]>[] backlog = new Message[messages];
+        for (int i = 0; i < messages; i++) {
+            MessageMetadata metadata = new MessageMetadata();
+            metadata.setProducerName("pulsar-benchmark");
+            metadata.setSequenceId(i);
+            metadata.setPublishTime(i + 1L);
+            MessageImpl<byte[]> message =
+                    MessageImpl.create(
+                            metadata, ByteBuffer.wrap(payload), Schema.BYTES, partitionName);
+            message.setMessageId(new MessageIdImpl(0, i, partitionIndex));
+            backlog[i] = message;
+        }
+        return backlog;
+    }
+
+    /**
+     * The client options should be the same for all the delivery guarantees, so the source and sink
+     * components would acquire the same shared client. The transaction is always enabled, the sink
+     * builder enables it for the exactly-once delivery guarantee.
+     */
+    private static Configuration offlineConfig() {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_SERVICE_URL, OFFLINE_SERVICE_URL);
+        configuration.set(PULSAR_ADMIN_URL, OFFLINE_ADMIN_URL);
+        configuration.set(PULSAR_ENABLE_CLIENT_SHARING, true);
+        configuration.set(PULSAR_ENABLE_TRANSACTION, true);
+        return configuration;
+    }
+}
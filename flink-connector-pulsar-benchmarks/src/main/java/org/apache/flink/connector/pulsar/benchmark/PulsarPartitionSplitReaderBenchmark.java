@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
+import org.apache.flink.connector.base.source.reader.splitreader.SplitsAddition;
+import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.source.config.SourceConfiguration;
+import org.apache.flink.connector.pulsar.source.enumerator.cursor.StopCursor;
+import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
+import org.apache.flink.connector.pulsar.source.reader.PulsarPartitionSplitReader;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.impl.MessageImpl;
+import org.apache.pulsar.common.api.proto.MessageMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_ENABLE_SOURCE_METRICS;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_FETCH_ONE_MESSAGE_TIME;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_RECORDS;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_SUBSCRIPTION_NAME;
+import static org.apache.flink.connector.pulsar.source.enumerator.topic.TopicNameUtils.topicNameWithPartition;
+
+/**
+ * The benchmark for {@link PulsarPartitionSplitReader}. Every invocation reads the whole backlog of
+ * a partition by a new split reader, this compares the fetch modes without the cost of the record
+ * emitter and the fetcher threads. The records and bytes per second are reported by the {@link
+ * RecordCounters}.
+ *
+ * <p>This benchmark runs offline. The consumers are created by the {@link BenchmarkPulsarClient},
+ * which replays the pre-built messages from memory. The receiving never waits, so the broker side
+ * options, such as the receiver queue size, are not compared here. They are covered by the {@link
+ * PulsarSourceReaderBenchmark} on a running Pulsar.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PulsarPartitionSplitReaderBenchmark {
+
+    @Param({"256", "4096"})
+    public int messageSize;
+
+    @Param({"100000"})
+    public int backlog;
+
+    @Param({"100", "1000"})
+    public int maxFetchRecords;
+
+    /** Zero means waiting for every message until the end of the fetch time. */
+    @Param({"0", "10"})
+    public int fetchOneMessageTime;
+
+    private BenchmarkPulsarClient client;
+    private SourceConfiguration configuration;
+    private TopicPartition partition;
+    private PulsarPartitionSplitReader splitReader;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        String topic = "pulsar-split-reader-benchmark";
+        this.partition = new TopicPartition(topic, 0);
+
+        // The messages share the payload. The publish time is the position of the message, the
+        // split is finished by the publish time of the last message.
+        String partitionName = topicNameWithPartition(topic, 0);
+        byte[] payload = new byte[messageSize];
+        Message<byte[]>[] messages = new Message[backlog];
+        for (int i = 0; i < backlog; i++) {
+            MessageMetadata metadata = new MessageMetadata();
+            metadata.setPublishTime(i + 1L);
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            messages[i] = MessageImpl.create(metadata, buffer, Schema.BYTES, partitionName);
+        }
+        this.client = new BenchmarkPulsarClient(messages);
+
+        Configuration config = new Configuration();
+        config.set(PULSAR_SUBSCRIPTION_NAME, "pulsar-split-reader-benchmark");
+        config.set(PULSAR_MAX_FETCH_RECORDS, maxFetchRecords);
+        config.set(PULSAR_FETCH_ONE_MESSAGE_TIME, fetchOneMessageTime);
+        config.set(PULSAR_ENABLE_SOURCE_METRICS, false);
+        this.configuration = new SourceConfiguration(config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        client.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createSplitReader() {
+        // The admin is only used for seeking and opening the stop cursor, neither is needed here.
+        this.splitReader =
+                new PulsarPartitionSplitReader(
+                        client,
+                        null,
+                        configuration,
+                        Schema.BYTES,
+                        PulsarCrypto.disabled(),
+                        UnregisteredMetricsGroup.createSourceReaderMetricGroup());
+
+        // Read the whole backlog and finish the split at the last message.
+        StopCursor stopCursor = StopCursor.afterPublishTime(backlog);
+        PulsarPartitionSplit split = new PulsarPartitionSplit(partition, stopCursor);
+        splitReader.handleSplitsChanges(new SplitsAddition<>(singletonList(split)));
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeSplitReader() throws Exception {
+        splitReader.close();
+    }
+
+    @Benchmark
+    public void fetchBacklog(RecordCounters counters) throws Exception {
+        long records = 0;
+        boolean finished = false;
+        while (!finished) {
+            RecordsWithSplitIds<Message<byte[]>> fetched = splitReader.fetch();
+            while (fetched.nextSplit() != null) {
+                // The messages are replayed by every invocation, so they are not released.
+                while (fetched.nextRecordFromSplit() != null) {
+                    records++;
+                }
+            }
+            finished = !fetched.finishedSplits().isEmpty();
+            fetched.recycle();
+        }
+        counters.add(records, messageSize);
+    }
+}
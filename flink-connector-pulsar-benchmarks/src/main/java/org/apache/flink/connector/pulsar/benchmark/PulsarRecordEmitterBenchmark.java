@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.source.config.SourceConfiguration;
+import org.apache.flink.connector.pulsar.source.enumerator.cursor.StopCursor;
+import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
+import org.apache.flink.connector.pulsar.source.reader.PulsarRecordEmitter;
+import org.apache.flink.connector.pulsar.source.reader.deserializer.PulsarDeserializationSchema;
+import org.apache.flink.connector.pulsar.source.reader.deserializer.PulsarDeserializationSchemaInitializationContext;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplitState;
+import org.apache.flink.connector.testutils.source.reader.TestingReaderContext;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.impl.MessageImpl;
+import org.apache.pulsar.common.api.proto.MessageMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.connector.pulsar.source.enumerator.topic.TopicNameUtils.topicNameWithPartition;
+
+/**
+ * The offline benchmarks for {@link PulsarRecordEmitter} and the deserializers. The messages are
+ * generated before the benchmark and replayed from memory, so this benchmark doesn't need a Pulsar
+ * instance and only measures the emitting path in the source reader thread.
+ *
+ * <p>{@link #emit(RecordCounters)} measures the throughput, and {@link #emitLatency()} samples the
+ * latency of emitting a single record, the p99 is in its percentiles.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class PulsarRecordEmitterBenchmark {
+
+    static final int ENTRIES = 1024;
+
+    @Param({"FLINK_SCHEMA", "PULSAR_SCHEMA", "TYPE_INFORMATION", "STREAMING"})
+    public BenchmarkDeserializer deserializer;
+
+    @Param({"1", "8"})
+    public int partitions;
+
+    @Param({"64", "1024", "16384"})
+    public int messageSize;
+
+    @Param({"false", "true"})
+    public boolean eventTime;
+
+    private PulsarRecordEmitter<String> emitter;
+    private BenchmarkReaderOutput<String> output;
+    private Message<byte[]>[] messages;
+    private PulsarPartitionSplitState[] splitStates;
+    private int payloadSize;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp(Blackhole blackhole) throws Exception {
+        PulsarDeserializationSchema<String> schema = deserializer.createSchema();
+        schema.open(
+                new PulsarDeserializationSchemaInitializationContext(
+                        new TestingReaderContext(), null),
+                new SourceConfiguration(new Configuration()));
+        this.emitter = new PulsarRecordEmitter<>(schema);
+        this.output = new BenchmarkReaderOutput<>(blackhole);
+
+        String topic = "pulsar-record-emitter-benchmark";
+        this.splitStates = new PulsarPartitionSplitState[partitions];
+        for (int i = 0; i < partitions; i++) {
+            TopicPartition partition = new TopicPartition(topic, i);
+            PulsarPartitionSplit split = new PulsarPartitionSplit(partition, StopCursor.never());
+            splitStates[i] = new PulsarPartitionSplitState(split);
+        }
+
+        // The messages are distributed to the partitions in the round-robin order.
+        byte[] payload = deserializer.createPayload(messageSize);
+        this.payloadSize = payload.length;
+        this.messages = new Message[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            MessageMetadata metadata = new MessageMetadata();
+            if (eventTime) {
+                metadata.setEventTime(System.currentTimeMillis());
+            }
+            String partitionName = topicNameWithPartition(topic, i % partitions);
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            messages[i] = MessageImpl.create(metadata, buffer, Schema.BYTES, partitionName);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(ENTRIES)
+    public void emit(RecordCounters counters) throws Exception {
+        for (int i = 0; i < ENTRIES; i++) {
+            emitter.emitRecord(messages[i], output, splitStates[i % partitions]);
+        }
+        counters.add(ENTRIES, payloadSize);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void emitLatency() throws Exception {
+        int i = next;
+        emitter.emitRecord(messages[i], output, splitStates[i % partitions]);
+        this.next = (i + 1) % ENTRIES;
+    }
+}
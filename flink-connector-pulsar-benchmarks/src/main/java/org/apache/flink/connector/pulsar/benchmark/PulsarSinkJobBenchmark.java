@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.api.common.typeinfo.Types;
+import org.apache.flink.connector.base.DeliveryGuarantee;
+import org.apache.flink.connector.pulsar.sink.PulsarSink;
+import org.apache.flink.runtime.minicluster.MiniCluster;
+import org.apache.flink.runtime.minicluster.MiniClusterConfiguration;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The end-to-end benchmark for {@link PulsarSink}. A bounded job writes the generated records into
+ * Pulsar on a {@link MiniCluster} with checkpoints enabled. This measures the whole sink including
+ * the committer, the operator overhead and the checkpoint barriers. The job writes to the offline
+ * producers in the offline mode of the {@link PulsarBenchmarkRuntime}, because the tasks run in the
+ * same JVM and share the client.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PulsarSinkJobBenchmark {
+
+    static final int RECORDS_PER_JOB = 1_000_000;
+
+    @Param({"NONE", "AT_LEAST_ONCE", "EXACTLY_ONCE"})
+    public DeliveryGuarantee deliveryGuarantee;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    @Param({"256"})
+    public int recordSize;
+
+    @Param({"1000"})
+    public long checkpointInterval;
+
+    private PulsarBenchmarkRuntime runtime;
+    private MiniCluster miniCluster;
+    private List<String> topics;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.runtime = PulsarBenchmarkRuntime.start();
+        this.topics = runtime.createTopics("pulsar-sink-job-benchmark", 1, parallelism);
+
+        MiniClusterConfiguration configuration =
+                new MiniClusterConfiguration.Builder()
+                        .setNumTaskManagers(1)
+                        .setNumSlotsPerTaskManager(parallelism)
+                        .build();
+        this.miniCluster = new MiniCluster(configuration);
+        miniCluster.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        miniCluster.close();
+        runtime.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_JOB)
+    public void writeRecords() throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setParallelism(parallelism);
+        env.enableCheckpointing(checkpointInterval);
+
+        PulsarSink<String> sink =
+                PulsarSink.builder()
+                        .setConfig(runtime.sinkConfig(deliveryGuarantee))
+                        .setTopics(topics)
+                        .setSerializationSchema(new SimpleStringSchema())
+                        .setDeliveryGuarantee(deliveryGuarantee)
+                        .build();
+
+        // Don't capture the benchmark instance in the lambda.
+        String record = BenchmarkDeserializer.createRecord(recordSize);
+        env.fromSequence(1, RECORDS_PER_JOB)
+                .map(i -> record)
+                .returns(Types.STRING)
+                .sinkTo(sink)
+                .name("pulsar-sink");
+
+        miniCluster.executeJobBlocking(env.getStreamGraph().getJobGraph());
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.source.config.SourceConfiguration;
+import org.apache.flink.connector.pulsar.source.enumerator.cursor.StopCursor;
+import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
+import org.apache.flink.connector.pulsar.source.reader.PulsarSourceReader;
+import org.apache.flink.connector.pulsar.source.split.PulsarPartitionSplit;
+import org.apache.flink.connector.testutils.source.reader.TestingReaderContext;
+import org.apache.flink.core.io.InputStatus;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_FETCH_ONE_MESSAGE_TIME;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_RECORDS;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_RECEIVER_QUEUE_SIZE;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_SUBSCRIPTION_NAME;
+
+/**
+ * The benchmarks for {@link PulsarSourceReader}, which includes the fetcher threads, the split
+ * readers and the record emitter. Every partition of the topic has the same backlog.
+ *
+ * <ul>
+ *   <li>{@link #consume(ConsumingReader, RecordCounters)} reads the whole backlog by a new reader,
+ *       the records and bytes per second are reported by the {@link RecordCounters}.
+ *   <li>{@link #checkpoint(RunningReader)} samples the duration of taking and completing a
+ *       checkpoint on a running reader.
+ *   <li>{@link #restore(RestoringReader)} samples the time from restoring the splits of a
+ *       checkpoint in the middle of the backlog to emitting the first record.
+ * </ul>
+ *
+ * <p>The backlog is replayed from memory in the offline mode of the {@link PulsarBenchmarkRuntime},
+ * and the subscriptions are reset by a stub admin. The receiving never waits in this mode, so the
+ * {@link #receiverQueueSize} has no effect.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class PulsarSourceReaderBenchmark {
+
+    static final int RECORDS_PER_CHECKPOINT = 1000;
+
+    @Param({"FLINK_SCHEMA", "PULSAR_SCHEMA"})
+    public BenchmarkDeserializer deserializer;
+
+    @Param({"1", "4"})
+    public int partitions;
+
+    @Param({"256", "4096"})
+    public int messageSize;
+
+    /** The number of the messages in every partition. */
+    @Param({"50000"})
+    public int backlog;
+
+    @Param({"100", "1000"})
+    public int maxFetchRecords;
+
+    /** Zero means waiting for every message until the end of the fetch time. */
+    @Param({"0", "10"})
+    public int fetchOneMessageTime;
+
+    @Param({"1000"})
+    public int receiverQueueSize;
+
+    private PulsarBenchmarkRuntime runtime;
+    private Configuration configuration;
+    private String topic;
+    private int payloadSize;
+    private List<PulsarPartitionSplit> checkpointedSplits;
+
+    @Setup(Level.Trial)
+    public void setUp(Blackhole blackhole) throws Exception {
+        this.runtime = PulsarBenchmarkRuntime.start();
+        this.topic = runtime.createTopics("pulsar-source-reader-benchmark", 1, partitions).get(0);
+        byte[] payload = deserializer.createPayload(messageSize);
+        this.payloadSize = payload.length;
+        runtime.produceBacklog(topic, partitions, payload, backlog);
+
+        this.configuration = runtime.config();
+        configuration.set(PULSAR_MAX_FETCH_RECORDS, maxFetchRecords);
+        configuration.set(PULSAR_FETCH_ONE_MESSAGE_TIME, fetchOneMessageTime);
+        configuration.set(PULSAR_RECEIVER_QUEUE_SIZE, receiverQueueSize);
+
+        // Take a checkpoint in the middle of the backlog for the restore benchmark.
+        PulsarSourceReader<String> reader = createReader();
+        reader.addSplits(createSplits());
+        BenchmarkReaderOutput<String> output = new BenchmarkReaderOutput<>(blackhole);
+        long half = (long) backlog * partitions / 2;
+        while (output.records() < half) {
+            pollNext(reader, output);
+        }
+        this.checkpointedSplits = reader.snapshotState(1L);
+        reader.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        runtime.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void consume(ConsumingReader state, RecordCounters counters) throws Exception {
+        while (pollNext(state.reader, state.output) != InputStatus.END_OF_INPUT) {
+            // Keep polling until all the splits are finished.
+        }
+        counters.add(state.output.records(), payloadSize);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void checkpoint(RunningReader state) throws Exception {
+        long checkpointId = ++state.checkpointId;
+        state.reader.snapshotState(checkpointId);
+        state.reader.notifyCheckpointComplete(checkpointId);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void restore(RestoringReader state) throws Exception {
+        state.reader.addSplits(checkpointedSplits);
+        while (state.output.records() == 0) {
+            pollNext(state.reader, state.output);
+        }
+    }
+
+    /** A new reader with the splits from the earliest position for every invocation. */
+    @State(Scope.Thread)
+    public static class ConsumingReader {
+
+        private PulsarSourceReader<String> reader;
+        private BenchmarkReaderOutput<String> output;
+
+        @Setup(Level.Invocation)
+        public void setUp(PulsarSourceReaderBenchmark benchmark, Blackhole blackhole)
+                throws Exception {
+            this.reader = benchmark.createReader();
+            this.output = new BenchmarkReaderOutput<>(blackhole);
+            reader.addSplits(benchmark.createSplits());
+            reader.notifyNoMoreSplits();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws Exception {
+            reader.close();
+        }
+    }
+
+    /**
+     * A reader which keeps consuming the backlog between the checkpoints. It would be replaced by a
+     * new reader once the backlog has been consumed, so the checkpoints always have the pending
+     * cursors to commit.
+     */
+    @State(Scope.Thread)
+    public static class RunningReader {
+
+        private PulsarSourceReaderBenchmark benchmark;
+        private PulsarSourceReader<String> reader;
+        private BenchmarkReaderOutput<String> output;
+        private long checkpointId;
+
+        @Setup(Level.Iteration)
+        public void setUp(PulsarSourceReaderBenchmark benchmark, Blackhole blackhole)
+                throws Exception {
+            this.benchmark = benchmark;
+            this.output = new BenchmarkReaderOutput<>(blackhole);
+            startReader();
+        }
+
+        @Setup(Level.Invocation)
+        public void consume() throws Exception {
+            long expected = output.records() + RECORDS_PER_CHECKPOINT;
+            while (output.records() < expected) {
+                if (pollNext(reader, output) == InputStatus.END_OF_INPUT) {
+                    reader.close();
+                    startReader();
+                }
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws Exception {
+            reader.close();
+        }
+
+        private void startReader() throws Exception {
+            this.reader = benchmark.createReader();
+            reader.addSplits(benchmark.createSplits());
+            reader.notifyNoMoreSplits();
+        }
+    }
+
+    /** A new reader without any split for every invocation. */
+    @State(Scope.Thread)
+    public static class RestoringReader {
+
+        private PulsarSourceReader<String> reader;
+        private BenchmarkReaderOutput<String> output;
+
+        @Setup(Level.Invocation)
+        public void setUp(PulsarSourceReaderBenchmark benchmark, Blackhole blackhole)
+                throws Exception {
+            this.reader = benchmark.createReader();
+            this.output = new BenchmarkReaderOutput<>(blackhole);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() throws Exception {
+            reader.close();
+        }
+    }
+
+    /** Create a source reader with a new subscription, so the readers don't share the cursors. */
+    private PulsarSourceReader<String> createReader() throws Exception {
+        Configuration readerConfiguration = new Configuration(configuration);
+        readerConfiguration.set(PULSAR_SUBSCRIPTION_NAME, "benchmark-" + UUID.randomUUID());
+
+        PulsarSourceReader<String> reader =
+                PulsarSourceReader.create(
+                        new SourceConfiguration(readerConfiguration),
+                        deserializer.createSchema(),
+                        PulsarCrypto.disabled(),
+                        new TestingReaderContext());
+        reader.start();
+        return reader;
+    }
+
+    /** The splits read the backlog from the earliest position and stop at the last message. */
+    private List<PulsarPartitionSplit> createSplits() {
+        List<PulsarPartitionSplit> splits = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            TopicPartition partition = new TopicPartition(topic, i);
+            splits.add(
+                    new PulsarPartitionSplit(
+                            partition, StopCursor.latest(), MessageId.earliest, null));
+        }
+        return splits;
+    }
+
+    /** Poll the next records, and wait for the fetchers if there is nothing available. */
+    private static InputStatus pollNext(
+            PulsarSourceReader<String> reader, BenchmarkReaderOutput<String> output)
+            throws Exception {
+        InputStatus status = reader.pollNext(output);
+        if (status == InputStatus.NOTHING_AVAILABLE) {
+            reader.isAvailable().get();
+        }
+        return status;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.benchmark;
+
+import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.api.connector.sink2.Committer.CommitRequest;
+import org.apache.flink.api.connector.sink2.SinkWriter;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.DeliveryGuarantee;
+import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.sink.committer.PulsarCommittable;
+import org.apache.flink.connector.pulsar.sink.committer.PulsarCommitter;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.connector.pulsar.sink.writer.PulsarWriter;
+import org.apache.flink.connector.pulsar.sink.writer.delayer.MessageDelayer;
+import org.apache.flink.connector.pulsar.sink.writer.router.RoundRobinTopicRouter;
+import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarSerializationSchemaWrapper;
+import org.apache.flink.connector.pulsar.sink.writer.topic.MetadataListener;
+
+import org.apache.pulsar.client.api.CompressionType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_BATCHING_ENABLED;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_COMPRESSION_TYPE;
+
+/**
+ * The benchmarks for {@link PulsarWriter}. The writer is driven by the benchmark thread like a
+ * Flink task, it writes a batch of records and then performs a checkpoint, which flushes the
+ * pending messages and commits the transactions in {@link DeliveryGuarantee#EXACTLY_ONCE}.
+ *
+ * <p>{@link #writeAndCheckpoint()} measures the throughput in records per second, and {@link
+ * #checkpoint(PendingRecords)} measures the time cost of the checkpoint after a batch of records.
+ *
+ * <p>The writer and the committer run without a broker in the offline mode of the {@link
+ * PulsarBenchmarkRuntime}. The messages are neither batched nor compressed in this mode, so it
+ * measures the overhead of the sink itself.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class PulsarWriterBenchmark {
+
+    static final int RECORDS_PER_CHECKPOINT = 10_000;
+
+    @Param({"NONE", "AT_LEAST_ONCE", "EXACTLY_ONCE"})
+    public DeliveryGuarantee deliveryGuarantee;
+
+    @Param({"1", "8"})
+    public int topics;
+
+    @Param({"true", "false"})
+    public boolean batching;
+
+    @Param({"NONE", "LZ4", "ZSTD"})
+    public CompressionType compression;
+
+    @Param({"256"})
+    public int recordSize;
+
+    private PulsarBenchmarkRuntime runtime;
+    private BenchmarkMailboxExecutor mailboxExecutor;
+    private BenchmarkProcessingTimeService timeService;
+    private PulsarWriter<String> writer;
+    private PulsarCommitter committer;
+    private String record;
+    private long checkpointId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.runtime = PulsarBenchmarkRuntime.start();
+        List<String> topicNames = runtime.createTopics("pulsar-writer-benchmark", topics, 1);
+
+        Configuration configuration = runtime.sinkConfig(deliveryGuarantee);
+        configuration.set(PULSAR_BATCHING_ENABLED, batching);
+        configuration.set(PULSAR_COMPRESSION_TYPE, compression);
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+
+        this.mailboxExecutor = new BenchmarkMailboxExecutor();
+        this.timeService = new BenchmarkProcessingTimeService(mailboxExecutor);
+        this.writer =
+                new PulsarWriter<>(
+                        sinkConfiguration,
+                        new PulsarSerializationSchemaWrapper<>(new SimpleStringSchema()),
+                        new MetadataListener(topicNames),
+                        new RoundRobinTopicRouter<>(sinkConfiguration),
+                        MessageDelayer.never(),
+                        PulsarCrypto.disabled(),
+                        new BenchmarkInitContext(mailboxExecutor, timeService));
+        this.committer = new PulsarCommitter(sinkConfiguration);
+        this.record = BenchmarkDeserializer.createRecord(recordSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        writer.close();
+        committer.close();
+        timeService.close();
+        runtime.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(RECORDS_PER_CHECKPOINT)
+    public void writeAndCheckpoint() throws Exception {
+        writeRecords();
+        checkpointAndCommit();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void checkpoint(PendingRecords pending) throws Exception {
+        checkpointAndCommit();
+    }
+
+    /** Write a batch of records before measuring the checkpoint. */
+    @State(Scope.Thread)
+    public static class PendingRecords {
+
+        @Setup(Level.Invocation)
+        public void write(PulsarWriterBenchmark benchmark) throws Exception {
+            benchmark.writeRecords();
+        }
+    }
+
+    private void writeRecords() throws Exception {
+        for (int i = 0; i < RECORDS_PER_CHECKPOINT; i++) {
+            writer.write(record, WriterContext.INSTANCE);
+            mailboxExecutor.drain();
+        }
+    }
+
+    private void checkpointAndCommit() throws Exception {
+        writer.flush(false);
+        mailboxExecutor.drain();
+        Collection<PulsarCommittable> committables = writer.prepareCommit();
+        writer.snapshotState(++checkpointId);
+
+        if (!committables.isEmpty()) {
+            List<BenchmarkCommitRequest> requests = new ArrayList<>(committables.size());
+            for (PulsarCommittable committable : committables) {
+                requests.add(new BenchmarkCommitRequest(committable));
+            }
+            committer.commit(
+                    Collections.<CommitRequest<PulsarCommittable>>unmodifiableList(requests));
+            for (BenchmarkCommitRequest request : requests) {
+                request.checkCommitted();
+            }
+        }
+    }
+
+    /** The sink writer context without watermark and timestamp. */
+    private static final class WriterContext implements SinkWriter.Context {
+
+        private static final WriterContext INSTANCE = new WriterContext();
+
+        @Override
+        public long currentWatermark() {
+            return Long.MIN_VALUE;
+        }
+
+        @Override
+        public Long timestamp() {
+            return null;
+        }
+    }
+}
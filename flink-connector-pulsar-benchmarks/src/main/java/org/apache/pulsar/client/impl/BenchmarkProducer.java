@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.pulsar.client.impl;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.ProducerStats;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.transaction.Transaction;
+import org.apache.pulsar.client.impl.conf.ProducerConfigurationData;
+import org.apache.pulsar.client.impl.transaction.TransactionImpl;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A producer which acknowledges the messages once they are sent, without connecting to a broker.
+ * The message builders of the sink cast the producers to the {@link ProducerBase}, whose send
+ * methods are package private, so this producer has to be defined in the Pulsar client package.
+ * The interceptors are invoked like the real producers, but the messages are neither batched nor
+ * compressed.
+ */
+public class BenchmarkProducer<T> extends ProducerBase<T> {
+
+    private final String producerName;
+    private long lastSequenceId = -1;
+    private long entryId;
+
+    public BenchmarkProducer(
+            PulsarClientImpl client,
+            ProducerConfigurationData conf,
+            Schema<T> schema,
+            ProducerInterceptors interceptors) {
+        super(client, conf.getTopicName(), conf, new CompletableFuture<>(), schema, interceptors);
+        this.producerName =
+                conf.getProducerName() == null
+                        ? "benchmark-producer-" + conf.getTopicName()
+                        : conf.getProducerName();
+        producerCreatedFuture.complete(this);
+    }
+
+    @Override
+    CompletableFuture<MessageId> internalSendAsync(Message<?> message) {
+        Message<?> interceptorMessage = beforeSend(message);
+        MessageId messageId;
+        synchronized (this) {
+            lastSequenceId = Math.max(lastSequenceId + 1, interceptorMessage.getSequenceId());
+            messageId = new MessageIdImpl(0, entryId++, -1);
+        }
+        onSendAcknowledgement(interceptorMessage, messageId, null);
+        return CompletableFuture.completedFuture(messageId);
+    }
+
+    @Override
+    CompletableFuture<MessageId> internalSendWithTxnAsync(Message<?> message, Transaction txn) {
+        if (txn == null) {
+            return internalSendAsync(message);
+        }
+        return ((TransactionImpl) txn)
+                .registerProducedTopic(getTopic())
+                .thenCompose(v -> internalSendAsync(message));
+    }
+
+    @Override
+    void triggerFlush() {
+        // The messages have been acknowledged.
+    }
+
+    @Override
+    public CompletableFuture<Void> flushAsync() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> closeAsync() {
+        setState(State.Closed);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public String getProducerName() {
+        return producerName;
+    }
+
+    @Override
+    public synchronized long getLastSequenceId() {
+        return lastSequenceId;
+    }
+
+    @Override
+    public ProducerStats getStats() {
+        return ProducerStatsDisabled.INSTANCE;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return getState() != State.Closed;
+    }
+
+    @Override
+    public long getLastDisconnectedTimestamp() {
+        return 0;
+    }
+
+    @Override
+    public int getNumOfPartitions() {
+        return 0;
+    }
+}
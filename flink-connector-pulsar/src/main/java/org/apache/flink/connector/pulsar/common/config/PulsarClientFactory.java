@@ -19,7 +19,9 @@
 package org.apache.flink.connector.pulsar.common.config;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.util.function.SupplierWithException;
 
 import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.api.Authentication;
@@ -31,6 +33,8 @@ import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.impl.auth.AuthenticationDisabled;
 
 import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.TreeSet;
 import java.util.function.ObjIntConsumer;
@@ -39,6 +43,8 @@ import static java.util.Collections.singletonMap;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.ADMIN_CONFIG_PREFIX;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.CLIENT_CONFIG_PREFIX;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ADMIN_URL;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_AUTH_PARAMS;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_AUTH_PARAM_MAP;
@@ -51,6 +57,7 @@ import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULS
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_CONNECT_TIMEOUT;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_DNS_LOOKUP_BIND_ADDRESS;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_BUSY_WAIT;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_CLIENT_SHARING;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_TRANSACTION;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_INITIAL_BACKOFF_INTERVAL_NANOS;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_KEEP_ALIVE_INTERVAL_SECONDS;
@@ -90,16 +97,109 @@ import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULS
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_TLS_TRUST_STORE_TYPE;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_USE_KEY_STORE_TLS;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_USE_TCP_NO_DELAY;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkState;
 import static org.apache.pulsar.client.api.SizeUnit.BYTES;
 
 /** The factory for creating pulsar client classes from {@link PulsarConfiguration}. */
 @Internal
 public final class PulsarClientFactory {
 
+    // The shared instances which are keyed by the client (admin) related configuration.
+    private static final Map<Map<String, String>, SharedInstance<PulsarClient>> SHARED_CLIENTS =
+            new HashMap<>();
+    private static final Map<Map<String, String>, SharedInstance<PulsarAdmin>> SHARED_ADMINS =
+            new HashMap<>();
+
     private PulsarClientFactory() {
         // No need to create instance.
     }
 
+    /**
+     * Acquire a PulsarClient for the connector components. A new client will be created if the
+     * {@link PulsarOptions#PULSAR_ENABLE_CLIENT_SHARING} is disabled. Otherwise, we would return a
+     * reference counted client which is shared among all the components with the same client
+     * configuration in this JVM.
+     *
+     * <p>The acquired client should be released by {@link #releaseClient(PulsarClient)} instead of
+     * closing it directly.
+     */
+    public static PulsarClient acquireClient(PulsarConfiguration configuration)
+            throws PulsarClientException {
+        if (!configuration.get(PULSAR_ENABLE_CLIENT_SHARING)) {
+            return createClient(configuration);
+        }
+
+        Map<String, String> key = sharingKey(configuration, CLIENT_CONFIG_PREFIX);
+        return acquire(SHARED_CLIENTS, key, () -> createClient(configuration));
+    }
+
+    /**
+     * Release the client acquired from {@link #acquireClient(PulsarConfiguration)}. The client
+     * would be closed once it's not referenced by any component. All the producers and consumers
+     * created by this client should be closed before releasing it.
+     */
+    public static void releaseClient(PulsarClient client) throws PulsarClientException {
+        if (release(SHARED_CLIENTS, client)) {
+            client.close();
+        }
+    }
+
+    /**
+     * Share the given client with the components which acquire a client by the same client
+     * configuration. This is used for replacing the client in tests and benchmarks, the {@link
+     * PulsarOptions#PULSAR_ENABLE_CLIENT_SHARING} should be enabled. The caller holds a reference
+     * of the client and should release it by {@link #releaseClient(PulsarClient)}.
+     */
+    @VisibleForTesting
+    public static void shareClient(PulsarConfiguration configuration, PulsarClient client) {
+        checkArgument(
+                configuration.get(PULSAR_ENABLE_CLIENT_SHARING),
+                "The client sharing should be enabled for sharing the given client.");
+
+        Map<String, String> key = sharingKey(configuration, CLIENT_CONFIG_PREFIX);
+        share(SHARED_CLIENTS, key, client);
+    }
+
+    /**
+     * Acquire a PulsarAdmin for the connector components. This method shares the same behavior
+     * with {@link #acquireClient(PulsarConfiguration)}.
+     */
+    public static PulsarAdmin acquireAdmin(PulsarConfiguration configuration)
+            throws PulsarClientException {
+        if (!configuration.get(PULSAR_ENABLE_CLIENT_SHARING)) {
+            return createAdmin(configuration);
+        }
+
+        // The admin shares the authentication and TLS configuration with the client.
+        Map<String, String> key = sharingKey(configuration, CLIENT_CONFIG_PREFIX);
+        key.putAll(sharingKey(configuration, ADMIN_CONFIG_PREFIX));
+        return acquire(SHARED_ADMINS, key, () -> createAdmin(configuration));
+    }
+
+    /**
+     * Share the given admin with the components which acquire an admin by the same configuration.
+     * This method shares the same behavior with {@link #shareClient(PulsarConfiguration,
+     * PulsarClient)}.
+     */
+    @VisibleForTesting
+    public static void shareAdmin(PulsarConfiguration configuration, PulsarAdmin admin) {
+        checkArgument(
+                configuration.get(PULSAR_ENABLE_CLIENT_SHARING),
+                "The client sharing should be enabled for sharing the given admin.");
+
+        Map<String, String> key = sharingKey(configuration, CLIENT_CONFIG_PREFIX);
+        key.putAll(sharingKey(configuration, ADMIN_CONFIG_PREFIX));
+        share(SHARED_ADMINS, key, admin);
+    }
+
+    /** Release the admin acquired from {@link #acquireAdmin(PulsarConfiguration)}. */
+    public static void releaseAdmin(PulsarAdmin admin) {
+        if (release(SHARED_ADMINS, admin)) {
+            admin.close();
+        }
+    }
+
     /** Create a PulsarClient by using the flink Configuration and the config customizer. */
     public static PulsarClient createClient(PulsarConfiguration configuration)
             throws PulsarClientException {
@@ -258,6 +358,89 @@ public final class PulsarClientFactory {
         return AuthenticationDisabled.INSTANCE;
     }
 
+    private static Map<String, String> sharingKey(
+            PulsarConfiguration configuration, String prefix) {
+        Map<String, String> key = new HashMap<>();
+        for (Map.Entry<String, String> entry : configuration.toMap().entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                key.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return key;
+    }
+
+    private static <T> T acquire(
+            Map<Map<String, String>, SharedInstance<T>> instances,
+            Map<String, String> key,
+            SupplierWithException<T, PulsarClientException> factory)
+            throws PulsarClientException {
+        synchronized (instances) {
+            SharedInstance<T> shared = instances.get(key);
+            if (shared == null) {
+                shared = new SharedInstance<>(factory.get());
+                instances.put(key, shared);
+            }
+            shared.references++;
+
+            return shared.instance;
+        }
+    }
+
+    /** Share the given instance, which is referenced by the caller. */
+    private static <T> void share(
+            Map<Map<String, String>, SharedInstance<T>> instances,
+            Map<String, String> key,
+            T instance) {
+        synchronized (instances) {
+            checkState(
+                    !instances.containsKey(key),
+                    "An instance has been shared with the same configuration.");
+            SharedInstance<T> shared = new SharedInstance<>(instance);
+            shared.references++;
+            instances.put(key, shared);
+        }
+    }
+
+    /**
+     * Decrease the reference count of the given instance.
+     *
+     * @return Whether the instance should be closed by the caller.
+     */
+    private static <T> boolean release(
+            Map<Map<String, String>, SharedInstance<T>> instances, T instance) {
+        synchronized (instances) {
+            Iterator<SharedInstance<T>> iterator = instances.values().iterator();
+            while (iterator.hasNext()) {
+                SharedInstance<T> shared = iterator.next();
+                if (shared.instance == instance) {
+                    shared.references--;
+                    if (shared.references > 0) {
+                        return false;
+                    }
+
+                    iterator.remove();
+                    return true;
+                }
+            }
+        }
+
+        // This instance isn't shared.
+        return true;
+    }
+
+    /** A reference counted holder for the shared Pulsar client or admin. */
+    private static final class SharedInstance<T> {
+
+        private final T instance;
+        private int references;
+
+        private SharedInstance(T instance) {
+            this.instance = instance;
+            this.references = 0;
+        }
+    }
+
     private static void bindAddress(
             PulsarConfiguration configuration,
             ConfigOption<String> option,
@@ -583,6 +583,40 @@ public final class PulsarOptions {
                     .noDefaultValue()
                     .withDescription("Password of SOCKS5 proxy.");
 
+    public static final ConfigOption<Boolean> PULSAR_ENABLE_CLIENT_SHARING =
+            ConfigOptions.key(CLIENT_CONFIG_PREFIX + "enableClientSharing")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "Share the %s and %s instances among all the Pulsar source and sink components in the same JVM.",
+                                            code("PulsarClient"), code("PulsarAdmin"))
+                                    .text(
+                                            " The instances are reference counted and keyed by the client and admin configuration,")
+                                    .text(
+                                            " so the components with the same configuration will multiplex the IO threads and connections.")
+                                    .linebreak()
+                                    .text(
+                                            "The %s is also shared among these components if you enable this option.",
+                                            code("pulsar.client.memoryLimitBytes"))
+                                    .build());
+
+    public static final ConfigOption<Boolean> PULSAR_ENABLE_VIRTUAL_THREADS =
+            ConfigOptions.key(CLIENT_CONFIG_PREFIX + "enableVirtualThreads")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "Execute the blocking calls in the connector, such as the topic metadata queries and the cursor creation, in parallel on the virtual threads.")
+                                    .text(
+                                            " The virtual threads are only available on JDK 21 and above, a bounded platform thread pool will be used on the older JVMs.")
+                                    .linebreak()
+                                    .text(
+                                            "These blocking calls are executed one by one in the caller thread if you disable this option.")
+                                    .build());
+
     ///////////////////////////////////////////////////////////////////////////////
     //
     // The configuration for PulsarAdmin part.
@@ -43,6 +43,12 @@ public final class MetricNames {
     public static final String TOTAL_SEND_FAILED = "totalSendFailed";
     public static final String TOTAL_ACKS_RECEIVED = "totalAcksReceived";
     public static final String PENDING_QUEUE_SIZE = "pendingQueueSize";
+    public static final String PENDING_MESSAGES = "pendingMessages";
+    public static final String PENDING_BYTES = "pendingBytes";
+    public static final String LAST_FLUSH_DURATION_MILLIS = "lastFlushDurationMillis";
+    public static final String PRODUCER_COUNT = "producerCount";
+    public static final String NUM_PRODUCERS_CREATED = "numProducersCreated";
+    public static final String NUM_PRODUCERS_EVICTED = "numProducersEvicted";
 
     public static final String PULSAR_CONSUMER_METRIC_NAME = "PulsarConsumer";
     public static final String NUM_MSGS_RECEIVED = "numMsgsReceived";
@@ -60,4 +66,5 @@ public final class MetricNames {
     public static final String TOTAL_ACKS_SENT = "totalAcksSent";
     public static final String TOTAL_ACKS_FAILED = "totalAcksFailed";
     public static final String MSG_NUM_IN_RECEIVER_QUEUE = "msgNumInReceiverQueue";
+    public static final String FETCH_THROTTLED_TIME_MILLIS = "fetchThrottledTimeMillis";
 }
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.common.utils;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.pulsar.common.config.PulsarConfiguration;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.apache.flink.util.function.FunctionWithException;
+
+import org.apache.pulsar.shade.com.google.common.util.concurrent.MoreExecutors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_VIRTUAL_THREADS;
+
+/**
+ * The executors for the blocking I/O in the connector, such as the admin API calls. The blocking
+ * actions would be executed in the caller thread by default. They would be executed on the virtual
+ * threads (JDK 21+) or a platform thread pool if the user enables {@link
+ * org.apache.flink.connector.pulsar.common.config.PulsarOptions#PULSAR_ENABLE_VIRTUAL_THREADS}.
+ */
+@Internal
+public final class PulsarExecutorUtils {
+    private static final Logger LOG = LoggerFactory.getLogger(PulsarExecutorUtils.class);
+
+    // The platform threads would be released after this keep alive time.
+    private static final long PLATFORM_THREAD_KEEP_ALIVE_SECONDS = 60L;
+
+    @SuppressWarnings("java:S3077")
+    private static volatile Method virtualThreadExecutorFactory;
+
+    private static volatile boolean virtualThreadsChecked = false;
+
+    private PulsarExecutorUtils() {
+        // No public constructor.
+    }
+
+    /**
+     * Create an executor for the blocking actions. The returned executor should be shutdown by the
+     * caller.
+     *
+     * @param configuration The configuration for checking if the virtual threads are enabled.
+     * @param poolName The thread name prefix for the platform thread fallback.
+     */
+    public static ExecutorService createBlockingExecutor(
+            PulsarConfiguration configuration, String poolName) {
+        if (!configuration.get(PULSAR_ENABLE_VIRTUAL_THREADS)) {
+            return MoreExecutors.newDirectExecutorService();
+        }
+
+        Method factory = virtualThreadExecutorFactory();
+        if (factory != null) {
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOG.warn("Failed to create the virtual thread executor, fallback to threads.", e);
+            }
+        }
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        PLATFORM_THREAD_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        new ExecutorThreadFactory(poolName));
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    /**
+     * Execute the blocking action for all the inputs on the given executor and wait for all the
+     * results. The results are in the same order as the inputs.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R, E extends Exception> List<R> invokeAll(
+            Executor executor, Collection<T> inputs, FunctionWithException<T, R, E> action)
+            throws E {
+        List<CompletableFuture<R>> futures = new ArrayList<>(inputs.size());
+        for (T input : inputs) {
+            CompletableFuture<R> future =
+                    CompletableFuture.supplyAsync(
+                            () -> {
+                                try {
+                                    return action.apply(input);
+                                } catch (Exception e) {
+                                    throw new CompletionException(e);
+                                }
+                            },
+                            executor);
+            futures.add(future);
+        }
+
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FlinkRuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Exception) {
+                // The action could only throw the declared checked exception.
+                throw (E) cause;
+            } else {
+                throw new FlinkRuntimeException(cause);
+            }
+        }
+
+        return results;
+    }
+
+    /** The virtual threads are only available since JDK 21. We have to find it by reflection. */
+    private static Method virtualThreadExecutorFactory() {
+        if (!virtualThreadsChecked) {
+            synchronized (PulsarExecutorUtils.class) {
+                if (!virtualThreadsChecked) {
+                    try {
+                        virtualThreadExecutorFactory =
+                                java.util.concurrent.Executors.class.getMethod(
+                                        "newVirtualThreadPerTaskExecutor");
+                    } catch (NoSuchMethodException e) {
+                        LOG.info(
+                                "Virtual threads are not supported in current JVM, fallback to platform threads.");
+                    }
+                    virtualThreadsChecked = true;
+                }
+            }
+        }
+
+        return virtualThreadExecutorFactory;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.common.utils;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+import org.apache.pulsar.client.impl.TypedMessageBuilderImpl;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/** A suit of workarounds for the Pulsar {@link TypedMessageBuilder}. */
+@Internal
+public final class PulsarMessageBuilderUtils {
+
+    private static final Field CONTENT_FIELD;
+
+    static {
+        try {
+            CONTENT_FIELD = TypedMessageBuilderImpl.class.getDeclaredField("content");
+            CONTENT_FIELD.setAccessible(true);
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private PulsarMessageBuilderUtils() {
+        // No public constructor
+    }
+
+    /**
+     * {@link TypedMessageBuilder#value(Object)} only accepts the value encoded by {@link
+     * Schema#encode(Object)}, which is a heap byte array. The producer wraps the content of the
+     * message builder into a Netty buffer without copying it. So we set the serialized buffer as
+     * the content directly, the direct buffer wouldn't be copied into the heap.
+     *
+     * <p>The readable bytes of the buffer are sent, it shouldn't be modified until the message is
+     * sent. The content isn't validated by {@link Schema#AUTO_PRODUCE_BYTES()}, so this method
+     * shouldn't be used if the validation is enabled.
+     */
+    public static void setContent(TypedMessageBuilder<?> builder, ByteBuffer content) {
+        try {
+            CONTENT_FIELD.set(builder, content);
+        } catch (IllegalAccessException e) {
+            throw new FlinkRuntimeException("Couldn't set the content of the message builder.", e);
+        }
+    }
+}
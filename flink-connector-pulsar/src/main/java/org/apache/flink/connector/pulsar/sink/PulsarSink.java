@@ -21,6 +21,7 @@ package org.apache.flink.connector.pulsar.sink;
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.api.connector.sink2.Committer;
+import org.apache.flink.api.connector.sink2.StatefulSink;
 import org.apache.flink.api.connector.sink2.TwoPhaseCommittingSink;
 import org.apache.flink.connector.base.DeliveryGuarantee;
 import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
@@ -29,6 +30,8 @@ import org.apache.flink.connector.pulsar.sink.committer.PulsarCommittableSeriali
 import org.apache.flink.connector.pulsar.sink.committer.PulsarCommitter;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
 import org.apache.flink.connector.pulsar.sink.writer.PulsarWriter;
+import org.apache.flink.connector.pulsar.sink.writer.PulsarWriterState;
+import org.apache.flink.connector.pulsar.sink.writer.PulsarWriterStateSerializer;
 import org.apache.flink.connector.pulsar.sink.writer.delayer.MessageDelayer;
 import org.apache.flink.connector.pulsar.sink.writer.router.KeyHashTopicRouter;
 import org.apache.flink.connector.pulsar.sink.writer.router.RoundRobinTopicRouter;
@@ -42,6 +45,8 @@ import org.apache.pulsar.client.api.PulsarClientException;
 
 import javax.annotation.Nullable;
 
+import java.util.Collection;
+
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -82,7 +87,9 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * @param <IN> The input type of the sink.
  */
 @PublicEvolving
-public class PulsarSink<IN> implements TwoPhaseCommittingSink<IN, PulsarCommittable> {
+public class PulsarSink<IN>
+        implements TwoPhaseCommittingSink<IN, PulsarCommittable>,
+                StatefulSink<IN, PulsarWriterState> {
     private static final long serialVersionUID = 4416714587951282119L;
 
     private final SinkConfiguration sinkConfiguration;
@@ -130,8 +137,7 @@ public class PulsarSink<IN> implements TwoPhaseCommittingSink<IN, PulsarCommitta
 
     @Internal
     @Override
-    public PrecommittingSinkWriter<IN, PulsarCommittable> createWriter(InitContext initContext)
-            throws PulsarClientException {
+    public PulsarWriter<IN> createWriter(InitContext initContext) throws PulsarClientException {
         return new PulsarWriter<>(
                 sinkConfiguration,
                 serializationSchema,
@@ -142,6 +148,28 @@ public class PulsarSink<IN> implements TwoPhaseCommittingSink<IN, PulsarCommitta
                 initContext);
     }
 
+    @Internal
+    @Override
+    public PulsarWriter<IN> restoreWriter(
+            InitContext initContext, Collection<PulsarWriterState> recoveredState)
+            throws PulsarClientException {
+        return new PulsarWriter<>(
+                sinkConfiguration,
+                serializationSchema,
+                metadataListener,
+                topicRouter,
+                messageDelayer,
+                pulsarCrypto,
+                initContext,
+                recoveredState);
+    }
+
+    @Internal
+    @Override
+    public SimpleVersionedSerializer<PulsarWriterState> getWriterStateSerializer() {
+        return new PulsarWriterStateSerializer();
+    }
+
     @Internal
     @Override
     public Committer<PulsarCommittable> createCommitter() {
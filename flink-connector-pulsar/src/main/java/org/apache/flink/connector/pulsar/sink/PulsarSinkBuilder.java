@@ -26,6 +26,8 @@ import org.apache.flink.connector.base.DeliveryGuarantee;
 import org.apache.flink.connector.pulsar.common.config.PulsarConfigBuilder;
 import org.apache.flink.connector.pulsar.common.config.PulsarOptions;
 import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.sink.async.PulsarAsyncSink;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntryConverter;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
 import org.apache.flink.connector.pulsar.sink.writer.delayer.MessageDelayer;
 import org.apache.flink.connector.pulsar.sink.writer.router.TopicRouter;
@@ -52,9 +54,14 @@ import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULS
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_AUTH_PLUGIN_CLASS_NAME;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_TRANSACTION;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_SERVICE_URL;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_DEDUPLICATION;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_PARTITIONED_PRODUCER;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_PRODUCERS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_IDLE_TIMEOUT;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_CRYPTO_FAILURE_ACTION;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_NAME;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SEND_TIMEOUT_MS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SPILL_MAX_BYTES;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_DELIVERY_GUARANTEE;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_SCHEMA_EVOLUTION;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_TRANSACTION_TIMEOUT;
@@ -107,6 +114,9 @@ import static org.apache.flink.util.Preconditions.checkState;
 public class PulsarSinkBuilder<IN> {
     private static final Logger LOG = LoggerFactory.getLogger(PulsarSinkBuilder.class);
 
+    // The spilled messages are read into the heap memory when checkpointing.
+    private static final long MAX_SPILL_BYTES = 256 * 1024 * 1024;
+
     private final PulsarConfigBuilder configBuilder;
 
     private PulsarSerializationSchema<IN> serializationSchema;
@@ -292,6 +302,18 @@ public class PulsarSinkBuilder<IN> {
         return this;
     }
 
+    /**
+     * Write the messages exactly once by the message deduplication on the brokers instead of the
+     * Pulsar transactions. The producer name and the {@link DeliveryGuarantee#AT_LEAST_ONCE} should
+     * be set, and the deduplication should be enabled on the namespaces of the topics.
+     *
+     * @return this PulsarSinkBuilder.
+     */
+    public PulsarSinkBuilder<IN> enableDeduplication() {
+        configBuilder.override(PULSAR_ENABLE_DEDUPLICATION, true);
+        return this;
+    }
+
     /**
      * Set a message delayer for enable Pulsar message delay delivery.
      *
@@ -394,6 +416,56 @@ public class PulsarSinkBuilder<IN> {
      * @return a PulsarSink with the settings made for this builder.
      */
     public PulsarSink<IN> build() {
+        SinkConfiguration sinkConfiguration = validateAndBuildConfiguration();
+        return new PulsarSink<>(
+                sinkConfiguration,
+                serializationSchema,
+                metadataListener,
+                topicRoutingMode,
+                topicRouter,
+                messageDelayer,
+                pulsarCrypto);
+    }
+
+    /**
+     * Build a {@link PulsarAsyncSink} which buffers and sends the records in batches on Flink's
+     * async sink framework. The batching could be tuned by the {@code pulsar.sink.async*} options.
+     *
+     * <p>This sink only supports {@link DeliveryGuarantee#AT_LEAST_ONCE}, the delivery guarantee
+     * would be changed to it if you haven't set one. The schema evolution isn't supported, the
+     * messages are encoded by the Pulsar schema and sent as bytes.
+     *
+     * @return a PulsarAsyncSink with the settings made for this builder.
+     */
+    public PulsarAsyncSink<IN> buildAsync() {
+        if (!configBuilder.contains(PULSAR_WRITE_DELIVERY_GUARANTEE)) {
+            configBuilder.set(PULSAR_WRITE_DELIVERY_GUARANTEE, DeliveryGuarantee.AT_LEAST_ONCE);
+        }
+        checkState(
+                configBuilder.get(PULSAR_WRITE_DELIVERY_GUARANTEE)
+                        == DeliveryGuarantee.AT_LEAST_ONCE,
+                "The async Pulsar sink only supports the AT_LEAST_ONCE delivery guarantee.");
+        checkState(
+                !Boolean.TRUE.equals(configBuilder.get(PULSAR_WRITE_SCHEMA_EVOLUTION)),
+                "The async Pulsar sink doesn't support schema evolution.");
+        checkState(
+                !configBuilder.get(PULSAR_ENABLE_DEDUPLICATION),
+                "The async Pulsar sink doesn't support the deduplication.");
+
+        SinkConfiguration sinkConfiguration = validateAndBuildConfiguration();
+        PulsarRequestEntryConverter<IN> elementConverter =
+                new PulsarRequestEntryConverter<>(
+                        sinkConfiguration,
+                        serializationSchema,
+                        metadataListener,
+                        topicRoutingMode,
+                        topicRouter,
+                        messageDelayer);
+
+        return new PulsarAsyncSink<>(elementConverter, sinkConfiguration, pulsarCrypto);
+    }
+
+    private SinkConfiguration validateAndBuildConfiguration() {
         // Change delivery guarantee.
         DeliveryGuarantee deliveryGuarantee = configBuilder.get(PULSAR_WRITE_DELIVERY_GUARANTEE);
         if (deliveryGuarantee == DeliveryGuarantee.NONE) {
@@ -416,6 +488,38 @@ public class PulsarSinkBuilder<IN> {
             }
         }
 
+        if (configBuilder.get(PULSAR_ENABLE_DEDUPLICATION)) {
+            // The brokers drop the duplicated messages by the producer names and sequence ids.
+            checkState(
+                    deliveryGuarantee == DeliveryGuarantee.AT_LEAST_ONCE,
+                    "The deduplication requires the AT_LEAST_ONCE delivery guarantee, the messages are resent after restoring.");
+            checkState(
+                    configBuilder.contains(PULSAR_PRODUCER_NAME),
+                    "The deduplication requires a producer name which is unique for the topics.");
+            checkState(
+                    !configBuilder.get(PULSAR_ENABLE_PARTITIONED_PRODUCER),
+                    "The deduplication doesn't support the partitioned producer.");
+            checkState(
+                    configBuilder.get(PULSAR_SPILL_MAX_BYTES) <= 0,
+                    "The deduplication doesn't support the spill buffer, the spilled messages are resent with new sequence ids.");
+            // The evicted producer is closed asynchronously, the recreated one with the same name
+            // would be rejected by the brokers until the old one has been closed.
+            checkState(
+                    !configBuilder.contains(PULSAR_MAX_PRODUCERS)
+                            && configBuilder.get(PULSAR_PRODUCER_IDLE_TIMEOUT) <= 0,
+                    "The deduplication doesn't support evicting the producers, the producer names are fixed.");
+        }
+
+        // The spilled messages can't be sent in the transactions of the following checkpoints.
+        checkState(
+                configBuilder.get(PULSAR_SPILL_MAX_BYTES) <= 0
+                        || deliveryGuarantee == DeliveryGuarantee.AT_LEAST_ONCE,
+                "The spill buffer is only supported in AT_LEAST_ONCE delivery guarantee.");
+        checkState(
+                configBuilder.get(PULSAR_SPILL_MAX_BYTES) <= MAX_SPILL_BYTES,
+                "The spill buffer couldn't exceed %s bytes, the spilled messages are stored in the checkpoint.",
+                MAX_SPILL_BYTES);
+
         if (!configBuilder.contains(PULSAR_PRODUCER_NAME)) {
             LOG.warn(
                     "We recommend set a readable producer name through setProducerName(String) in production mode.");
@@ -474,17 +578,7 @@ public class PulsarSinkBuilder<IN> {
 
         // This is an unmodifiable configuration for Pulsar.
         // We don't use Pulsar's built-in configure classes for compatible requirement.
-        SinkConfiguration sinkConfiguration =
-                configBuilder.build(SINK_CONFIG_VALIDATOR, SinkConfiguration::new);
-
-        return new PulsarSink<>(
-                sinkConfiguration,
-                serializationSchema,
-                metadataListener,
-                topicRoutingMode,
-                topicRouter,
-                messageDelayer,
-                pulsarCrypto);
+        return configBuilder.build(SINK_CONFIG_VALIDATOR, SinkConfiguration::new);
     }
 
     // ------------- private helpers  --------------
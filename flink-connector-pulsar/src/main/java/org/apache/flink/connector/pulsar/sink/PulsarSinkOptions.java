@@ -155,6 +155,257 @@ public final class PulsarSinkOptions {
                                             "This can make sure your serialized messages bytes is valid for consumer.")
                                     .build());
 
+    public static final ConfigOption<Long> PULSAR_WRITE_FLUSH_TIMEOUT =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "flushTimeoutMillis")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum time (in ms) to wait for all the pending messages to be acknowledged when the sink is flushing on checkpoint.")
+                                    .text(
+                                            " The flush would fail if some messages are still pending after this timeout.")
+                                    .text(
+                                            " Zero means waiting until every pending message is completed, which is bounded by %s.",
+                                            code("pulsar.producer.sendTimeoutMs"))
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_WRITE_MAX_INFLIGHT_MESSAGES =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "maxInflightMessages")
+                    .intType()
+                    .noDefaultValue()
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of messages that a sink writer could send without receiving the acknowledgement.")
+                                    .text(
+                                            " The writer would stop accepting records and yield to the task mailbox when it reaches this limit, so a slow broker causes backpressure instead of send timeouts.")
+                                    .text(" The number is unlimited if this option isn't set.")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_WRITE_MAX_INFLIGHT_BYTES =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "maxInflightBytes")
+                    .longType()
+                    .noDefaultValue()
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum payload bytes that a sink writer could send without receiving the acknowledgement.")
+                                    .text(
+                                            " The writer would stop accepting records and yield to the task mailbox when it reaches this limit.")
+                                    .text(" The size is unlimited if this option isn't set.")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_PRODUCER_IDLE_TIMEOUT =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "producerIdleTimeoutMillis")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The producer of a topic would be flushed and closed if the sink writer hasn't written to the topic in this time (in ms).")
+                                    .text(
+                                            " It would be recreated when the topic is written again. This is useful for routing messages to a lot of topics.")
+                                    .text(" Zero means the producers are never evicted.")
+                                    .text(
+                                            " The metrics of the individual producers aren't exposed when the producers could be evicted.")
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_MAX_PRODUCERS =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "maxProducers")
+                    .intType()
+                    .noDefaultValue()
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of producers held by a sink writer.")
+                                    .text(
+                                            " The producers of the least recently used topics would be flushed and closed when exceeding this limit.")
+                                    .text(" The number is unlimited if this option isn't set.")
+                                    .text(
+                                            " The metrics of the individual producers aren't exposed when the producers could be evicted.")
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_MAX_PENDING_MESSAGES_PER_TOPIC =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "maxPendingMessagesPerTopic")
+                    .intType()
+                    .defaultValue(1000)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The producer of a new topic is created in background, the sink writer would buffer the messages to this topic before the producer is ready.")
+                                    .text(
+                                            " This is the maximum number of the buffered messages for a topic, the writer would wait for the producer when it's reached.")
+                                    .build());
+
+    public static final ConfigOption<Boolean> PULSAR_ENABLE_PARTITIONED_PRODUCER =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "enablePartitionedProducer")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The sink writer creates a producer for every partition it writes to by default.")
+                                    .text(
+                                            " If you enable this option, the partitions of a topic would share a partitioned producer.")
+                                    .text(
+                                            " The partition is still chosen by the %s, the internal producers of the partitions are started lazily.",
+                                            code("TopicRouter"))
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_MAX_CONCURRENT_COMMITS =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "maxConcurrentCommits")
+                    .intType()
+                    .defaultValue(16)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The committer commits the Pulsar transactions of a checkpoint asynchronously.")
+                                    .text(
+                                            " The transactions are grouped by their transaction coordinators, this is the maximum number of the transactions which are being committed at the same time in a coordinator.")
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_TRANSACTION_POOL_SIZE =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "transactionPoolSize")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The number of the transactions which are opened in background by the sink writer in %s mode.",
+                                            code("EXACTLY_ONCE"))
+                                    .text(
+                                            " The writer wouldn't wait for the transaction coordinator when it starts writing a new checkpoint.")
+                                    .text(
+                                            " The unused transactions are aborted when closing the writer. Set it to 0 for disabling the pool.")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_SPILL_MAX_BYTES =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "spillMaxBytes")
+                    .longType()
+                    .defaultValue(0L)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum bytes of the messages which could be spilled to the local disk when the brokers are unavailable.")
+                                    .text(
+                                            " The failed messages would be kept in the memory-mapped segment files and resent in order when the brokers are recovered.")
+                                    .text(
+                                            " The spilled messages are stored in the checkpoint, the writer would fail if the spilled messages exceed this limit.")
+                                    .text(
+                                            " The spilled messages are read into the heap memory when checkpointing, so this limit couldn't exceed 256 MB.")
+                                    .text(
+                                            " This is only supported in %s mode, the spill buffer is disabled if this option is zero.",
+                                            code("AT_LEAST_ONCE"))
+                                    .build());
+
+    public static final ConfigOption<String> PULSAR_SPILL_DIRECTORY =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "spillDirectory")
+                    .stringType()
+                    .noDefaultValue()
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The local directory for the spill segment files. The system temporary directory is used if this option isn't set.")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_SPILL_RETRY_INTERVAL =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "spillRetryIntervalMillis")
+                    .longType()
+                    .defaultValue(1000L)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The interval (in ms) for resending the spilled messages to Pulsar after a failed attempt.")
+                                    .build());
+
+    public static final ConfigOption<Boolean> PULSAR_ENABLE_DEDUPLICATION =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "enableDeduplication")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "Provide the exactly-once guarantee by the message deduplication on the brokers instead of the transactions.")
+                                    .text(
+                                            " The producer names are fixed for every subtask, and the sequence ids of the messages are stored in the checkpoint.")
+                                    .text(
+                                            " The duplicated messages resent after restoring would be dropped by the brokers.")
+                                    .text(
+                                            " This requires the %s delivery guarantee, a producer name, and the deduplication enabled on the namespaces.",
+                                            code("AT_LEAST_ONCE"))
+                                    .text(
+                                            " The records should be routed to the same topics in the same order after restoring, and the parallelism shouldn't be changed.")
+                                    .text(
+                                            " The producers can't be evicted by %s or %s.",
+                                            code("pulsar.sink.maxProducers"),
+                                            code("pulsar.sink.producerIdleTimeoutMillis"))
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_ASYNC_MAX_BATCH_SIZE =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "asyncMaxBatchSize")
+                    .intType()
+                    .defaultValue(500)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of messages in a batch which is submitted by the async sink writer.")
+                                    .text(
+                                            " This option is only used by the sink created from PulsarSinkBuilder#buildAsync().")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_ASYNC_MAX_BATCH_SIZE_IN_BYTES =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "asyncMaxBatchSizeInBytes")
+                    .longType()
+                    .defaultValue(5L * 1024 * 1024)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum payload bytes of a batch which is submitted by the async sink writer.")
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_ASYNC_MAX_IN_FLIGHT_REQUESTS =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "asyncMaxInFlightRequests")
+                    .intType()
+                    .defaultValue(50)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of batches that the async sink writer could send without completing them.")
+                                    .text(
+                                            " The messages in different batches may be reordered when a batch is retried.")
+                                    .build());
+
+    public static final ConfigOption<Integer> PULSAR_ASYNC_MAX_BUFFERED_REQUESTS =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "asyncMaxBufferedRequests")
+                    .intType()
+                    .defaultValue(10000)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of messages buffered in the async sink writer before applying backpressure.")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_ASYNC_MAX_TIME_IN_BUFFER_MILLIS =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "asyncMaxTimeInBufferMillis")
+                    .longType()
+                    .defaultValue(5000L)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum time (in ms) a message could stay in the buffer of the async sink writer before being submitted.")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_ASYNC_MAX_RECORD_SIZE_IN_BYTES =
+            ConfigOptions.key(SINK_CONFIG_PREFIX + "asyncMaxRecordSizeInBytes")
+                    .longType()
+                    .defaultValue(1024L * 1024)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum payload bytes of a single message accepted by the async sink writer.")
+                                    .build());
+
     ///////////////////////////////////////////////////////////////////////////////
     //
     // The configuration for ProducerConfigurationData part.
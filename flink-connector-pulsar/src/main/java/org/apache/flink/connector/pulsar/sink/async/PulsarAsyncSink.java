@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.async;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.connector.base.sink.AsyncSinkBase;
+import org.apache.flink.connector.base.sink.writer.BufferedRequestState;
+import org.apache.flink.connector.base.sink.writer.config.AsyncSinkWriterConfiguration;
+import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.sink.PulsarSinkBuilder;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import org.apache.pulsar.client.api.PulsarClientException;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ASYNC_MAX_BATCH_SIZE;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ASYNC_MAX_BATCH_SIZE_IN_BYTES;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ASYNC_MAX_BUFFERED_REQUESTS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ASYNC_MAX_IN_FLIGHT_REQUESTS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ASYNC_MAX_RECORD_SIZE_IN_BYTES;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ASYNC_MAX_TIME_IN_BUFFER_MILLIS;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * An at-least-once Pulsar sink built on Flink's {@link AsyncSinkBase}. Please use {@link
+ * PulsarSinkBuilder#buildAsync()} to construct it.
+ *
+ * <p>The records are serialized into bytes eagerly and buffered in the writer, the buffer is
+ * submitted to Pulsar in batches and stored in the checkpoint. Compared with the {@code
+ * PulsarSink}, this sink doesn't support {@code EXACTLY_ONCE} and schema evolution. The batching
+ * could be tuned by the {@code pulsar.sink.async*} options.
+ *
+ * @param <IN> The input type of the sink.
+ */
+@PublicEvolving
+public class PulsarAsyncSink<IN> extends AsyncSinkBase<IN, PulsarRequestEntry> {
+    private static final long serialVersionUID = -6524377294375734123L;
+
+    private final PulsarRequestEntryConverter<IN> elementConverter;
+    private final SinkConfiguration sinkConfiguration;
+    private final PulsarCrypto pulsarCrypto;
+
+    public PulsarAsyncSink(
+            PulsarRequestEntryConverter<IN> elementConverter,
+            SinkConfiguration sinkConfiguration,
+            PulsarCrypto pulsarCrypto) {
+        super(
+                elementConverter,
+                sinkConfiguration.get(PULSAR_ASYNC_MAX_BATCH_SIZE),
+                sinkConfiguration.get(PULSAR_ASYNC_MAX_IN_FLIGHT_REQUESTS),
+                sinkConfiguration.get(PULSAR_ASYNC_MAX_BUFFERED_REQUESTS),
+                sinkConfiguration.get(PULSAR_ASYNC_MAX_BATCH_SIZE_IN_BYTES),
+                sinkConfiguration.get(PULSAR_ASYNC_MAX_TIME_IN_BUFFER_MILLIS),
+                sinkConfiguration.get(PULSAR_ASYNC_MAX_RECORD_SIZE_IN_BYTES));
+        this.elementConverter = elementConverter;
+        this.sinkConfiguration = sinkConfiguration;
+        this.pulsarCrypto = checkNotNull(pulsarCrypto);
+    }
+
+    @Internal
+    @Override
+    public PulsarAsyncSinkWriter<IN> createWriter(InitContext initContext)
+            throws PulsarClientException {
+        return restoreWriter(initContext, Collections.emptyList());
+    }
+
+    @Internal
+    @Override
+    public PulsarAsyncSinkWriter<IN> restoreWriter(
+            InitContext initContext,
+            Collection<BufferedRequestState<PulsarRequestEntry>> recoveredState)
+            throws PulsarClientException {
+        AsyncSinkWriterConfiguration writerConfiguration =
+                AsyncSinkWriterConfiguration.builder()
+                        .setMaxBatchSize(getMaxBatchSize())
+                        .setMaxBatchSizeInBytes(getMaxBatchSizeInBytes())
+                        .setMaxInFlightRequests(getMaxInFlightRequests())
+                        .setMaxBufferedRequests(getMaxBufferedRequests())
+                        .setMaxTimeInBufferMS(getMaxTimeInBufferMS())
+                        .setMaxRecordSizeInBytes(getMaxRecordSizeInBytes())
+                        .build();
+
+        return new PulsarAsyncSinkWriter<>(
+                elementConverter,
+                sinkConfiguration,
+                pulsarCrypto,
+                initContext,
+                writerConfiguration,
+                recoveredState);
+    }
+
+    @Internal
+    @Override
+    public SimpleVersionedSerializer<BufferedRequestState<PulsarRequestEntry>>
+            getWriterStateSerializer() {
+        return new PulsarRequestEntrySerializer();
+    }
+}
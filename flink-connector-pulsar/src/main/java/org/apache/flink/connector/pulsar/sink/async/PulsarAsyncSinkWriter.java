@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.async;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.connector.sink2.Sink.InitContext;
+import org.apache.flink.connector.base.sink.writer.AsyncSinkWriter;
+import org.apache.flink.connector.base.sink.writer.BufferedRequestState;
+import org.apache.flink.connector.base.sink.writer.config.AsyncSinkWriterConfiguration;
+import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.connector.pulsar.sink.writer.topic.ProducerRegister;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.apache.flink.util.IOUtils.closeAll;
+
+/**
+ * The sink writer built on {@link AsyncSinkWriter}. Flink buffers the converted {@link
+ * PulsarRequestEntry} and submits them in batches, the messages in a batch are sent by {@code
+ * sendAsync} in order. So the messages to the same partition keep their order unless a batch is
+ * retried.
+ *
+ * <p>The failed messages are retried if the exception is retriable in Pulsar client, otherwise the
+ * writer fails. The buffered messages are stored in the checkpoint state, which provides the
+ * at-least-once guarantee.
+ *
+ * @param <IN> The type of the input elements.
+ */
+@Internal
+public class PulsarAsyncSinkWriter<IN> extends AsyncSinkWriter<IN, PulsarRequestEntry> {
+    private static final Logger LOG = LoggerFactory.getLogger(PulsarAsyncSinkWriter.class);
+
+    private final PulsarRequestEntryConverter<IN> elementConverter;
+    private final ProducerRegister producerRegister;
+
+    public PulsarAsyncSinkWriter(
+            PulsarRequestEntryConverter<IN> elementConverter,
+            SinkConfiguration sinkConfiguration,
+            PulsarCrypto pulsarCrypto,
+            InitContext initContext,
+            AsyncSinkWriterConfiguration writerConfiguration,
+            Collection<BufferedRequestState<PulsarRequestEntry>> states)
+            throws PulsarClientException {
+        super(elementConverter, initContext, writerConfiguration, states);
+        this.elementConverter = elementConverter;
+        this.elementConverter.open(sinkConfiguration, initContext);
+
+        // Create this producer register after opening serialization schema!
+        this.producerRegister =
+                new ProducerRegister(sinkConfiguration, pulsarCrypto, initContext.metricGroup());
+    }
+
+    @Override
+    protected void submitRequestEntries(
+            List<PulsarRequestEntry> requestEntries,
+            Consumer<List<PulsarRequestEntry>> requestResult) {
+        List<CompletableFuture<Throwable>> results = new ArrayList<>(requestEntries.size());
+        for (PulsarRequestEntry entry : requestEntries) {
+            CompletableFuture<MessageId> future;
+            try {
+                future = producerRegister.createMessageBuilder(entry).sendAsync();
+            } catch (PulsarClientException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            results.add(future.handle((id, ex) -> ex));
+        }
+        producerRegister.evictProducers();
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenRun(() -> completeRequest(requestEntries, results, requestResult));
+    }
+
+    private void completeRequest(
+            List<PulsarRequestEntry> requestEntries,
+            List<CompletableFuture<Throwable>> results,
+            Consumer<List<PulsarRequestEntry>> requestResult) {
+        List<PulsarRequestEntry> failedEntries = new ArrayList<>();
+        FlinkRuntimeException fatalException = null;
+        for (int i = 0; i < requestEntries.size(); i++) {
+            Throwable ex = results.get(i).join();
+            if (ex == null) {
+                continue;
+            }
+
+            PulsarRequestEntry entry = requestEntries.get(i);
+            if (!PulsarClientException.isRetriableError(ex)) {
+                if (fatalException == null) {
+                    fatalException =
+                            new FlinkRuntimeException(
+                                    "Failed to send data to Pulsar: " + entry.getTopic(), ex);
+                }
+            } else {
+                LOG.debug("Retry sending message to Pulsar {}", entry.getTopic(), ex);
+            }
+            failedEntries.add(entry);
+        }
+
+        // Always hand back the failed entries, the in-flight request would never finish otherwise.
+        requestResult.accept(failedEntries);
+        if (fatalException != null) {
+            getFatalExceptionCons().accept(fatalException);
+        }
+    }
+
+    @Override
+    protected long getSizeInBytes(PulsarRequestEntry requestEntry) {
+        return requestEntry.getSizeInBytes();
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeAll(elementConverter, producerRegister);
+        } catch (Exception e) {
+            throw new FlinkRuntimeException("Failed to close the Pulsar async sink writer.", e);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.async;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.pulsar.sink.writer.PulsarWriter;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
+import org.apache.flink.connector.pulsar.sink.writer.topic.ProducerRegister;
+
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+import org.apache.pulsar.client.impl.TypedMessageBuilderImpl;
+import org.apache.pulsar.common.api.proto.KeyValue;
+import org.apache.pulsar.common.api.proto.MessageMetadata;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The serialized message buffered in {@link PulsarAsyncSinkWriter}. The value has been encoded by
+ * the message schema, so it can be sent by a bytes producer and stored in the writer state. It's
+ * also used for spilling the failed messages in {@link PulsarWriter}.
+ */
+@Internal
+public class PulsarRequestEntry implements Serializable {
+    private static final long serialVersionUID = -3296578264919357402L;
+
+    // TypedMessageBuilder#disableReplication() replicates the message to this cluster only.
+    private static final String LOCAL_CLUSTER = "__local__";
+
+    private final String topic;
+    @Nullable private final String key;
+    private final boolean base64EncodedKey;
+    @Nullable private final byte[] orderingKey;
+    @Nullable private final byte[] value;
+    private final long eventTime;
+    private final long deliverAt;
+    private final Map<String, String> properties;
+    @Nullable private final Long sequenceId;
+    private final List<String> replicationClusters;
+    private final boolean disableReplication;
+
+    public PulsarRequestEntry(
+            String topic,
+            @Nullable String key,
+            boolean base64EncodedKey,
+            @Nullable byte[] orderingKey,
+            @Nullable byte[] value,
+            long eventTime,
+            long deliverAt,
+            Map<String, String> properties) {
+        this(
+                topic,
+                key,
+                base64EncodedKey,
+                orderingKey,
+                value,
+                eventTime,
+                deliverAt,
+                properties,
+                null,
+                Collections.emptyList(),
+                false);
+    }
+
+    @SuppressWarnings("java:S107")
+    public PulsarRequestEntry(
+            String topic,
+            @Nullable String key,
+            boolean base64EncodedKey,
+            @Nullable byte[] orderingKey,
+            @Nullable byte[] value,
+            long eventTime,
+            long deliverAt,
+            Map<String, String> properties,
+            @Nullable Long sequenceId,
+            List<String> replicationClusters,
+            boolean disableReplication) {
+        this.topic = checkNotNull(topic);
+        this.key = key;
+        this.base64EncodedKey = base64EncodedKey;
+        this.orderingKey = orderingKey;
+        this.value = value;
+        this.eventTime = eventTime;
+        this.deliverAt = deliverAt;
+        this.properties = checkNotNull(properties);
+        this.sequenceId = sequenceId;
+        this.replicationClusters = checkNotNull(replicationClusters);
+        this.disableReplication = disableReplication;
+    }
+
+    /**
+     * Create the entry from the serialized {@link PulsarMessage}, the value is encoded by the
+     * message schema eagerly. No producer is needed for creating the entry.
+     */
+    public static <T> PulsarRequestEntry fromMessage(
+            String topic, PulsarMessage<T> message, long eventTime, long deliverAt) {
+        T value = message.getValue();
+        byte[] bytes = value == null ? null : message.getSchema().encode(value);
+
+        Map<String, String> properties = message.getProperties();
+        properties =
+                properties == null || properties.isEmpty()
+                        ? Collections.emptyMap()
+                        : new HashMap<>(properties);
+        List<String> clusters = message.getReplicationClusters();
+        clusters =
+                clusters == null || clusters.isEmpty()
+                        ? Collections.emptyList()
+                        : new ArrayList<>(clusters);
+
+        return new PulsarRequestEntry(
+                topic,
+                message.getKey(),
+                message.isBase64EncodedKey(),
+                message.getOrderingKey(),
+                bytes,
+                eventTime,
+                deliverAt,
+                properties,
+                message.getSequenceId(),
+                clusters,
+                message.isDisableReplication());
+    }
+
+    /**
+     * Copy the message in the given message builder. The message builder should be created by the
+     * {@link ProducerRegister}. It could also be copied after being sent, since the sent message
+     * holds a copy of the metadata and the content isn't modified by sending.
+     */
+    public static PulsarRequestEntry fromMessageBuilder(
+            String topic, TypedMessageBuilder<?> builder) {
+        TypedMessageBuilderImpl<?> impl = (TypedMessageBuilderImpl<?>) builder;
+        MessageMetadata metadata = impl.getMetadataBuilder();
+
+        byte[] value = null;
+        ByteBuffer content = impl.getContent();
+        if (content != null) {
+            value = new byte[content.remaining()];
+            content.duplicate().get(value);
+        }
+
+        Map<String, String> properties;
+        int count = metadata.getPropertiesCount();
+        if (count == 0) {
+            properties = Collections.emptyMap();
+        } else {
+            properties = new HashMap<>(count);
+            for (KeyValue property : metadata.getPropertiesList()) {
+                properties.put(property.getKey(), property.getValue());
+            }
+        }
+
+        // The disabled replication is stored as the local cluster in the replication clusters.
+        List<String> clusters = Collections.emptyList();
+        boolean disableReplication = false;
+        List<String> replicateTo = metadata.getReplicateTosList();
+        if (replicateTo.size() == 1 && LOCAL_CLUSTER.equals(replicateTo.get(0))) {
+            disableReplication = true;
+        } else if (!replicateTo.isEmpty()) {
+            clusters = new ArrayList<>(replicateTo);
+        }
+
+        return new PulsarRequestEntry(
+                topic,
+                metadata.hasPartitionKey() ? metadata.getPartitionKey() : null,
+                metadata.isPartitionKeyB64Encoded(),
+                metadata.hasOrderingKey() ? metadata.getOrderingKey() : null,
+                value,
+                metadata.hasEventTime() ? metadata.getEventTime() : 0,
+                metadata.hasDeliverAtTime() ? metadata.getDeliverAtTime() : 0,
+                properties,
+                metadata.hasSequenceId() ? metadata.getSequenceId() : null,
+                clusters,
+                disableReplication);
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    @Nullable
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isBase64EncodedKey() {
+        return base64EncodedKey;
+    }
+
+    @Nullable
+    public byte[] getOrderingKey() {
+        return orderingKey;
+    }
+
+    @Nullable
+    public byte[] getValue() {
+        return value;
+    }
+
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    public long getDeliverAt() {
+        return deliverAt;
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    @Nullable
+    public Long getSequenceId() {
+        return sequenceId;
+    }
+
+    public List<String> getReplicationClusters() {
+        return replicationClusters;
+    }
+
+    public boolean isDisableReplication() {
+        return disableReplication;
+    }
+
+    /** The approximate size of this message, used for batching the requests in the writer. */
+    public long getSizeInBytes() {
+        long size = value == null ? 0 : value.length;
+        if (key != null) {
+            size += key.getBytes(UTF_8).length;
+        }
+        if (orderingKey != null) {
+            size += orderingKey.length;
+        }
+        return size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PulsarRequestEntry that = (PulsarRequestEntry) o;
+        return base64EncodedKey == that.base64EncodedKey
+                && eventTime == that.eventTime
+                && deliverAt == that.deliverAt
+                && disableReplication == that.disableReplication
+                && topic.equals(that.topic)
+                && Objects.equals(key, that.key)
+                && Arrays.equals(orderingKey, that.orderingKey)
+                && Arrays.equals(value, that.value)
+                && properties.equals(that.properties)
+                && Objects.equals(sequenceId, that.sequenceId)
+                && replicationClusters.equals(that.replicationClusters);
+    }
+
+    @Override
+    public int hashCode() {
+        int result =
+                Objects.hash(
+                        topic,
+                        key,
+                        base64EncodedKey,
+                        eventTime,
+                        deliverAt,
+                        properties,
+                        sequenceId,
+                        replicationClusters,
+                        disableReplication);
+        result = 31 * result + Arrays.hashCode(orderingKey);
+        result = 31 * result + Arrays.hashCode(value);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PulsarRequestEntry{"
+                + "topic='"
+                + topic
+                + '\''
+                + ", key='"
+                + key
+                + '\''
+                + ", size="
+                + getSizeInBytes()
+                + '}';
+    }
+}
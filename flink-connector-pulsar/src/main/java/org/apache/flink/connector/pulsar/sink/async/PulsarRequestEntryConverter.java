@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.async;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.common.serialization.SerializationSchema.InitializationContext;
+import org.apache.flink.api.connector.sink2.Sink.InitContext;
+import org.apache.flink.api.connector.sink2.SinkWriter;
+import org.apache.flink.connector.base.sink.writer.ElementConverter;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContext;
+import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContextImpl;
+import org.apache.flink.connector.pulsar.sink.writer.delayer.MessageDelayer;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
+import org.apache.flink.connector.pulsar.sink.writer.router.KeyHashTopicRouter;
+import org.apache.flink.connector.pulsar.sink.writer.router.RoundRobinTopicRouter;
+import org.apache.flink.connector.pulsar.sink.writer.router.TopicRouter;
+import org.apache.flink.connector.pulsar.sink.writer.router.TopicRoutingMode;
+import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarSerializationSchema;
+import org.apache.flink.connector.pulsar.sink.writer.topic.MetadataListener;
+import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Convert the incoming records into {@link PulsarRequestEntry}. The serialization, the topic
+ * routing and the message delay are the same as the {@code PulsarWriter}. The message value is
+ * encoded by the Pulsar schema in the {@link PulsarMessage} eagerly.
+ *
+ * <p>Flink doesn't open the {@link ElementConverter}, {@link PulsarAsyncSinkWriter} should call
+ * {@link #open(SinkConfiguration, InitContext)} before converting any records.
+ *
+ * @param <IN> The type of the input elements.
+ */
+@Internal
+public class PulsarRequestEntryConverter<IN>
+        implements ElementConverter<IN, PulsarRequestEntry>, Closeable {
+    private static final long serialVersionUID = 2963717440498217032L;
+
+    private final PulsarSerializationSchema<IN> serializationSchema;
+    private final MetadataListener metadataListener;
+    private final TopicRouter<IN> topicRouter;
+    private final MessageDelayer<IN> messageDelayer;
+
+    private transient PulsarSinkContext sinkContext;
+
+    public PulsarRequestEntryConverter(
+            SinkConfiguration sinkConfiguration,
+            PulsarSerializationSchema<IN> serializationSchema,
+            MetadataListener metadataListener,
+            TopicRoutingMode topicRoutingMode,
+            @Nullable TopicRouter<IN> topicRouter,
+            MessageDelayer<IN> messageDelayer) {
+        this.serializationSchema = checkNotNull(serializationSchema);
+        this.metadataListener = checkNotNull(metadataListener);
+
+        // Create topic router supplier.
+        checkNotNull(topicRoutingMode);
+        if (topicRoutingMode == TopicRoutingMode.CUSTOM) {
+            this.topicRouter = checkNotNull(topicRouter);
+        } else if (topicRoutingMode == TopicRoutingMode.ROUND_ROBIN) {
+            this.topicRouter = new RoundRobinTopicRouter<>(sinkConfiguration);
+        } else {
+            this.topicRouter = new KeyHashTopicRouter<>(sinkConfiguration);
+        }
+
+        this.messageDelayer = checkNotNull(messageDelayer);
+    }
+
+    /** Initialize the metadata listener, the topic router and the serialization schema. */
+    public void open(SinkConfiguration sinkConfiguration, InitContext initContext) {
+        this.sinkContext =
+                new PulsarSinkContextImpl(initContext, sinkConfiguration, metadataListener);
+        metadataListener.open(sinkConfiguration, initContext.getProcessingTimeService());
+        topicRouter.open(sinkConfiguration);
+
+        try {
+            InitializationContext initializationContext =
+                    initContext.asSerializationSchemaInitializationContext();
+            serializationSchema.open(initializationContext, sinkContext, sinkConfiguration);
+        } catch (Exception e) {
+            throw new FlinkRuntimeException("Cannot initialize schema.", e);
+        }
+    }
+
+    @Override
+    public PulsarRequestEntry apply(IN element, SinkWriter.Context context) {
+        checkState(sinkContext != null, "The converter hasn't been opened.");
+        PulsarMessage<?> message = serializationSchema.serialize(element, sinkContext);
+
+        // Choose the right topic to send.
+        String key = message.getKey();
+        List<TopicPartition> partitions = metadataListener.availablePartitions();
+        TopicPartition partition = topicRouter.route(element, key, partitions, sinkContext);
+
+        long eventTime = message.getEventTime();
+        if (eventTime <= 0) {
+            // Set default message timestamp if flink has provided one.
+            Long timestamp = context.timestamp();
+            eventTime = timestamp != null && timestamp > 0L ? timestamp : 0L;
+        }
+
+        long deliverAt = messageDelayer.deliverAt(element, sinkContext);
+        return PulsarRequestEntry.fromMessage(
+                partition.getFullTopicName(), message, eventTime, deliverAt);
+    }
+
+    @Override
+    public void close() throws IOException {
+        metadataListener.close();
+    }
+}
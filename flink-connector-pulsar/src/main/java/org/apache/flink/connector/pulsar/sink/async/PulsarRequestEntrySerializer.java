@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.async;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.base.sink.writer.AsyncSinkWriterStateSerializer;
+
+import javax.annotation.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/** The state serializer for the buffered {@link PulsarRequestEntry} in async sink writer. */
+@Internal
+public class PulsarRequestEntrySerializer
+        extends AsyncSinkWriterStateSerializer<PulsarRequestEntry> {
+
+    // This version should be bumped after modifying the PulsarRequestEntry.
+    public static final int CURRENT_VERSION = 1;
+
+    @Override
+    public void serializeRequestToStream(PulsarRequestEntry request, DataOutputStream out)
+            throws IOException {
+        writeString(request.getTopic(), out);
+        writeString(request.getKey(), out);
+        out.writeBoolean(request.isBase64EncodedKey());
+        writeBytes(request.getOrderingKey(), out);
+        writeBytes(request.getValue(), out);
+        out.writeLong(request.getEventTime());
+        out.writeLong(request.getDeliverAt());
+
+        Map<String, String> properties = request.getProperties();
+        out.writeInt(properties.size());
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            writeString(entry.getKey(), out);
+            writeString(entry.getValue(), out);
+        }
+
+        Long sequenceId = request.getSequenceId();
+        out.writeBoolean(sequenceId != null);
+        if (sequenceId != null) {
+            out.writeLong(sequenceId);
+        }
+        List<String> clusters = request.getReplicationClusters();
+        out.writeInt(clusters.size());
+        for (String cluster : clusters) {
+            writeString(cluster, out);
+        }
+        out.writeBoolean(request.isDisableReplication());
+    }
+
+    @Override
+    public PulsarRequestEntry deserializeRequestFromStream(long requestSize, DataInputStream in)
+            throws IOException {
+        String topic = readString(in);
+        String key = readString(in);
+        boolean base64EncodedKey = in.readBoolean();
+        byte[] orderingKey = readBytes(in);
+        byte[] value = readBytes(in);
+        long eventTime = in.readLong();
+        long deliverAt = in.readLong();
+
+        int size = in.readInt();
+        Map<String, String> properties = size == 0 ? Collections.emptyMap() : new HashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            properties.put(readString(in), readString(in));
+        }
+
+        Long sequenceId = in.readBoolean() ? in.readLong() : null;
+        int count = in.readInt();
+        List<String> clusters = count == 0 ? Collections.emptyList() : new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            clusters.add(readString(in));
+        }
+        boolean disableReplication = in.readBoolean();
+
+        return new PulsarRequestEntry(
+                topic,
+                key,
+                base64EncodedKey,
+                orderingKey,
+                value,
+                eventTime,
+                deliverAt,
+                properties,
+                sequenceId,
+                clusters,
+                disableReplication);
+    }
+
+    @Override
+    public int getVersion() {
+        return CURRENT_VERSION;
+    }
+
+    /**
+     * The strings are written as the UTF-8 bytes instead of {@link DataOutputStream#writeUTF}, which
+     * is limited to 65535 bytes. A large property value shouldn't fail the checkpoint.
+     */
+    private static void writeString(@Nullable String value, DataOutputStream out)
+            throws IOException {
+        writeBytes(value == null ? null : value.getBytes(UTF_8), out);
+    }
+
+    @Nullable
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, UTF_8);
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputStream out) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -22,29 +22,38 @@ import org.apache.flink.annotation.Internal;
 
 import org.apache.pulsar.client.api.transaction.TxnID;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
-/** The writer state for Pulsar connector. We would used in Pulsar committer. */
+/**
+ * The writer state for Pulsar connector. We would used in Pulsar committer. A transaction is shared
+ * by all the topics which are written by a sink writer in a checkpoint.
+ */
 @Internal
 public class PulsarCommittable {
 
     /** The transaction id. */
     private final TxnID txnID;
 
-    /** The topic name with partition information. */
-    private final String topic;
+    /** The topic names with partition information which are written in this transaction. */
+    private final List<String> topics;
 
     public PulsarCommittable(TxnID txnID, String topic) {
+        this(txnID, Collections.singletonList(topic));
+    }
+
+    public PulsarCommittable(TxnID txnID, List<String> topics) {
         this.txnID = txnID;
-        this.topic = topic;
+        this.topics = topics;
     }
 
     public TxnID getTxnID() {
         return txnID;
     }
 
-    public String getTopic() {
-        return topic;
+    public List<String> getTopics() {
+        return topics;
     }
 
     @Override
@@ -56,16 +65,16 @@ public class PulsarCommittable {
             return false;
         }
         PulsarCommittable that = (PulsarCommittable) o;
-        return Objects.equals(txnID, that.txnID) && Objects.equals(topic, that.topic);
+        return Objects.equals(txnID, that.txnID) && Objects.equals(topics, that.topics);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(txnID, topic);
+        return Objects.hash(txnID, topics);
     }
 
     @Override
     public String toString() {
-        return "PulsarCommittable{" + "txnID=" + txnID + ", topic='" + topic + '\'' + '}';
+        return "PulsarCommittable{" + "txnID=" + txnID + ", topics=" + topics + '}';
     }
 }
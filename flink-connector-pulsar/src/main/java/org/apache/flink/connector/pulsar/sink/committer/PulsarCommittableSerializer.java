@@ -27,11 +27,16 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
-/** A serializer used to serialize {@link PulsarCommittable}. */
+/**
+ * A serializer used to serialize {@link PulsarCommittable}. The committable in version 1 only has
+ * one topic, it would be deserialized into a committable with a single topic.
+ */
 public class PulsarCommittableSerializer implements SimpleVersionedSerializer<PulsarCommittable> {
 
-    private static final int CURRENT_VERSION = 1;
+    private static final int CURRENT_VERSION = 2;
 
     @Override
     public int getVersion() {
@@ -45,7 +50,11 @@ public class PulsarCommittableSerializer implements SimpleVersionedSerializer<Pu
             TxnID txnID = obj.getTxnID();
             out.writeLong(txnID.getMostSigBits());
             out.writeLong(txnID.getLeastSigBits());
-            out.writeUTF(obj.getTopic());
+            List<String> topics = obj.getTopics();
+            out.writeInt(topics.size());
+            for (String topic : topics) {
+                out.writeUTF(topic);
+            }
             out.flush();
             return baos.toByteArray();
         }
@@ -58,8 +67,17 @@ public class PulsarCommittableSerializer implements SimpleVersionedSerializer<Pu
             long mostSigBits = in.readLong();
             long leastSigBits = in.readLong();
             TxnID txnID = new TxnID(mostSigBits, leastSigBits);
-            String topic = in.readUTF();
-            return new PulsarCommittable(txnID, topic);
+            if (version == 1) {
+                String topic = in.readUTF();
+                return new PulsarCommittable(txnID, topic);
+            }
+
+            int size = in.readInt();
+            List<String> topics = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                topics.add(in.readUTF());
+            }
+            return new PulsarCommittable(txnID, topics);
         }
     }
 }
@@ -19,10 +19,14 @@
 package org.apache.flink.connector.pulsar.sink.committer;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.connector.sink2.Committer;
 import org.apache.flink.connector.base.DeliveryGuarantee;
 import org.apache.flink.connector.pulsar.sink.PulsarSink;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.metrics.Histogram;
+import org.apache.flink.metrics.HistogramStatistics;
+import org.apache.flink.runtime.metrics.DescriptiveStatisticsHistogram;
 import org.apache.flink.util.FlinkRuntimeException;
 
 import org.apache.pulsar.client.api.PulsarClient;
@@ -39,9 +43,21 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
-import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseClient;
 import static org.apache.flink.connector.pulsar.common.utils.PulsarTransactionUtils.getTcClient;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.pulsar.common.naming.SystemTopicNames.TRANSACTION_COORDINATOR_ASSIGN;
@@ -55,95 +71,155 @@ import static org.apache.pulsar.common.naming.SystemTopicNames.TRANSACTION_COORD
 public class PulsarCommitter implements Committer<PulsarCommittable>, Closeable {
     private static final Logger LOG = LoggerFactory.getLogger(PulsarCommitter.class);
 
+    private static final int LATENCY_HISTOGRAM_WINDOW_SIZE = 1000;
+
     private final SinkConfiguration sinkConfiguration;
 
+    // The commit latencies of the transaction coordinators.
+    private final Map<Long, Histogram> latencies;
+
     private PulsarClient pulsarClient;
     private TransactionCoordinatorClient coordinatorClient;
 
     public PulsarCommitter(SinkConfiguration sinkConfiguration) {
         this.sinkConfiguration = checkNotNull(sinkConfiguration);
+        this.latencies = new ConcurrentHashMap<>();
     }
 
+    @VisibleForTesting
+    PulsarCommitter(
+            SinkConfiguration sinkConfiguration, TransactionCoordinatorClient coordinatorClient) {
+        this(sinkConfiguration);
+        this.coordinatorClient = checkNotNull(coordinatorClient);
+    }
+
+    /**
+     * Commit the transactions in pipelines. The mostSigBits of a {@link TxnID} is the id of the
+     * transaction coordinator, the requests are grouped by the coordinators and committed
+     * concurrently. The number of the transactions being committed in a coordinator is limited by
+     * {@link SinkConfiguration#getMaxConcurrentCommits()}. This method would block until all the
+     * commit results have been handled.
+     */
     @Override
-    @SuppressWarnings("java:S3776")
     public void commit(Collection<CommitRequest<PulsarCommittable>> requests)
             throws PulsarClientException {
         TransactionCoordinatorClient client = transactionCoordinatorClient();
+        int maxConcurrentCommits = Math.max(1, sinkConfiguration.getMaxConcurrentCommits());
 
+        Map<Long, ShardCommits> shards = new HashMap<>();
         for (CommitRequest<PulsarCommittable> request : requests) {
-            PulsarCommittable committable = request.getCommittable();
-            TxnID txnID = committable.getTxnID();
-            String topic = committable.getTopic();
+            long shard = request.getCommittable().getTxnID().getMostSigBits();
+            shards.computeIfAbsent(shard, ShardCommits::new).requests.add(request);
+        }
 
-            LOG.debug("Start committing the Pulsar transaction {} for topic {}", txnID, topic);
-            try {
-                client.commit(txnID);
-            } catch (CoordinatorNotFoundException e) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>(shards.size());
+        for (ShardCommits commits : shards.values()) {
+            futures.add(commits.start(client, maxConcurrentCommits));
+        }
+
+        // The requests are only handled in the callbacks, wait for all of them.
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            throw new FlinkRuntimeException("Failed to handle the commit results.", unwrap(e));
+        }
+
+        if (LOG.isDebugEnabled()) {
+            for (ShardCommits commits : shards.values()) {
+                HistogramStatistics statistics = commits.latency.getStatistics();
+                LOG.debug(
+                        "Committed {} transactions on the transaction coordinator {}, "
+                                + "the latency (ms) of recent commits is p50: {}, p99: {}, max: {}.",
+                        commits.total,
+                        commits.shard,
+                        statistics.getQuantile(0.5),
+                        statistics.getQuantile(0.99),
+                        statistics.getMax());
+            }
+        }
+    }
+
+    @SuppressWarnings("java:S3776")
+    private void handleCommitFailure(CommitRequest<PulsarCommittable> request, Throwable e) {
+        PulsarCommittable committable = request.getCommittable();
+        TxnID txnID = committable.getTxnID();
+        List<String> topics = committable.getTopics();
+
+        if (e instanceof CoordinatorNotFoundException) {
+            LOG.error(
+                    "We couldn't find the Transaction Coordinator from Pulsar broker {}. "
+                            + "Check your broker configuration.",
+                    committable,
+                    e);
+            request.signalFailedWithKnownReason(e);
+        } else if (e instanceof InvalidTxnStatusException) {
+            LOG.error(
+                    "Unable to commit transaction ({}) because it's in an invalid state. "
+                            + "Most likely the transaction has been aborted for some reason. "
+                            + "Please check the Pulsar broker logs for more details.",
+                    committable,
+                    e);
+            request.signalAlreadyCommitted();
+        } else if (e instanceof TransactionNotFoundException) {
+            if (request.getNumberOfRetries() == 0) {
                 LOG.error(
-                        "We couldn't find the Transaction Coordinator from Pulsar broker {}. "
-                                + "Check your broker configuration.",
+                        "Unable to commit transaction ({}) because it's not found on Pulsar broker. "
+                                + "Most likely the checkpoint interval exceed the transaction timeout.",
                         committable,
                         e);
                 request.signalFailedWithKnownReason(e);
-            } catch (InvalidTxnStatusException e) {
-                LOG.error(
-                        "Unable to commit transaction ({}) because it's in an invalid state. "
-                                + "Most likely the transaction has been aborted for some reason. "
-                                + "Please check the Pulsar broker logs for more details.",
-                        committable,
-                        e);
+            } else {
+                LOG.warn(
+                        "We can't find the transaction {} after {} retry committing. "
+                                + "This may mean that the transaction have been committed in previous but failed with timeout. "
+                                + "So we just mark it as committed.",
+                        txnID,
+                        request.getNumberOfRetries());
                 request.signalAlreadyCommitted();
-            } catch (TransactionNotFoundException e) {
-                if (request.getNumberOfRetries() == 0) {
-                    LOG.error(
-                            "Unable to commit transaction ({}) because it's not found on Pulsar broker. "
-                                    + "Most likely the checkpoint interval exceed the transaction timeout.",
-                            committable,
-                            e);
-                    request.signalFailedWithKnownReason(e);
-                } else {
-                    LOG.warn(
-                            "We can't find the transaction {} after {} retry committing. "
-                                    + "This may mean that the transaction have been committed in previous but failed with timeout. "
-                                    + "So we just mark it as committed.",
-                            txnID,
-                            request.getNumberOfRetries());
-                    request.signalAlreadyCommitted();
-                }
-            } catch (MetaStoreHandlerNotExistsException e) {
-                LOG.error(
-                        "We can't find the meta store handler by the mostSigBits from TxnID {}. "
-                                + "Did you change the metadata for topic {}?",
-                        committable,
-                        TRANSACTION_COORDINATOR_ASSIGN,
-                        e);
-                request.signalFailedWithKnownReason(e);
-            } catch (TransactionCoordinatorClientException e) {
-                LOG.error(
-                        "Encountered retriable exception while committing transaction {} for topic {}.",
-                        committable,
-                        topic,
-                        e);
-                int maxRecommitTimes = sinkConfiguration.getMaxRecommitTimes();
-                if (request.getNumberOfRetries() < maxRecommitTimes) {
-                    request.retryLater();
-                } else {
-                    String message =
-                            String.format(
-                                    "Failed to commit transaction %s after retrying %d times",
-                                    txnID, maxRecommitTimes);
-                    request.signalFailedWithKnownReason(new FlinkRuntimeException(message, e));
-                }
-            } catch (Exception e) {
-                LOG.error(
-                        "Transaction ({}) encountered unknown error and data could be potentially lost.",
-                        committable,
-                        e);
-                request.signalFailedWithUnknownReason(e);
             }
+        } else if (e instanceof MetaStoreHandlerNotExistsException) {
+            LOG.error(
+                    "We can't find the meta store handler by the mostSigBits from TxnID {}. "
+                            + "Did you change the metadata for topic {}?",
+                    committable,
+                    TRANSACTION_COORDINATOR_ASSIGN,
+                    e);
+            request.signalFailedWithKnownReason(e);
+        } else if (e instanceof TransactionCoordinatorClientException) {
+            LOG.error(
+                    "Encountered retriable exception while committing transaction {} for topics {}.",
+                    committable,
+                    topics,
+                    e);
+            int maxRecommitTimes = sinkConfiguration.getMaxRecommitTimes();
+            if (request.getNumberOfRetries() < maxRecommitTimes) {
+                request.retryLater();
+            } else {
+                String message =
+                        String.format(
+                                "Failed to commit transaction %s after retrying %d times",
+                                txnID, maxRecommitTimes);
+                request.signalFailedWithKnownReason(new FlinkRuntimeException(message, e));
+            }
+        } else {
+            LOG.error(
+                    "Transaction ({}) encountered unknown error and data could be potentially lost.",
+                    committable,
+                    e);
+            request.signalFailedWithUnknownReason(e);
         }
     }
 
+    /** The async commit result may be wrapped by the {@link CompletableFuture}. */
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
     /**
      * Lazy initialize this backend Pulsar client. This committer may not be used in {@link
      * DeliveryGuarantee#NONE} and {@link DeliveryGuarantee#AT_LEAST_ONCE}. So we couldn't create
@@ -152,17 +228,109 @@ public class PulsarCommitter implements Committer<PulsarCommittable>, Closeable
     private TransactionCoordinatorClient transactionCoordinatorClient()
             throws PulsarClientException {
         if (coordinatorClient == null) {
-            this.pulsarClient = createClient(sinkConfiguration);
+            this.pulsarClient = acquireClient(sinkConfiguration);
             this.coordinatorClient = getTcClient(pulsarClient);
         }
 
         return coordinatorClient;
     }
 
+    private static Histogram newLatencyHistogram() {
+        return new DescriptiveStatisticsHistogram(LATENCY_HISTOGRAM_WINDOW_SIZE);
+    }
+
     @Override
     public void close() throws IOException {
         if (pulsarClient != null) {
-            pulsarClient.close();
+            releaseClient(pulsarClient);
+        }
+    }
+
+    /**
+     * The commit requests of a transaction coordinator. The requests are sent in a pipeline, a new
+     * request is sent once a previous request has been completed.
+     */
+    private final class ShardCommits {
+
+        private final long shard;
+        private final Deque<CommitRequest<PulsarCommittable>> requests;
+        private final Histogram latency;
+        private final CompletableFuture<Void> completed;
+        private int total;
+        private int inflight;
+        // The first failure thrown when handling the commit results.
+        private Throwable failure;
+
+        private ShardCommits(long shard) {
+            this.shard = shard;
+            this.requests = new ArrayDeque<>();
+            this.latency = latencies.computeIfAbsent(shard, s -> newLatencyHistogram());
+            this.completed = new CompletableFuture<>();
+        }
+
+        private synchronized CompletableFuture<Void> start(
+                TransactionCoordinatorClient client, int maxInflight) {
+            this.total = requests.size();
+            while (inflight < maxInflight && !requests.isEmpty()) {
+                commit(client, requests.poll());
+            }
+            return completed;
+        }
+
+        private void commit(
+                TransactionCoordinatorClient client, CommitRequest<PulsarCommittable> request) {
+            PulsarCommittable committable = request.getCommittable();
+            TxnID txnID = committable.getTxnID();
+            List<String> topics = committable.getTopics();
+
+            inflight++;
+            LOG.debug("Start committing the Pulsar transaction {} for topics {}", txnID, topics);
+            long startNanos = System.nanoTime();
+            // The exceptions thrown when committing would also be handled in the callback.
+            CompletableFuture.completedFuture(txnID)
+                    .thenCompose(client::commitAsync)
+                    .whenComplete(
+                            (v, e) -> {
+                                try {
+                                    latency.update(
+                                            TimeUnit.NANOSECONDS.toMillis(
+                                                    System.nanoTime() - startNanos));
+                                    if (e != null) {
+                                        handleCommitFailure(request, unwrap(e));
+                                    }
+                                } catch (Throwable t) {
+                                    fail(t);
+                                } finally {
+                                    // The pipeline should go on, or the commit would never end.
+                                    next(client);
+                                }
+                            });
+        }
+
+        private synchronized void next(TransactionCoordinatorClient client) {
+            inflight--;
+            try {
+                if (!requests.isEmpty()) {
+                    commit(client, requests.poll());
+                } else if (inflight == 0) {
+                    if (failure == null) {
+                        completed.complete(null);
+                    } else {
+                        completed.completeExceptionally(failure);
+                    }
+                }
+            } catch (Throwable t) {
+                fail(t);
+                completed.completeExceptionally(failure);
+            }
+        }
+
+        private synchronized void fail(Throwable t) {
+            if (failure == null) {
+                failure = t;
+            } else if (failure != t) {
+                failure.addSuppressed(t);
+            }
         }
     }
 }
@@ -33,12 +33,25 @@ import java.util.Objects;
 
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_STATS_INTERVAL_SECONDS;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_BATCHING_MAX_MESSAGES;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_DEDUPLICATION;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_PARTITIONED_PRODUCER;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_SINK_METRICS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_CONCURRENT_COMMITS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_PENDING_MESSAGES_PER_TOPIC;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_PRODUCERS;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_RECOMMIT_TIMES;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MESSAGE_KEY_HASH;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_IDLE_TIMEOUT;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SPILL_DIRECTORY;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SPILL_MAX_BYTES;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SPILL_RETRY_INTERVAL;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_TOPIC_METADATA_REFRESH_INTERVAL;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_TRANSACTION_POOL_SIZE;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_VALIDATE_SINK_MESSAGE_BYTES;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_DELIVERY_GUARANTEE;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_FLUSH_TIMEOUT;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_MAX_INFLIGHT_BYTES;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_MAX_INFLIGHT_MESSAGES;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_SCHEMA_EVOLUTION;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_TRANSACTION_TIMEOUT;
 
@@ -56,6 +69,19 @@ public class SinkConfiguration extends PulsarConfiguration {
     private final int maxRecommitTimes;
     private final boolean enableMetrics;
     private final boolean validateSinkMessageBytes;
+    private final long flushTimeoutMillis;
+    private final int maxInflightMessages;
+    private final long maxInflightBytes;
+    private final long producerIdleTimeoutMillis;
+    private final int maxProducers;
+    private final int maxPendingMessagesPerTopic;
+    private final boolean enablePartitionedProducer;
+    private final int maxConcurrentCommits;
+    private final int transactionPoolSize;
+    private final long spillMaxBytes;
+    private final String spillDirectory;
+    private final long spillRetryIntervalMillis;
+    private final boolean enableDeduplication;
 
     public SinkConfiguration(Configuration configuration) {
         super(configuration);
@@ -70,6 +96,20 @@ public class SinkConfiguration extends PulsarConfiguration {
         this.enableMetrics =
                 get(PULSAR_ENABLE_SINK_METRICS) && get(PULSAR_STATS_INTERVAL_SECONDS) > 0;
         this.validateSinkMessageBytes = get(PULSAR_VALIDATE_SINK_MESSAGE_BYTES);
+        this.flushTimeoutMillis = get(PULSAR_WRITE_FLUSH_TIMEOUT);
+        this.maxInflightMessages = getOptional(PULSAR_WRITE_MAX_INFLIGHT_MESSAGES).orElse(-1);
+        this.maxInflightBytes = getOptional(PULSAR_WRITE_MAX_INFLIGHT_BYTES).orElse(-1L);
+        this.producerIdleTimeoutMillis = get(PULSAR_PRODUCER_IDLE_TIMEOUT);
+        this.maxProducers = getOptional(PULSAR_MAX_PRODUCERS).orElse(-1);
+        this.maxPendingMessagesPerTopic = get(PULSAR_MAX_PENDING_MESSAGES_PER_TOPIC);
+        this.enablePartitionedProducer = get(PULSAR_ENABLE_PARTITIONED_PRODUCER);
+        this.maxConcurrentCommits = get(PULSAR_MAX_CONCURRENT_COMMITS);
+        this.transactionPoolSize = get(PULSAR_TRANSACTION_POOL_SIZE);
+        this.spillMaxBytes = get(PULSAR_SPILL_MAX_BYTES);
+        this.spillDirectory =
+                getOptional(PULSAR_SPILL_DIRECTORY).orElse(System.getProperty("java.io.tmpdir"));
+        this.spillRetryIntervalMillis = get(PULSAR_SPILL_RETRY_INTERVAL);
+        this.enableDeduplication = get(PULSAR_ENABLE_DEDUPLICATION);
     }
 
     /** The delivery guarantee changes the behavior of {@link PulsarWriter}. */
@@ -131,6 +171,99 @@ public class SinkConfiguration extends PulsarConfiguration {
         return validateSinkMessageBytes;
     }
 
+    /**
+     * The maximum time to wait for the pending messages on flushing. Zero means waiting until all
+     * the pending messages are completed.
+     */
+    public long getFlushTimeoutMillis() {
+        return flushTimeoutMillis;
+    }
+
+    /**
+     * The maximum number of the unacknowledged messages in the writer. A non-positive value means
+     * unlimited.
+     */
+    public int getMaxInflightMessages() {
+        return maxInflightMessages;
+    }
+
+    /**
+     * The maximum payload bytes of the unacknowledged messages in the writer. A non-positive value
+     * means unlimited.
+     */
+    public long getMaxInflightBytes() {
+        return maxInflightBytes;
+    }
+
+    /**
+     * The idle time before closing the producers of a topic. Zero means the producers are never
+     * evicted.
+     */
+    public long getProducerIdleTimeoutMillis() {
+        return producerIdleTimeoutMillis;
+    }
+
+    /** The maximum number of producers held by the writer. A non-positive value means unlimited. */
+    public int getMaxProducers() {
+        return maxProducers;
+    }
+
+    /** The maximum number of messages buffered for a topic whose producer is being created. */
+    public int getMaxPendingMessagesPerTopic() {
+        return maxPendingMessagesPerTopic;
+    }
+
+    /**
+     * Share a partitioned producer among the partitions of a topic instead of creating a producer
+     * for every partition.
+     */
+    public boolean isEnablePartitionedProducer() {
+        return enablePartitionedProducer;
+    }
+
+    /**
+     * The maximum number of the transactions which are committed concurrently in a transaction
+     * coordinator.
+     */
+    public int getMaxConcurrentCommits() {
+        return maxConcurrentCommits;
+    }
+
+    /**
+     * The number of the transactions which are opened in background for the exactly-once sink
+     * writer.
+     */
+    public int getTransactionPoolSize() {
+        return transactionPoolSize;
+    }
+
+    /**
+     * The maximum bytes of the messages spilled to the local disk, zero means the spill buffer is
+     * disabled.
+     */
+    public long getSpillMaxBytes() {
+        return spillMaxBytes;
+    }
+
+    /** The local directory for the spill segment files. */
+    public String getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    /** The interval for resending the spilled messages after a failed attempt. */
+    public long getSpillRetryIntervalMillis() {
+        return spillRetryIntervalMillis;
+    }
+
+    /**
+     * Provide the exactly-once guarantee by the message deduplication on the brokers instead of the
+     * transactions. The messages are sent by the producers with fixed names and the sequence ids
+     * stored in the checkpoint.
+     */
+    public boolean isEnableDeduplication() {
+        return enableDeduplication;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -150,7 +283,20 @@ public class SinkConfiguration extends PulsarConfiguration {
                 && messageKeyHash == that.messageKeyHash
                 && maxRecommitTimes == that.maxRecommitTimes
                 && enableMetrics == that.enableMetrics
-                && validateSinkMessageBytes == that.validateSinkMessageBytes;
+                && validateSinkMessageBytes == that.validateSinkMessageBytes
+                && flushTimeoutMillis == that.flushTimeoutMillis
+                && maxInflightMessages == that.maxInflightMessages
+                && maxInflightBytes == that.maxInflightBytes
+                && producerIdleTimeoutMillis == that.producerIdleTimeoutMillis
+                && maxProducers == that.maxProducers
+                && maxPendingMessagesPerTopic == that.maxPendingMessagesPerTopic
+                && enablePartitionedProducer == that.enablePartitionedProducer
+                && maxConcurrentCommits == that.maxConcurrentCommits
+                && transactionPoolSize == that.transactionPoolSize
+                && spillMaxBytes == that.spillMaxBytes
+                && Objects.equals(spillDirectory, that.spillDirectory)
+                && spillRetryIntervalMillis == that.spillRetryIntervalMillis
+                && enableDeduplication == that.enableDeduplication;
     }
 
     @Override
@@ -164,6 +310,19 @@ public class SinkConfiguration extends PulsarConfiguration {
                 enableSchemaEvolution,
                 maxRecommitTimes,
                 enableMetrics,
-                validateSinkMessageBytes);
+                validateSinkMessageBytes,
+                flushTimeoutMillis,
+                maxInflightMessages,
+                maxInflightBytes,
+                producerIdleTimeoutMillis,
+                maxProducers,
+                maxPendingMessagesPerTopic,
+                enablePartitionedProducer,
+                maxConcurrentCommits,
+                transactionPoolSize,
+                spillMaxBytes,
+                spillDirectory,
+                spillRetryIntervalMillis,
+                enableDeduplication);
     }
 }
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer;
+
+import org.apache.flink.annotation.Internal;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The completion barrier for the messages which have been sent but not acknowledged by Pulsar. The
+ * {@link PulsarWriter} would wait on this barrier instead of spinning on the producer flush. It
+ * also counts the in-flight messages and bytes for limiting the sending window.
+ */
+@Internal
+final class PendingMessages {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition allCompleted = lock.newCondition();
+
+    // Modified under the lock, it could be read without lock for the metrics.
+    private volatile long messages = 0;
+    private volatile long bytes = 0;
+
+    @Nullable private Throwable failure;
+
+    /** Register a message with the given payload size which is going to be sent. */
+    void add(long size) {
+        lock.lock();
+        try {
+            messages++;
+            bytes += size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Mark a message as completed, the first sending exception would be recorded. */
+    void complete(long size, @Nullable Throwable ex) {
+        lock.lock();
+        try {
+            messages--;
+            bytes -= size;
+            if (ex != null && failure == null) {
+                failure = ex;
+            }
+            if (messages <= 0) {
+                allCompleted.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until all the pending messages are completed.
+     *
+     * @param timeoutMillis Zero or a negative value means waiting without timeout.
+     * @return false if there are still pending messages after the timeout.
+     */
+    boolean awaitCompletion(long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (messages > 0) {
+                if (timeoutMillis <= 0) {
+                    allCompleted.await();
+                } else if (nanos <= 0) {
+                    return false;
+                } else {
+                    nanos = allCompleted.awaitNanos(nanos);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The number of the messages which haven't been acknowledged. */
+    long getMessages() {
+        return messages;
+    }
+
+    /** The payload bytes of the messages which haven't been acknowledged. */
+    long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Whether the in-flight window is full. A single message is always allowed even if it's larger
+     * than the byte limit. A non-positive limit means unlimited.
+     */
+    boolean isFull(int maxMessages, long maxBytes) {
+        long current = messages;
+        if (current <= 0) {
+            return false;
+        }
+
+        return (maxMessages > 0 && current >= maxMessages) || (maxBytes > 0 && bytes >= maxBytes);
+    }
+
+    /** The first sending exception, null if all the messages have been sent successfully. */
+    @Nullable
+    Throwable getFailure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -23,41 +23,64 @@ import org.apache.flink.api.common.operators.MailboxExecutor;
 import org.apache.flink.api.common.operators.ProcessingTimeService;
 import org.apache.flink.api.common.serialization.SerializationSchema.InitializationContext;
 import org.apache.flink.api.connector.sink2.Sink.InitContext;
+import org.apache.flink.api.connector.sink2.StatefulSink.StatefulSinkWriter;
 import org.apache.flink.api.connector.sink2.TwoPhaseCommittingSink.PrecommittingSinkWriter;
 import org.apache.flink.connector.base.DeliveryGuarantee;
 import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
 import org.apache.flink.connector.pulsar.sink.committer.PulsarCommittable;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
 import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContext;
 import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContextImpl;
 import org.apache.flink.connector.pulsar.sink.writer.delayer.MessageDelayer;
 import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
+import org.apache.flink.connector.pulsar.sink.writer.message.ReusablePulsarMessage;
 import org.apache.flink.connector.pulsar.sink.writer.router.TopicRouter;
+import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarDirectSerializationSchema;
 import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarSerializationSchema;
 import org.apache.flink.connector.pulsar.sink.writer.topic.MetadataListener;
 import org.apache.flink.connector.pulsar.sink.writer.topic.ProducerRegister;
 import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
 import org.apache.flink.metrics.groups.SinkWriterMetricGroup;
+import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkRuntimeException;
 
 import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.PulsarClientException;
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.TypedMessageBuilder;
+import org.apache.pulsar.client.api.transaction.TxnID;
 import org.apache.pulsar.client.impl.TypedMessageBuilderImpl;
 import org.apache.pulsar.shade.com.google.common.base.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.LAST_FLUSH_DURATION_MILLIS;
+import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.PENDING_BYTES;
+import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.PENDING_MESSAGES;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarMessageBuilderUtils.setContent;
 import static org.apache.flink.util.IOUtils.closeAll;
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -67,10 +90,17 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * @param <IN> The type of the input elements.
  */
 @Internal
-public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommittable> {
+public class PulsarWriter<IN>
+        implements PrecommittingSinkWriter<IN, PulsarCommittable>,
+                StatefulSinkWriter<IN, PulsarWriterState> {
     private static final Logger LOG = LoggerFactory.getLogger(PulsarWriter.class);
 
+    // The maximum number of the spilled messages which are resent in one batch.
+    private static final int MAX_RESEND_MESSAGES = 1000;
+
     private final PulsarSerializationSchema<IN> serializationSchema;
+    @Nullable private final PulsarDirectSerializationSchema<IN> directSerializationSchema;
+    @Nullable private final ReusablePulsarMessage reusableMessage;
     private final MetadataListener metadataListener;
     private final TopicRouter<IN> topicRouter;
     private final MessageDelayer<IN> messageDelayer;
@@ -78,7 +108,28 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
     private final PulsarSinkContext sinkContext;
     private final ProducerRegister producerRegister;
     private final MailboxExecutor mailboxExecutor;
-    private final AtomicLong pendingMessages;
+    private final PendingMessages pendingMessages;
+    private final ProcessingTimeService timeService;
+    // The messages which are waiting for creating the producers of their topics. They are only
+    // accessed in the mailbox thread, the producer callbacks must hop to the mailbox for them.
+    private final Map<String, Deque<QueuedMessage>> pendingTopics;
+    private final int maxPendingMessagesPerTopic;
+    private final long flushTimeoutMillis;
+    private final int maxInflightMessages;
+    private final long maxInflightBytes;
+    private volatile long lastFlushDurationMillis = 0;
+    // The writer is yielding to the mailbox for waiting the in-flight window.
+    private volatile boolean waitingForCapacity = false;
+    // The messages which failed to be sent because of the broker outages in at-least-once mode.
+    @Nullable private final SpillBuffer spillBuffer;
+    // The failed messages from the send callbacks, they would be moved to the spill buffer.
+    private final Queue<PulsarRequestEntry> failedMessages;
+    private final long spillRetryIntervalMillis;
+    private final boolean enableDeduplication;
+    // The buffer content set directly into the message builder isn't validated by the schema.
+    private final boolean validateMessageBytes;
+    private boolean spillTimerRegistered = false;
+    private boolean drainingSpillBuffer = false;
 
     /**
      * Constructor creating a Pulsar writer.
@@ -103,8 +154,44 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
             PulsarCrypto pulsarCrypto,
             InitContext initContext)
             throws PulsarClientException {
+        this(
+                sinkConfiguration,
+                serializationSchema,
+                metadataListener,
+                topicRouter,
+                messageDelayer,
+                pulsarCrypto,
+                initContext,
+                emptyList());
+    }
+
+    /**
+     * Constructor restoring a Pulsar writer. The lingering transactions in the recovered states
+     * would be aborted, and the spilled messages in the recovered states would be resent.
+     *
+     * @param recoveredStates The writer states from the restored checkpoint.
+     */
+    public PulsarWriter(
+            SinkConfiguration sinkConfiguration,
+            PulsarSerializationSchema<IN> serializationSchema,
+            MetadataListener metadataListener,
+            TopicRouter<IN> topicRouter,
+            MessageDelayer<IN> messageDelayer,
+            PulsarCrypto pulsarCrypto,
+            InitContext initContext,
+            Collection<PulsarWriterState> recoveredStates)
+            throws PulsarClientException {
         checkNotNull(sinkConfiguration);
         this.serializationSchema = checkNotNull(serializationSchema);
+        if (serializationSchema instanceof PulsarDirectSerializationSchema) {
+            // Serialize the records into a reusable message instead of PulsarMessage.
+            this.directSerializationSchema =
+                    (PulsarDirectSerializationSchema<IN>) serializationSchema;
+            this.reusableMessage = new ReusablePulsarMessage();
+        } else {
+            this.directSerializationSchema = null;
+            this.reusableMessage = null;
+        }
         this.metadataListener = checkNotNull(metadataListener);
         this.topicRouter = checkNotNull(topicRouter);
         this.messageDelayer = checkNotNull(messageDelayer);
@@ -116,7 +203,7 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
 
         // Initialize topic metadata listener.
         LOG.debug("Initialize topic metadata after creating Pulsar writer.");
-        ProcessingTimeService timeService = initContext.getProcessingTimeService();
+        this.timeService = initContext.getProcessingTimeService();
         this.metadataListener.open(sinkConfiguration, timeService);
 
         // Initialize topic router.
@@ -133,41 +220,226 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
 
         // Create this producer register after opening serialization schema!
         SinkWriterMetricGroup metricGroup = initContext.metricGroup();
-        this.producerRegister = new ProducerRegister(sinkConfiguration, pulsarCrypto, metricGroup);
+        this.producerRegister =
+                new ProducerRegister(
+                        sinkConfiguration, pulsarCrypto, metricGroup, initContext.getSubtaskId());
+        // The transactions opened before the failover would never be committed.
+        List<TxnID> lingeringTransactions = new ArrayList<>();
+        for (PulsarWriterState state : recoveredStates) {
+            lingeringTransactions.addAll(state.getOpenTransactions());
+        }
+        producerRegister.abortLingeringTransactions(lingeringTransactions);
+        this.enableDeduplication = sinkConfiguration.isEnableDeduplication();
+        this.validateMessageBytes = sinkConfiguration.isValidateSinkMessageBytes();
+        if (enableDeduplication) {
+            // The replayed records would be sent with the same sequence ids and dropped by brokers.
+            for (PulsarWriterState state : recoveredStates) {
+                producerRegister.restoreSequenceIds(
+                        state.getProducerName(), state.getSequenceIds());
+            }
+        }
         this.mailboxExecutor = initContext.getMailboxExecutor();
-        this.pendingMessages = new AtomicLong(0);
+        this.pendingMessages = new PendingMessages();
+        this.flushTimeoutMillis = sinkConfiguration.getFlushTimeoutMillis();
+        this.maxInflightMessages = sinkConfiguration.getMaxInflightMessages();
+        this.maxInflightBytes = sinkConfiguration.getMaxInflightBytes();
+        this.pendingTopics = new HashMap<>();
+        this.maxPendingMessagesPerTopic = sinkConfiguration.getMaxPendingMessagesPerTopic();
+        this.failedMessages = new ConcurrentLinkedQueue<>();
+        this.spillRetryIntervalMillis = sinkConfiguration.getSpillRetryIntervalMillis();
+        long spillMaxBytes = sinkConfiguration.getSpillMaxBytes();
+        if (deliveryGuarantee == DeliveryGuarantee.AT_LEAST_ONCE && spillMaxBytes > 0) {
+            File directory = new File(sinkConfiguration.getSpillDirectory());
+            try {
+                this.spillBuffer = new SpillBuffer(directory, spillMaxBytes);
+            } catch (IOException e) {
+                throw new FlinkRuntimeException("Cannot create the spill buffer.", e);
+            }
+        } else {
+            this.spillBuffer = null;
+        }
+        for (PulsarWriterState state : recoveredStates) {
+            failedMessages.addAll(state.getSpilledMessages());
+        }
+        if (!failedMessages.isEmpty()) {
+            LOG.info("Resend {} spilled messages after restoring.", failedMessages.size());
+            resendRecoveredMessages();
+        }
+
+        // Expose the flush metrics.
+        metricGroup.gauge(PENDING_MESSAGES, pendingMessages::getMessages);
+        metricGroup.gauge(PENDING_BYTES, pendingMessages::getBytes);
+        metricGroup.gauge(LAST_FLUSH_DURATION_MILLIS, () -> lastFlushDurationMillis);
     }
 
     @Override
     public void write(IN element, Context context) throws IOException, InterruptedException {
-        PulsarMessage<?> message = serializationSchema.serialize(element, sinkContext);
+        String topic;
+        Schema<?> schema;
+        PulsarMessage<?> message = null;
+        if (directSerializationSchema != null) {
+            reusableMessage.reset();
+            directSerializationSchema.serialize(element, sinkContext, reusableMessage);
+            topic = routeTopic(element, reusableMessage.getKey());
+            schema = Schema.BYTES;
+        } else {
+            message = serializationSchema.serialize(element, sinkContext);
+            topic = routeTopic(element, message.getKey());
+            schema = message.getSchema();
+        }
 
-        // Choose the right topic to send.
-        String key = message.getKey();
-        List<TopicPartition> partitions = metadataListener.availablePartitions();
-        TopicPartition partition = topicRouter.route(element, key, partitions, sinkContext);
-        String topic = partition.getFullTopicName();
+        long deliverAt = messageDelayer.deliverAt(element, sinkContext);
+        Long timestamp = context.timestamp();
+
+        if (pendingTopics.containsKey(topic)
+                || (!isSpilling() && !producerRegister.isProducerReady(topic, schema))) {
+            // Buffer the message until the producer is created, the other topics are not blocked.
+            Deque<QueuedMessage> queue = pendingMessagesOf(topic, schema);
+            if (queue.size() < maxPendingMessagesPerTopic) {
+                PulsarMessage<?> pending =
+                        message == null ? reusableMessage.toPulsarMessage() : message;
+                queue.add(new QueuedMessage(pending, timestamp, deliverAt));
+                return;
+            }
+
+            // The queue is full, wait for the producer and send the message directly.
+            while (pendingTopics.containsKey(topic)) {
+                mailboxExecutor.yield();
+            }
+        }
+
+        if (isSpilling()) {
+            // Keep the order of the messages, the brokers are still unavailable. The message is
+            // spilled without creating the producer of its topic.
+            PulsarMessage<?> spilled =
+                    message == null ? reusableMessage.toPulsarMessage() : message;
+            spillFailedMessages();
+            spill(toRequestEntry(topic, timestamp, spilled, deliverAt));
+            return;
+        }
 
         // Create message builder for sending messages.
-        TypedMessageBuilder<?> builder = createMessageBuilder(topic, context, message);
+        TypedMessageBuilder<?> builder =
+                message == null
+                        ? createMessageBuilder(topic, timestamp, reusableMessage)
+                        : createMessageBuilder(topic, timestamp, message);
+        sendMessage(topic, builder, deliverAt);
+    }
 
+    private void sendMessage(String topic, TypedMessageBuilder<?> builder, long deliverAt)
+            throws IOException, InterruptedException {
         // Message Delay delivery.
-        long deliverAt = messageDelayer.deliverAt(element, sinkContext);
         if (deliverAt > 0) {
             builder.deliverAt(deliverAt);
         }
 
-        // Perform message sending.
+        if (isSpilling()) {
+            // Keep the order of the messages, the brokers are still unavailable.
+            spillFailedMessages();
+            spill(PulsarRequestEntry.fromMessageBuilder(topic, builder));
+            return;
+        }
+
+        // Wait for the in-flight window before sending the message.
+        waitForCapacity();
+        long size = messageSize(builder);
+        pendingMessages.add(size);
+
+        sendAsync(topic, builder, size);
+        producerRegister.evictProducers();
+    }
+
+    /** The messages are spilled in order once any message has failed because of the outages. */
+    private boolean isSpilling() {
+        return spillBuffer != null && (!spillBuffer.isEmpty() || !failedMessages.isEmpty());
+    }
+
+    /** Get the pending message queue of the topic, its producer would be created in background. */
+    private Deque<QueuedMessage> pendingMessagesOf(String topic, @Nullable Schema<?> schema) {
+        Deque<QueuedMessage> queue = pendingTopics.get(topic);
+        if (queue != null) {
+            return queue;
+        }
+
+        queue = new ArrayDeque<>();
+        pendingTopics.put(topic, queue);
+
+        Executor executor =
+                command -> mailboxExecutor.execute(command::run, "Register the Pulsar producer");
+        producerRegister
+                .createProducerAsync(topic, schema, executor)
+                .whenComplete(
+                        (v, ex) -> {
+                            if (ex == null) {
+                                mailboxExecutor.execute(
+                                        () -> sendPendingMessages(topic),
+                                        "Send the pending messages to Pulsar");
+                            } else {
+                                mailboxExecutor.execute(
+                                        () -> failPendingMessages(topic, ex),
+                                        "Failed to create the Pulsar producer");
+                            }
+                        });
+
+        return queue;
+    }
+
+    private void sendPendingMessages(String topic) throws Exception {
+        Deque<QueuedMessage> queue = pendingTopics.get(topic);
+        QueuedMessage queued;
+        while ((queued = queue.poll()) != null) {
+            TypedMessageBuilder<?> builder =
+                    createMessageBuilder(topic, queued.timestamp, queued.message);
+            sendMessage(topic, builder, queued.deliverAt);
+        }
+        pendingTopics.remove(topic);
+    }
+
+    /** Spill the pending messages if the brokers are unavailable, otherwise fail the writer. */
+    private void failPendingMessages(String topic, Throwable ex) throws IOException {
+        if (spillBuffer == null || !isRetriableError(ex)) {
+            throw new FlinkRuntimeException("Failed to create the producer for topic: " + topic, ex);
+        }
+
+        LOG.warn("Failed to create the producer for topic {}, spill its messages.", topic, ex);
+        Deque<QueuedMessage> queue = pendingTopics.remove(topic);
+        spillFailedMessages();
+        for (QueuedMessage queued : queue) {
+            spill(toRequestEntry(topic, queued.timestamp, queued.message, queued.deliverAt));
+        }
+    }
+
+    /** Serialize the message without its producer, it would be sent by a bytes producer. */
+    private PulsarRequestEntry toRequestEntry(
+            String topic, @Nullable Long timestamp, PulsarMessage<?> message, long deliverAt) {
+        long eventTime = message.getEventTime();
+        if (eventTime <= 0) {
+            eventTime = timestamp != null && timestamp > 0L ? timestamp : 0L;
+        }
+        return PulsarRequestEntry.fromMessage(topic, message, eventTime, deliverAt);
+    }
+
+    private void sendAsync(String topic, TypedMessageBuilder<?> builder, long size) {
         if (deliveryGuarantee == DeliveryGuarantee.NONE) {
             // We would just ignore the sending exception. This may cause data loss.
-            builder.sendAsync();
+            builder.sendAsync().whenComplete((id, ex) -> releaseCapacity(size, null));
         } else {
-            // Increase the pending message count.
-            pendingMessages.incrementAndGet();
             CompletableFuture<MessageId> future = builder.sendAsync();
             future.whenComplete(
                     (id, ex) -> {
-                        pendingMessages.decrementAndGet();
+                        if (spillBuffer != null && isRetriableError(ex)) {
+                            // Copy the failed message only, the sent message doesn't share the
+                            // metadata with the builder. Hand it over before releasing, the flush
+                            // would spill it.
+                            failedMessages.add(
+                                    PulsarRequestEntry.fromMessageBuilder(topic, builder));
+                            releaseCapacity(size, null);
+                            mailboxExecutor.execute(
+                                    this::spillFailedMessages, "Spill the failed Pulsar messages");
+                            return;
+                        }
+
+                        releaseCapacity(size, ex);
                         if (ex != null) {
                             mailboxExecutor.execute(
                                     () -> throwSendingException(topic, ex),
@@ -179,16 +451,188 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
         }
     }
 
+    private boolean isRetriableError(@Nullable Throwable ex) {
+        if (ex == null) {
+            return false;
+        }
+        Throwable cause = ExceptionUtils.stripCompletionException(ex);
+        return cause instanceof PulsarClientException
+                && PulsarClientException.isRetriableError(cause);
+    }
+
+    /** Move the failed messages into the spill buffer, they would be resent in background. */
+    private void spillFailedMessages() throws IOException {
+        PulsarRequestEntry entry;
+        while ((entry = failedMessages.poll()) != null) {
+            spill(entry);
+        }
+    }
+
+    private void spill(PulsarRequestEntry entry) throws IOException {
+        if (!spillBuffer.add(entry)) {
+            throw new FlinkRuntimeException(
+                    String.format(
+                            "The spill buffer is full with %d messages (%d bytes), failed to spill the message to topic %s.",
+                            spillBuffer.getMessages(),
+                            spillBuffer.getBytes(),
+                            entry.getTopic()));
+        }
+        registerSpillTimer();
+    }
+
+    /** Try to resend the spilled messages after the retry interval. */
+    private void registerSpillTimer() {
+        if (spillTimerRegistered || drainingSpillBuffer) {
+            return;
+        }
+
+        spillTimerRegistered = true;
+        long time = timeService.getCurrentProcessingTime() + spillRetryIntervalMillis;
+        timeService.registerTimer(
+                time,
+                timestamp -> {
+                    spillTimerRegistered = false;
+                    drainSpillBuffer();
+                });
+    }
+
+    /**
+     * Resend a batch of the spilled messages in order. The batch would only be removed from the
+     * spill buffer after all of its messages are sent, otherwise it would be resent after the retry
+     * interval. This may cause duplicated messages, which is acceptable in at-least-once mode.
+     */
+    private void drainSpillBuffer() throws IOException {
+        if (drainingSpillBuffer || spillBuffer.isEmpty()) {
+            return;
+        }
+
+        int batchSize = MAX_RESEND_MESSAGES;
+        if (maxInflightMessages > 0) {
+            batchSize = Math.min(batchSize, maxInflightMessages);
+        }
+        List<PulsarRequestEntry> entries = spillBuffer.peek(batchSize);
+
+        // The producers of the spilled messages may not be created yet, create them before sending.
+        List<TypedMessageBuilder<byte[]>> builders = new ArrayList<>(entries.size());
+        try {
+            for (PulsarRequestEntry entry : entries) {
+                builders.add(producerRegister.createMessageBuilder(entry));
+            }
+        } catch (PulsarClientException e) {
+            if (!PulsarClientException.isRetriableError(e)) {
+                throw new FlinkRuntimeException("Failed to resend the spilled messages.", e);
+            }
+            LOG.warn(
+                    "Failed to create the producers for the spilled messages, retry in {} ms.",
+                    spillRetryIntervalMillis,
+                    e);
+            registerSpillTimer();
+            return;
+        }
+
+        List<CompletableFuture<MessageId>> futures = new ArrayList<>(entries.size());
+        for (TypedMessageBuilder<byte[]> builder : builders) {
+            long size = messageSize(builder);
+            pendingMessages.add(size);
+            // The failed messages are kept in the spill buffer, no need to fail the flush.
+            CompletableFuture<MessageId> future = builder.sendAsync();
+            future.whenComplete((id, ex) -> releaseCapacity(size, null));
+            futures.add(future);
+        }
+        producerRegister.flushAsync();
+
+        drainingSpillBuffer = true;
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .whenComplete(
+                        (v, ex) ->
+                                mailboxExecutor.execute(
+                                        () -> completeSpilledMessages(entries.size(), ex),
+                                        "Resend the spilled Pulsar messages"));
+    }
+
+    private void completeSpilledMessages(int count, @Nullable Throwable ex) throws IOException {
+        drainingSpillBuffer = false;
+        if (ex == null) {
+            spillBuffer.remove(count);
+            LOG.debug("Resent {} spilled messages to Pulsar.", count);
+            drainSpillBuffer();
+        } else if (isRetriableError(ex)) {
+            LOG.warn(
+                    "Failed to resend {} spilled messages to Pulsar, retry in {} ms.",
+                    spillBuffer.getMessages(),
+                    spillRetryIntervalMillis,
+                    ex);
+            registerSpillTimer();
+        } else {
+            throw new FlinkRuntimeException("Failed to resend the spilled messages to Pulsar.", ex);
+        }
+    }
+
+    /** Resend the recovered spilled messages, they would be spilled again if they failed. */
+    private void resendRecoveredMessages() throws PulsarClientException {
+        if (spillBuffer != null) {
+            try {
+                spillFailedMessages();
+            } catch (IOException e) {
+                throw new FlinkRuntimeException("Failed to spill the recovered messages.", e);
+            }
+        } else {
+            // The spill buffer has been disabled, send these messages directly.
+            PulsarRequestEntry entry;
+            while ((entry = failedMessages.poll()) != null) {
+                TypedMessageBuilder<byte[]> builder = producerRegister.createMessageBuilder(entry);
+                long size = messageSize(builder);
+                pendingMessages.add(size);
+                sendAsync(entry.getTopic(), builder, size);
+            }
+        }
+    }
+
+    /** Yield to the mailbox until the in-flight window has capacity, this causes backpressure. */
+    private void waitForCapacity() throws InterruptedException {
+        if (!pendingMessages.isFull(maxInflightMessages, maxInflightBytes)) {
+            return;
+        }
+
+        waitingForCapacity = true;
+        try {
+            while (pendingMessages.isFull(maxInflightMessages, maxInflightBytes)) {
+                mailboxExecutor.yield();
+            }
+        } finally {
+            waitingForCapacity = false;
+        }
+    }
+
+    /** Complete the pending message and wake up the writer if it's waiting for the window. */
+    private void releaseCapacity(long size, Throwable ex) {
+        pendingMessages.complete(size, ex);
+        if (waitingForCapacity) {
+            mailboxExecutor.execute(() -> {}, "Release the Pulsar in-flight window");
+        }
+    }
+
+    private long messageSize(TypedMessageBuilder<?> builder) {
+        ByteBuffer content = ((TypedMessageBuilderImpl<?>) builder).getContent();
+        return content == null ? 0 : content.remaining();
+    }
+
+    /** Choose the right topic to send. */
+    private String routeTopic(IN element, @Nullable String key) {
+        List<TopicPartition> partitions = metadataListener.availablePartitions();
+        TopicPartition partition = topicRouter.route(element, key, partitions, sinkContext);
+        return partition.getFullTopicName();
+    }
+
     private void throwSendingException(String topic, Throwable ex) {
         throw new FlinkRuntimeException("Failed to send data to Pulsar: " + topic, ex);
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private TypedMessageBuilder<?> createMessageBuilder(
-            String topic, Context context, PulsarMessage<?> message) throws PulsarClientException {
-
-        Schema<?> schema = message.getSchema();
-        TypedMessageBuilder<?> builder = producerRegister.createMessageBuilder(topic, schema);
+    private TypedMessageBuilder<byte[]> createMessageBuilder(
+            String topic, @Nullable Long timestamp, ReusablePulsarMessage message)
+            throws PulsarClientException {
+        TypedMessageBuilder<byte[]> builder =
+                producerRegister.createMessageBuilder(topic, Schema.BYTES);
 
         byte[] orderingKey = message.getOrderingKey();
         if (orderingKey != null && orderingKey.length > 0) {
@@ -201,23 +645,78 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
         }
 
         if (message.isBase64EncodedKey()) {
-            // HACK - otherwise we should hold both keys and keyBytes fields which
-            // is more confusing.
             ((TypedMessageBuilderImpl<?>) builder)
                     .getMetadataBuilder()
                     .setPartitionKeyB64Encoded(true);
         }
 
-        long eventTime = message.getEventTime();
+        setEventTime(builder, timestamp, message.getEventTime());
+
+        ByteBuffer buffer = message.getValueBuffer();
+        if (buffer != null && !validateMessageBytes) {
+            // Send the buffer as the message content, the direct buffer isn't copied into heap.
+            setContent(builder, buffer);
+        } else if (buffer != null) {
+            // Copy the buffer into the bytes, they would be validated by the bytes schema.
+            byte[] value = new byte[buffer.remaining()];
+            buffer.duplicate().get(value);
+            builder.value(value);
+        } else {
+            byte[] value = message.getValue();
+            if (value == null) {
+                LOG.warn(
+                        "Send a message with empty payloads, this is a tombstone message in Pulsar.");
+            }
+            builder.value(value);
+        }
+
+        Map<String, String> properties = message.getProperties();
+        if (!properties.isEmpty()) {
+            builder.properties(properties);
+        }
+
+        return builder;
+    }
+
+    private void setEventTime(
+            TypedMessageBuilder<?> builder, @Nullable Long timestamp, long eventTime) {
         if (eventTime > 0) {
             builder.eventTime(eventTime);
         } else {
             // Set default message timestamp if flink has provided one.
-            Long timestamp = context.timestamp();
             if (timestamp != null && timestamp > 0L) {
                 builder.eventTime(timestamp);
             }
         }
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private TypedMessageBuilder<?> createMessageBuilder(
+            String topic, @Nullable Long timestamp, PulsarMessage<?> message)
+            throws PulsarClientException {
+
+        Schema<?> schema = message.getSchema();
+        TypedMessageBuilder<?> builder = producerRegister.createMessageBuilder(topic, schema);
+
+        byte[] orderingKey = message.getOrderingKey();
+        if (orderingKey != null && orderingKey.length > 0) {
+            builder.orderingKey(orderingKey);
+        }
+
+        String key = message.getKey();
+        if (!Strings.isNullOrEmpty(key)) {
+            builder.key(key);
+        }
+
+        if (message.isBase64EncodedKey()) {
+            // HACK - otherwise we should hold both keys and keyBytes fields which
+            // is more confusing.
+            ((TypedMessageBuilderImpl<?>) builder)
+                    .getMetadataBuilder()
+                    .setPartitionKeyB64Encoded(true);
+        }
+
+        setEventTime(builder, timestamp, message.getEventTime());
 
         // Schema evolution would serialize the message by Pulsar Schema in TypedMessageBuilder.
         // The type has been checked in PulsarMessageBuilder#value.
@@ -234,6 +733,10 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
 
         Long sequenceId = message.getSequenceId();
         if (sequenceId != null) {
+            // The sequence ids have been assigned by the producer register in deduplication mode.
+            checkArgument(
+                    !enableDeduplication,
+                    "The sequence id of the message couldn't be set when the deduplication is enabled.");
             builder.sequenceId(sequenceId);
         }
 
@@ -250,16 +753,52 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
     }
 
     @Override
-    public void flush(boolean endOfInput) throws IOException {
-        if (endOfInput || deliveryGuarantee != DeliveryGuarantee.NONE) {
-            LOG.info("Flush the pending messages to Pulsar.");
-
-            // Try to flush pending messages.
-            producerRegister.flush();
-            // Make sure all the pending messages should be flushed to Pulsar.
-            while (pendingMessages.longValue() > 0) {
+    public void flush(boolean endOfInput) throws IOException, InterruptedException {
+        // Wait for the producers of the pending messages.
+        while (!pendingTopics.isEmpty()) {
+            mailboxExecutor.yield();
+        }
+
+        if (deliveryGuarantee == DeliveryGuarantee.NONE) {
+            if (endOfInput) {
+                LOG.info("Flush the pending messages to Pulsar.");
                 producerRegister.flush();
             }
+            return;
+        }
+
+        LOG.info("Flush {} pending messages to Pulsar.", pendingMessages.getMessages());
+        long start = System.nanoTime();
+
+        // Send the batched messages, the pending messages would be completed in the callbacks.
+        producerRegister.flushAsync();
+        boolean completed = pendingMessages.awaitCompletion(flushTimeoutMillis);
+        this.lastFlushDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        if (!completed) {
+            throw new IOException(
+                    String.format(
+                            "Failed to flush %d pending messages to Pulsar in %d ms.",
+                            pendingMessages.getMessages(), flushTimeoutMillis));
+        }
+
+        Throwable failure = pendingMessages.getFailure();
+        if (failure != null) {
+            throw new IOException("Failed to send data to Pulsar.", failure);
+        }
+
+        if (spillBuffer != null) {
+            // The failed messages would be stored in the checkpoint with the spilled messages.
+            spillFailedMessages();
+            if (endOfInput) {
+                // No more checkpoints for the spilled messages, wait until all of them are sent.
+                LOG.info("Wait for {} spilled messages to be sent.", spillBuffer.getMessages());
+                drainSpillBuffer();
+                while (!spillBuffer.isEmpty() || !failedMessages.isEmpty()) {
+                    mailboxExecutor.yield();
+                    spillFailedMessages();
+                }
+            }
         }
     }
 
@@ -272,9 +811,47 @@ public class PulsarWriter<IN> implements PrecommittingSinkWriter<IN, PulsarCommi
         }
     }
 
+    @Override
+    public List<PulsarWriterState> snapshotState(long checkpointId) {
+        if (deliveryGuarantee == DeliveryGuarantee.EXACTLY_ONCE) {
+            List<TxnID> transactions = producerRegister.snapshotTransactions();
+            return singletonList(new PulsarWriterState(transactions));
+        } else if (enableDeduplication) {
+            // Always store the state, the writer should know it's restored from a checkpoint.
+            Map<String, Long> sequenceIds = producerRegister.snapshotSequenceIds();
+            String producerName = producerRegister.getProducerName();
+            return singletonList(
+                    new PulsarWriterState(emptyList(), emptyList(), sequenceIds, producerName));
+        } else if (spillBuffer != null && !spillBuffer.isEmpty()) {
+            try {
+                // The spill buffer is bounded by the builder, it's small enough to be read here.
+                List<PulsarRequestEntry> messages = spillBuffer.peek(spillBuffer.getMessages());
+                return singletonList(new PulsarWriterState(emptyList(), messages));
+            } catch (IOException e) {
+                throw new FlinkRuntimeException("Failed to read the spilled messages.", e);
+            }
+        } else {
+            return emptyList();
+        }
+    }
+
     @Override
     public void close() throws Exception {
         // Close all the resources and throw the exception at last.
-        closeAll(metadataListener, producerRegister);
+        closeAll(metadataListener, producerRegister, spillBuffer);
+    }
+
+    /** The message which is waiting for creating the producer of its topic. */
+    private static final class QueuedMessage {
+
+        private final PulsarMessage<?> message;
+        @Nullable private final Long timestamp;
+        private final long deliverAt;
+
+        private QueuedMessage(PulsarMessage<?> message, @Nullable Long timestamp, long deliverAt) {
+            this.message = message;
+            this.timestamp = timestamp;
+            this.deliverAt = deliverAt;
+        }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
+
+import org.apache.pulsar.client.api.transaction.TxnID;
+
+import javax.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The state of {@link PulsarWriter}. It holds the transactions which have been opened but not
+ * committed by the writer in checkpointing. These transactions would be aborted after restoring the
+ * writer, so they wouldn't block the consumers until they are timed out.
+ *
+ * <p>The messages in the spill buffer are also stored in this state for the at-least-once
+ * guarantee. They would be resent after restoring the writer.
+ *
+ * <p>The last sequence ids of the topics are stored if the deduplication is enabled. The messages
+ * resent after restoring would have the same sequence ids, so they would be dropped by the brokers.
+ * The sequence ids belong to the producer name of the subtask, which is stored along with them.
+ */
+@Internal
+public class PulsarWriterState {
+
+    /** The opened transactions which don't belong to any committable. */
+    private final List<TxnID> openTransactions;
+
+    /** The messages which haven't been sent because the brokers were unavailable. */
+    private final List<PulsarRequestEntry> spilledMessages;
+
+    /** The last sequence ids of the written topics in deduplication mode. */
+    private final Map<String, Long> sequenceIds;
+
+    /** The producer name of the sequence ids, it's null if the deduplication isn't enabled. */
+    @Nullable private final String producerName;
+
+    public PulsarWriterState(List<TxnID> openTransactions) {
+        this(openTransactions, Collections.emptyList());
+    }
+
+    public PulsarWriterState(
+            List<TxnID> openTransactions, List<PulsarRequestEntry> spilledMessages) {
+        this(openTransactions, spilledMessages, Collections.emptyMap(), null);
+    }
+
+    public PulsarWriterState(
+            List<TxnID> openTransactions,
+            List<PulsarRequestEntry> spilledMessages,
+            Map<String, Long> sequenceIds,
+            @Nullable String producerName) {
+        this.openTransactions = openTransactions;
+        this.spilledMessages = spilledMessages;
+        this.sequenceIds = sequenceIds;
+        this.producerName = producerName;
+    }
+
+    public List<TxnID> getOpenTransactions() {
+        return openTransactions;
+    }
+
+    public List<PulsarRequestEntry> getSpilledMessages() {
+        return spilledMessages;
+    }
+
+    public Map<String, Long> getSequenceIds() {
+        return sequenceIds;
+    }
+
+    @Nullable
+    public String getProducerName() {
+        return producerName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        PulsarWriterState that = (PulsarWriterState) o;
+        return Objects.equals(openTransactions, that.openTransactions)
+                && Objects.equals(spilledMessages, that.spilledMessages)
+                && Objects.equals(sequenceIds, that.sequenceIds)
+                && Objects.equals(producerName, that.producerName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(openTransactions, spilledMessages, sequenceIds, producerName);
+    }
+
+    @Override
+    public String toString() {
+        return "PulsarWriterState{"
+                + "openTransactions="
+                + openTransactions
+                + ", spilledMessages="
+                + spilledMessages.size()
+                + ", sequenceIds="
+                + sequenceIds
+                + ", producerName='"
+                + producerName
+                + '\''
+                + '}';
+    }
+}
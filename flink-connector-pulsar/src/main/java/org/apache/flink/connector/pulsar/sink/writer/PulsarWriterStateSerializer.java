@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntrySerializer;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import org.apache.pulsar.client.api.transaction.TxnID;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** A serializer used to serialize {@link PulsarWriterState}. */
+@Internal
+public class PulsarWriterStateSerializer implements SimpleVersionedSerializer<PulsarWriterState> {
+
+    private static final int CURRENT_VERSION = 1;
+
+    private final PulsarRequestEntrySerializer entrySerializer = new PulsarRequestEntrySerializer();
+
+    @Override
+    public int getVersion() {
+        return CURRENT_VERSION;
+    }
+
+    @Override
+    public byte[] serialize(PulsarWriterState obj) throws IOException {
+        try (final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                final DataOutputStream out = new DataOutputStream(baos)) {
+            List<TxnID> transactions = obj.getOpenTransactions();
+            out.writeInt(transactions.size());
+            for (TxnID txnID : transactions) {
+                out.writeLong(txnID.getMostSigBits());
+                out.writeLong(txnID.getLeastSigBits());
+            }
+            List<PulsarRequestEntry> messages = obj.getSpilledMessages();
+            out.writeInt(messages.size());
+            for (PulsarRequestEntry message : messages) {
+                entrySerializer.serializeRequestToStream(message, out);
+            }
+            Map<String, Long> sequenceIds = obj.getSequenceIds();
+            out.writeInt(sequenceIds.size());
+            for (Map.Entry<String, Long> entry : sequenceIds.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            String producerName = obj.getProducerName();
+            out.writeBoolean(producerName != null);
+            if (producerName != null) {
+                out.writeUTF(producerName);
+            }
+            out.flush();
+            return baos.toByteArray();
+        }
+    }
+
+    @Override
+    public PulsarWriterState deserialize(int version, byte[] serialized) throws IOException {
+        try (final ByteArrayInputStream bais = new ByteArrayInputStream(serialized);
+                final DataInputStream in = new DataInputStream(bais)) {
+            int size = in.readInt();
+            List<TxnID> transactions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                long mostSigBits = in.readLong();
+                long leastSigBits = in.readLong();
+                transactions.add(new TxnID(mostSigBits, leastSigBits));
+            }
+            int count = in.readInt();
+            List<PulsarRequestEntry> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                messages.add(entrySerializer.deserializeRequestFromStream(0, in));
+            }
+            int topics = in.readInt();
+            Map<String, Long> sequenceIds = new HashMap<>(topics);
+            for (int i = 0; i < topics; i++) {
+                String topic = in.readUTF();
+                sequenceIds.put(topic, in.readLong());
+            }
+            String producerName = in.readBoolean() ? in.readUTF() : null;
+            return new PulsarWriterState(transactions, messages, sequenceIds, producerName);
+        }
+    }
+}
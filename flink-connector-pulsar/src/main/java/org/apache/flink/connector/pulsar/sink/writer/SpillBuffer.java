@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntrySerializer;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A FIFO buffer which spills the serialized messages into the memory-mapped segment files on the
+ * local disk. The {@link PulsarWriter} would put the messages into this buffer when the brokers are
+ * unavailable, and send them in order when the brokers are recovered.
+ *
+ * <p>The messages are read without being removed, they are only removed after they have been
+ * successfully sent. The segment files would be deleted once all the messages in them are
+ * removed. This buffer is only used in the writer thread, it isn't thread safe.
+ *
+ * <p>Every buffer holds a lock file while it's open. The lock is released by the OS if the process
+ * crashed, so the segment files of the unlocked buffers are deleted when opening a new buffer.
+ */
+@Internal
+final class SpillBuffer implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(SpillBuffer.class);
+
+    private static final int MAX_SEGMENT_BYTES = 64 * 1024 * 1024;
+    private static final String FILE_PREFIX = "pulsar-sink-spill-";
+    private static final String LOCK_SUFFIX = ".lock";
+
+    private final Path directory;
+    private final String prefix;
+    private final Path lockFile;
+    private final FileChannel lockChannel;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final PulsarRequestEntrySerializer serializer;
+    private final ByteArrayOutputStreamWithPos buffer;
+    private final DataOutputStream output;
+    private final Deque<Segment> segments;
+    private int nextSegmentId = 0;
+    private int messages = 0;
+    private long bytes = 0;
+
+    SpillBuffer(File directory, long maxBytes) throws IOException {
+        this.directory = directory.toPath();
+        this.prefix = FILE_PREFIX + UUID.randomUUID();
+        this.lockFile = this.directory.resolve(prefix + LOCK_SUFFIX);
+        this.lockChannel =
+                FileChannel.open(lockFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            lockChannel.lock();
+            deleteOrphanedFiles();
+        } catch (IOException e) {
+            lockChannel.close();
+            Files.deleteIfExists(lockFile);
+            throw e;
+        }
+
+        this.segmentBytes = (int) Math.min(MAX_SEGMENT_BYTES, maxBytes);
+        this.maxBytes = maxBytes;
+        this.serializer = new PulsarRequestEntrySerializer();
+        this.buffer = new ByteArrayOutputStreamWithPos(1024);
+        this.output = new DataOutputStream(buffer);
+        this.segments = new ArrayDeque<>();
+    }
+
+    /**
+     * Append the message to the tail of this buffer.
+     *
+     * @return false if the buffer doesn't have enough space for this message.
+     */
+    boolean add(PulsarRequestEntry entry) throws IOException {
+        buffer.reset();
+        serializer.serializeRequestToStream(entry, output);
+        output.flush();
+        int length = buffer.getPosition();
+        int recordBytes = Integer.BYTES + length;
+        if (recordBytes > segmentBytes || bytes + recordBytes > maxBytes) {
+            return false;
+        }
+
+        Segment segment = segments.peekLast();
+        if (segment == null || segmentBytes - segment.writePosition < recordBytes) {
+            segment = createSegment();
+            segments.add(segment);
+        }
+
+        ByteBuffer target = segment.buffer.duplicate();
+        target.position(segment.writePosition);
+        target.putInt(length);
+        target.put(buffer.getBuf(), 0, length);
+        segment.writePosition += recordBytes;
+
+        messages++;
+        bytes += recordBytes;
+        return true;
+    }
+
+    /**
+     * Read at most the given number of messages from the head without removing them. All the
+     * messages are read if the given number is non-positive.
+     */
+    List<PulsarRequestEntry> peek(int maxMessages) throws IOException {
+        if (maxMessages <= 0 || maxMessages > messages) {
+            maxMessages = messages;
+        }
+        List<PulsarRequestEntry> entries = new ArrayList<>(maxMessages);
+        Iterator<Segment> iterator = segments.iterator();
+        while (iterator.hasNext() && entries.size() < maxMessages) {
+            Segment segment = iterator.next();
+            int position = segment.readPosition;
+            while (position < segment.writePosition && entries.size() < maxMessages) {
+                int length = segment.buffer.getInt(position);
+                byte[] record = new byte[length];
+                ByteBuffer source = segment.buffer.duplicate();
+                source.position(position + Integer.BYTES);
+                source.get(record);
+                position += Integer.BYTES + length;
+
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+                    entries.add(serializer.deserializeRequestFromStream(length, in));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /** Remove the given number of messages from the head. */
+    void remove(int count) throws IOException {
+        for (int i = 0; i < count && messages > 0; i++) {
+            Segment segment = segments.peekFirst();
+            int recordBytes = Integer.BYTES + segment.buffer.getInt(segment.readPosition);
+            segment.readPosition += recordBytes;
+            messages--;
+            bytes -= recordBytes;
+
+            if (segment.readPosition == segment.writePosition) {
+                segments.pollFirst();
+                segment.close();
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return messages == 0;
+    }
+
+    /** The number of the spilled messages. */
+    int getMessages() {
+        return messages;
+    }
+
+    /** The bytes of the spilled messages, including the length headers. */
+    long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            while (!segments.isEmpty()) {
+                segments.pollFirst().close();
+            }
+            messages = 0;
+            bytes = 0;
+        } finally {
+            // Closing the channel releases the lock.
+            lockChannel.close();
+            Files.deleteIfExists(lockFile);
+        }
+    }
+
+    /** Delete the segment files left by the crashed writers, their lock files aren't locked. */
+    private void deleteOrphanedFiles() throws IOException {
+        List<Path> orphans = new ArrayList<>();
+        try (DirectoryStream<Path> locks =
+                Files.newDirectoryStream(directory, FILE_PREFIX + "*" + LOCK_SUFFIX)) {
+            for (Path lock : locks) {
+                if (!lock.equals(lockFile) && !isLocked(lock)) {
+                    orphans.add(lock);
+                }
+            }
+        }
+
+        for (Path lock : orphans) {
+            String name = lock.getFileName().toString();
+            String owner = name.substring(0, name.length() - LOCK_SUFFIX.length());
+            try (DirectoryStream<Path> files =
+                    Files.newDirectoryStream(directory, owner + "-*.segment")) {
+                for (Path file : files) {
+                    LOG.info("Delete the orphaned spill segment file {}", file);
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(lock);
+        }
+    }
+
+    private static boolean isLocked(Path lock) throws IOException {
+        try (FileChannel channel = FileChannel.open(lock, StandardOpenOption.WRITE)) {
+            FileLock fileLock = channel.tryLock();
+            if (fileLock == null) {
+                // Locked by another process.
+                return true;
+            }
+            fileLock.release();
+            return false;
+        } catch (OverlappingFileLockException e) {
+            // Locked by another buffer in this process.
+            return true;
+        } catch (NoSuchFileException e) {
+            // The buffer has been closed.
+            return true;
+        }
+    }
+
+    private Segment createSegment() throws IOException {
+        Path path = directory.resolve(prefix + "-" + nextSegmentId++ + ".segment");
+        LOG.info("Create the spill segment file {}", path);
+        FileChannel channel =
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            return new Segment(path, channel, buffer);
+        } catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /** A memory-mapped segment file, the messages are appended to it. */
+    private static final class Segment implements Closeable {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        /** The mapped memory would be released by GC, the file could be deleted before that. */
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -106,7 +106,10 @@ public class PulsarMessageBuilder<T> {
         return this;
     }
 
-    /** Method wrapper of {@link TypedMessageBuilder#sequenceId(long)}. */
+    /**
+     * Method wrapper of {@link TypedMessageBuilder#sequenceId(long)}. The sequence id couldn't be set
+     * if the deduplication is enabled in the sink, the sink assigns the sequence ids itself.
+     */
     public PulsarMessageBuilder<T> sequenceId(long sequenceId) {
         this.sequenceId = sequenceId;
         return this;
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.message;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.connector.pulsar.sink.writer.router.KeyHashTopicRouter;
+import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarDirectSerializationSchema;
+
+import org.apache.pulsar.client.api.TypedMessageBuilder;
+
+import javax.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * A writer-owned message which is reused for every record. {@link PulsarDirectSerializationSchema}
+ * writes the serialized record into it instead of creating a {@link PulsarMessage}. The message
+ * value should be serialized bytes or buffer, and the schema evolution isn't supported in this way.
+ *
+ * <p>The given arrays and maps shouldn't be modified until the record has been serialized.
+ */
+@PublicEvolving
+public interface PulsarMessageSink {
+
+    /** Method wrapper of {@link TypedMessageBuilder#orderingKey(byte[])}. */
+    PulsarMessageSink orderingKey(byte[] orderingKey);
+
+    /**
+     * Method wrapper of {@link TypedMessageBuilder#key(String)}. This key would also be used in
+     * {@link KeyHashTopicRouter}.
+     */
+    PulsarMessageSink key(String key);
+
+    /**
+     * Method wrapper of {@link TypedMessageBuilder#keyBytes(byte[])}. This key would also be used
+     * in {@link KeyHashTopicRouter}.
+     */
+    PulsarMessageSink keyBytes(byte[] keyBytes);
+
+    /**
+     * Method wrapper of {@link TypedMessageBuilder#eventTime(long)}. If you don't provide the event
+     * time, we will try to use Flink's sink context time instead.
+     */
+    PulsarMessageSink eventTime(long eventTime);
+
+    /** Set the serialized message bytes. The {@code null} value means a tombstone message. */
+    PulsarMessageSink value(@Nullable byte[] value);
+
+    /**
+     * Set the readable bytes of the given buffer as the serialized message. The buffer could be a
+     * direct buffer, the sink writer passes it to the Pulsar producer without copying it into a
+     * heap array. The {@code null} value means a tombstone message.
+     *
+     * <p>The buffer is owned by the sink writer after this call, it shouldn't be modified or reused
+     * since the writer may read it until the message is sent, or spilled and resent after a
+     * failure. There is no callback for returning the buffer, the writer just drops it after that.
+     * So the buffer should be released by GC, such as a buffer from {@link
+     * ByteBuffer#allocateDirect(int)}. The pooled buffers which should be returned to their pools
+     * aren't supported. The buffer is copied into the heap if {@code
+     * pulsar.sink.validateSinkMessageBytes} is enabled.
+     */
+    default PulsarMessageSink value(@Nullable ByteBuffer value) {
+        if (value == null) {
+            return value((byte[]) null);
+        }
+
+        byte[] bytes = new byte[value.remaining()];
+        value.duplicate().get(bytes);
+        return value(bytes);
+    }
+
+    /** Method wrapper of {@link TypedMessageBuilder#property(String, String)}. */
+    PulsarMessageSink property(String key, String value);
+
+    /** Method wrapper of {@link TypedMessageBuilder#properties(Map)}. */
+    PulsarMessageSink properties(Map<String, String> properties);
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.message;
+
+import org.apache.flink.annotation.Internal;
+
+import org.apache.pulsar.client.api.Schema;
+
+import javax.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The mutable {@link PulsarMessageSink} held by the sink writer. It should be {@link #reset()}
+ * before serializing a new record.
+ */
+@Internal
+public class ReusablePulsarMessage implements PulsarMessageSink {
+
+    @Nullable private byte[] orderingKey;
+    @Nullable private String key;
+    private boolean isBase64EncodedKey;
+    private long eventTime;
+    @Nullable private byte[] value;
+    @Nullable private ByteBuffer valueBuffer;
+    private final Map<String, String> properties = new HashMap<>();
+
+    @Override
+    public PulsarMessageSink orderingKey(byte[] orderingKey) {
+        this.orderingKey = checkNotNull(orderingKey);
+        return this;
+    }
+
+    @Override
+    public PulsarMessageSink key(String key) {
+        this.key = checkNotNull(key);
+        this.isBase64EncodedKey = false;
+        return this;
+    }
+
+    @Override
+    public PulsarMessageSink keyBytes(byte[] keyBytes) {
+        this.key = Base64.getEncoder().encodeToString(keyBytes);
+        this.isBase64EncodedKey = true;
+        return this;
+    }
+
+    @Override
+    public PulsarMessageSink eventTime(long eventTime) {
+        checkArgument(eventTime > 0, "The given event time should above 0.");
+        this.eventTime = eventTime;
+        return this;
+    }
+
+    @Override
+    public PulsarMessageSink value(@Nullable byte[] value) {
+        this.value = value;
+        this.valueBuffer = null;
+        return this;
+    }
+
+    @Override
+    public PulsarMessageSink value(@Nullable ByteBuffer value) {
+        this.value = null;
+        this.valueBuffer = value;
+        return this;
+    }
+
+    @Override
+    public PulsarMessageSink property(String key, String value) {
+        this.properties.put(checkNotNull(key), checkNotNull(value));
+        return this;
+    }
+
+    @Override
+    public PulsarMessageSink properties(Map<String, String> properties) {
+        this.properties.putAll(checkNotNull(properties));
+        return this;
+    }
+
+    /** Clear all the fields for serializing the next record. */
+    public void reset() {
+        this.orderingKey = null;
+        this.key = null;
+        this.isBase64EncodedKey = false;
+        this.eventTime = 0;
+        this.value = null;
+        this.valueBuffer = null;
+        this.properties.clear();
+    }
+
+    @Nullable
+    public byte[] getOrderingKey() {
+        return orderingKey;
+    }
+
+    @Nullable
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isBase64EncodedKey() {
+        return isBase64EncodedKey;
+    }
+
+    public long getEventTime() {
+        return eventTime;
+    }
+
+    /** The value set in bytes. It's {@code null} if the value is a buffer or a tombstone. */
+    @Nullable
+    public byte[] getValue() {
+        return value;
+    }
+
+    /** The value set in a buffer, it would be sent without copying. */
+    @Nullable
+    public ByteBuffer getValueBuffer() {
+        return valueBuffer;
+    }
+
+    /** The returned map would be cleared on {@link #reset()}, don't hold it. */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /** Copy the fields into an immutable {@link PulsarMessage}. */
+    public PulsarMessage<byte[]> toPulsarMessage() {
+        byte[] value = this.value;
+        if (valueBuffer != null) {
+            value = new byte[valueBuffer.remaining()];
+            valueBuffer.duplicate().get(value);
+        }
+        return new PulsarMessage<>(
+                orderingKey,
+                key,
+                isBase64EncodedKey,
+                eventTime,
+                value == null ? null : Schema.BYTES,
+                value,
+                new HashMap<>(properties),
+                null,
+                null,
+                false);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.serializer;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContext;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessageSink;
+import org.apache.flink.connector.pulsar.sink.writer.message.ReusablePulsarMessage;
+
+/**
+ * A {@link PulsarSerializationSchema} which writes the serialized record into a {@link
+ * PulsarMessageSink} provided by the sink writer. The sink writer reuses the same message sink for
+ * all the records, so no {@link PulsarMessage} would be created for every record.
+ *
+ * @param <IN> The message type sent to Pulsar.
+ */
+@PublicEvolving
+public interface PulsarDirectSerializationSchema<IN> extends PulsarSerializationSchema<IN> {
+
+    /**
+     * Serializes the given element into bytes and write it with other message fields into the
+     * given {@link PulsarMessageSink}.
+     *
+     * @param element Element to be serialized.
+     * @param sinkContext Context to provide extra information.
+     * @param messageSink The reusable message which holds the serialized fields.
+     */
+    void serialize(IN element, PulsarSinkContext sinkContext, PulsarMessageSink messageSink);
+
+    /** This method is only used when the caller doesn't support the {@link PulsarMessageSink}. */
+    @Override
+    default PulsarMessage<?> serialize(IN element, PulsarSinkContext sinkContext) {
+        ReusablePulsarMessage message = new ReusablePulsarMessage();
+        serialize(element, sinkContext, message);
+        return message.toPulsarMessage();
+    }
+}
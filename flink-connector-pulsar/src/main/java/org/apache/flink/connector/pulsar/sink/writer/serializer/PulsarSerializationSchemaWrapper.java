@@ -23,11 +23,11 @@ import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.api.common.serialization.SerializationSchema.InitializationContext;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
 import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContext;
-import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessageSink;
 
 /** Wrap the Flink's SerializationSchema into PulsarSerializationSchema. */
 @Internal
-public class PulsarSerializationSchemaWrapper<IN> implements PulsarSerializationSchema<IN> {
+public class PulsarSerializationSchemaWrapper<IN> implements PulsarDirectSerializationSchema<IN> {
     private static final long serialVersionUID = 4948155843623161119L;
 
     private final SerializationSchema<IN> serializationSchema;
@@ -46,8 +46,8 @@ public class PulsarSerializationSchemaWrapper<IN> implements PulsarSerialization
     }
 
     @Override
-    public PulsarMessage<?> serialize(IN element, PulsarSinkContext sinkContext) {
-        byte[] value = serializationSchema.serialize(element);
-        return PulsarMessage.builder(value).build();
+    public void serialize(
+            IN element, PulsarSinkContext sinkContext, PulsarMessageSink messageSink) {
+        messageSink.value(serializationSchema.serialize(element));
     }
 }
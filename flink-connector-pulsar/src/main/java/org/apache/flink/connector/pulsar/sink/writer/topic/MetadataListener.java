@@ -49,10 +49,14 @@ import java.io.Serializable;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static java.util.Collections.emptyList;
-import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseAdmin;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarExecutorUtils.createBlockingExecutor;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarExecutorUtils.invokeAll;
 import static org.apache.flink.connector.pulsar.source.enumerator.topic.TopicNameUtils.isPartition;
 import static org.apache.pulsar.common.partition.PartitionedTopicMetadata.NON_PARTITIONED;
 
@@ -73,6 +77,7 @@ public class MetadataListener implements Serializable, Closeable {
 
     // Dynamic fields.
     private transient PulsarAdmin pulsarAdmin;
+    private transient ExecutorService blockingExecutor;
     private transient Long topicMetadataRefreshInterval;
     private transient ProcessingTimeService timeService;
     private transient LoadingCache<String, Optional<Integer>> topicPartitionCache;
@@ -102,7 +107,8 @@ public class MetadataListener implements Serializable, Closeable {
     public void open(SinkConfiguration sinkConfiguration, ProcessingTimeService timeService)
             throws PulsarClientException {
         // Initialize listener properties.
-        this.pulsarAdmin = createAdmin(sinkConfiguration);
+        this.pulsarAdmin = acquireAdmin(sinkConfiguration);
+        this.blockingExecutor = createBlockingExecutor(sinkConfiguration, "pulsar-sink-metadata");
         this.topicMetadataRefreshInterval = sinkConfiguration.getTopicMetadataRefreshInterval();
         this.timeService = timeService;
         this.topicPartitionCache =
@@ -181,8 +187,11 @@ public class MetadataListener implements Serializable, Closeable {
 
     @Override
     public void close() throws IOException {
+        if (blockingExecutor != null) {
+            blockingExecutor.shutdownNow();
+        }
         if (pulsarAdmin != null) {
-            pulsarAdmin.close();
+            releaseAdmin(pulsarAdmin);
         }
     }
 
@@ -208,8 +217,12 @@ public class MetadataListener implements Serializable, Closeable {
     private void updateTopicMetadata() throws PulsarAdminException {
         ImmutableList.Builder<TopicPartition> parititonsBuilder = ImmutableList.builder();
 
-        for (String topic : topics) {
-            Optional<TopicMetadata> optionalMetadata = queryTopicMetadata(topic);
+        // The topic metadata are queried in parallel if the blocking executor is enabled.
+        List<Optional<TopicMetadata>> results =
+                invokeAll(blockingExecutor, topics, this::queryTopicMetadata);
+        for (int j = 0; j < topics.size(); j++) {
+            String topic = topics.get(j);
+            Optional<TopicMetadata> optionalMetadata = results.get(j);
             if (optionalMetadata.isPresent()) {
                 TopicMetadata metadata = optionalMetadata.get();
                 int partitionSize = metadata.getPartitionSize();
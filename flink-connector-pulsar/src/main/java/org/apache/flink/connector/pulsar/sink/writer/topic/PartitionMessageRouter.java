@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.topic;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.pulsar.sink.writer.router.TopicRouter;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.MessageRouter;
+import org.apache.pulsar.client.api.TopicMetadata;
+
+/**
+ * The {@link MessageRouter} for the partitioned producers in {@link ProducerRegister}. The
+ * partition has been chosen by the {@link TopicRouter} in the sink writer, this router just returns
+ * the chosen partition to the partitioned producer. The partition is set by the {@link
+ * PartitionedMessageBuilder} before sending the message, the partitioned producer would call this
+ * router in the sending thread.
+ */
+@Internal
+final class PartitionMessageRouter implements MessageRouter {
+    private static final long serialVersionUID = 2137096612390425658L;
+
+    private int partition;
+
+    void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    @Override
+    public int choosePartition(Message<?> msg, TopicMetadata metadata) {
+        return partition;
+    }
+}
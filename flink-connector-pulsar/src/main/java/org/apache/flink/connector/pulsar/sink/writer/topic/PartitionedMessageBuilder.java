@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.topic;
+
+import org.apache.flink.annotation.Internal;
+
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.impl.ProducerBase;
+import org.apache.pulsar.client.impl.TypedMessageBuilderImpl;
+import org.apache.pulsar.client.impl.transaction.TransactionImpl;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The message builder for a partitioned producer, it tells the {@link PartitionMessageRouter}
+ * which partition should be used right before sending the message.
+ */
+@Internal
+final class PartitionedMessageBuilder<T> extends TypedMessageBuilderImpl<T> {
+    private static final long serialVersionUID = -2512843457045390286L;
+
+    private final PartitionMessageRouter router;
+    private final int partition;
+
+    PartitionedMessageBuilder(
+            ProducerBase<?> producer,
+            Schema<T> schema,
+            @Nullable TransactionImpl transaction,
+            PartitionMessageRouter router,
+            int partition) {
+        super(producer, schema, transaction);
+        this.router = router;
+        this.partition = partition;
+    }
+
+    @Override
+    public MessageId send() throws PulsarClientException {
+        router.setPartition(partition);
+        return super.send();
+    }
+
+    @Override
+    public CompletableFuture<MessageId> sendAsync() {
+        router.setPartition(partition);
+        return super.sendAsync();
+    }
+}
@@ -19,18 +19,22 @@
 package org.apache.flink.connector.pulsar.sink.writer.topic;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.connector.base.DeliveryGuarantee;
 import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
 import org.apache.flink.connector.pulsar.common.metrics.ProducerMetricsInterceptor;
 import org.apache.flink.connector.pulsar.common.schema.PulsarSchemaUtils;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
 import org.apache.flink.connector.pulsar.sink.committer.PulsarCommittable;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.metrics.Counter;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.metrics.groups.SinkWriterMetricGroup;
 import org.apache.flink.util.FlinkRuntimeException;
 
 import org.apache.pulsar.client.api.CryptoKeyReader;
 import org.apache.pulsar.client.api.MessageCrypto;
+import org.apache.pulsar.client.api.MessageRoutingMode;
 import org.apache.pulsar.client.api.Producer;
 import org.apache.pulsar.client.api.ProducerBuilder;
 import org.apache.pulsar.client.api.ProducerStats;
@@ -40,7 +44,9 @@ import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.TypedMessageBuilder;
 import org.apache.pulsar.client.api.transaction.Transaction;
 import org.apache.pulsar.client.api.transaction.TransactionCoordinatorClient;
+import org.apache.pulsar.client.api.transaction.TransactionCoordinatorClientException;
 import org.apache.pulsar.client.api.transaction.TxnID;
+import org.apache.pulsar.client.impl.PartitionedProducerImpl;
 import org.apache.pulsar.client.impl.ProducerBase;
 import org.apache.pulsar.client.impl.ProducerBuilderImpl;
 import org.apache.pulsar.client.impl.PulsarClientImpl;
@@ -53,25 +59,41 @@ import org.apache.pulsar.common.protocol.schema.SchemaHash;
 import org.apache.pulsar.common.schema.SchemaType;
 import org.apache.pulsar.shade.com.google.common.base.Strings;
 import org.apache.pulsar.shade.com.google.common.io.Closer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
-import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseClient;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_ACKS_RECEIVED;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_BYTES_SENT;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_MSGS_SENT;
+import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_PRODUCERS_CREATED;
+import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_PRODUCERS_EVICTED;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_SEND_FAILED;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.PENDING_QUEUE_SIZE;
+import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.PRODUCER_COUNT;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.PULSAR_PRODUCER_METRIC_NAME;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.SEND_BYTES_RATE;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.SEND_LATENCY_MILLIS_50_PCT;
@@ -85,9 +107,11 @@ import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.TOTAL
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.TOTAL_BYTES_SENT;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.TOTAL_MSGS_SENT;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.TOTAL_SEND_FAILED;
-import static org.apache.flink.connector.pulsar.common.utils.PulsarTransactionUtils.createTransaction;
 import static org.apache.flink.connector.pulsar.common.utils.PulsarTransactionUtils.getTcClient;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_NAME;
 import static org.apache.flink.connector.pulsar.sink.config.PulsarSinkConfigUtils.createProducerBuilder;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * All the Pulsar Producers share the same Client, but self-hold the queue for a specified topic. So
@@ -95,31 +119,94 @@ import static org.apache.flink.connector.pulsar.sink.config.PulsarSinkConfigUtil
  */
 @Internal
 public class ProducerRegister implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(ProducerRegister.class);
+
+    // The schemas may be created for every record, the cached hashes are cleared beyond this size.
+    private static final int MAX_CACHED_SCHEMA_HASHES = 1024;
 
     private static final String FAIL_TO_CREATE_TOPIC =
             "Fail to create the non-exist topic, make sure you have enable the topic auto creation in Pulsar.";
 
     private final PulsarClient pulsarClient;
     @Nullable private final TransactionCoordinatorClient coordinatorClient;
+    @Nullable private final TransactionPool transactionPool;
     private final SinkConfiguration sinkConfiguration;
     private final PulsarCrypto pulsarCrypto;
     private final SinkWriterMetricGroup metricGroup;
     private final Map<String, Schema<byte[]>> schemas;
     private final Map<String, Map<SchemaHash, Producer<?>>> producers;
-    private final Map<String, Transaction> transactions;
+    // Hashing a schema serializes its definition, so the hashes are cached by schema instances.
+    private final Map<Schema<?>, SchemaHash> schemaHashes;
+    private final Set<String> transactionTopics;
+    private final Map<String, TopicSlot> slots;
+    private final Map<String, Long> usedMillis;
+    private final Set<CompletableFuture<Void>> evictions;
+    private final long producerIdleTimeoutMillis;
+    private final int maxProducers;
+    private final boolean enableEviction;
+    private final boolean enablePartitionedProducer;
+    private final PartitionMessageRouter partitionRouter;
+    private final boolean enableDeduplication;
+    // The fixed producer name of this subtask in deduplication mode.
+    @Nullable private final String producerName;
+    // The last sequence id assigned to the messages of every topic in deduplication mode.
+    private final Map<String, Long> sequenceIds;
+    private boolean sequenceIdsRestored = false;
+    private final Counter numProducersCreated;
+    private final Counter numProducersEvicted;
+    private int producerCount = 0;
+    private long lastIdleCheckMillis = 0;
+    // The transaction is shared by all the topics written in a checkpoint.
+    @Nullable private Transaction transaction;
+    // The transaction reserved for the next checkpoint, it's recorded in the last snapshot.
+    @Nullable private Transaction reservedTransaction;
+    private long reservedMillis = 0;
 
     public ProducerRegister(
             SinkConfiguration sinkConfiguration,
             PulsarCrypto pulsarCrypto,
             SinkWriterMetricGroup metricGroup)
             throws PulsarClientException {
-        this.pulsarClient = createClient(sinkConfiguration);
+        this(sinkConfiguration, pulsarCrypto, metricGroup, 0);
+    }
+
+    /**
+     * Create a producer register for the given subtask. The subtask id is used in the producer
+     * names if {@link SinkConfiguration#isEnableDeduplication()} is enabled.
+     */
+    public ProducerRegister(
+            SinkConfiguration sinkConfiguration,
+            PulsarCrypto pulsarCrypto,
+            SinkWriterMetricGroup metricGroup,
+            int subtaskId)
+            throws PulsarClientException {
+        this.pulsarClient = acquireClient(sinkConfiguration);
         this.sinkConfiguration = sinkConfiguration;
         this.pulsarCrypto = pulsarCrypto;
         this.metricGroup = metricGroup;
         this.schemas = new HashMap<>();
         this.producers = new HashMap<>();
-        this.transactions = new HashMap<>();
+        this.schemaHashes = new IdentityHashMap<>();
+        this.transactionTopics = new LinkedHashSet<>();
+        this.slots = new HashMap<>();
+        // The topics are sorted in access order for evicting the least recently used producers.
+        this.usedMillis = new LinkedHashMap<>(16, 0.75f, true);
+        this.evictions = ConcurrentHashMap.newKeySet();
+        this.producerIdleTimeoutMillis = sinkConfiguration.getProducerIdleTimeoutMillis();
+        this.maxProducers = sinkConfiguration.getMaxProducers();
+        this.enableEviction = producerIdleTimeoutMillis > 0 || maxProducers > 0;
+        this.enablePartitionedProducer = sinkConfiguration.isEnablePartitionedProducer();
+        this.partitionRouter = new PartitionMessageRouter();
+        this.enableDeduplication = sinkConfiguration.isEnableDeduplication();
+        this.producerName =
+                enableDeduplication
+                        ? String.format(sinkConfiguration.get(PULSAR_PRODUCER_NAME), subtaskId)
+                        : null;
+        this.sequenceIds = new HashMap<>();
+
+        metricGroup.gauge(PRODUCER_COUNT, () -> producerCount);
+        this.numProducersCreated = metricGroup.counter(NUM_PRODUCERS_CREATED);
+        this.numProducersEvicted = metricGroup.counter(NUM_PRODUCERS_EVICTED);
 
         if (sinkConfiguration.isEnableMetrics()) {
             metricGroup.setCurrentSendTimeGauge(this::currentSendTimeGauge);
@@ -128,8 +215,14 @@ public class ProducerRegister implements Closeable {
         // Check if we have enabled the transaction in the exactly-once delivery guarantee.
         if (sinkConfiguration.getDeliveryGuarantee() == DeliveryGuarantee.EXACTLY_ONCE) {
             this.coordinatorClient = getTcClient(pulsarClient);
+            this.transactionPool =
+                    new TransactionPool(
+                            pulsarClient,
+                            sinkConfiguration.getTransactionTimeoutMillis(),
+                            sinkConfiguration.getTransactionPoolSize());
         } else {
             this.coordinatorClient = null;
+            this.transactionPool = null;
         }
     }
 
@@ -141,97 +234,409 @@ public class ProducerRegister implements Closeable {
      *
      * <p>Pulsar's Producer doesn't have {@code producer.newMessage(schema, transaction)} method. We
      * have to manually create it.
+     *
+     * <p>The resolved producer and transaction are cached in a {@link TopicSlot} for the last used
+     * schema instance. So the records with the same schema wouldn't hash the schema again.
+     *
+     * <p>The partitions of a topic would share the partitioned producer of the topic if {@link
+     * SinkConfiguration#isEnablePartitionedProducer()} is enabled. The message is sent to the given
+     * partition by a {@link PartitionedMessageBuilder}.
      */
     @SuppressWarnings("unchecked")
     public <T> TypedMessageBuilder<T> createMessageBuilder(String topic, @Nullable Schema<?> schema)
             throws PulsarClientException {
-        if (schema == null || schema.getSchemaInfo().getType() == SchemaType.BYTES) {
-            schema = getBytesSchema(topic);
+        TopicName partition = sharedPartition(topic);
+        if (partition != null) {
+            TopicSlot slot = resolveSlot(partition.getPartitionedTopicName(), schema);
+            int index = partition.getPartitionIndex();
+            // The partitioned producer may not find the newly added partitions yet. We would use a
+            // dedicated producer for the partition in this case.
+            if (slot.producer instanceof PartitionedProducerImpl
+                    && index < ((PartitionedProducerImpl<?>) slot.producer).getNumOfPartitions()) {
+                return (TypedMessageBuilder<T>)
+                        new PartitionedMessageBuilder<>(
+                                slot.producer,
+                                slot.resolvedSchema,
+                                slot.transaction,
+                                partitionRouter,
+                                index);
+            }
         }
-        ProducerBase<?> producer = (ProducerBase<?>) getOrCreateProducer(topic, schema);
-        TransactionImpl transaction = null;
 
-        if (sinkConfiguration.getDeliveryGuarantee() == DeliveryGuarantee.EXACTLY_ONCE) {
-            transaction = (TransactionImpl) getOrCreateTransaction(topic);
+        TopicSlot slot = resolveSlot(topic, schema);
+        TypedMessageBuilder<T> builder =
+                (TypedMessageBuilder<T>)
+                        new TypedMessageBuilderImpl<>(
+                                slot.producer, slot.resolvedSchema, slot.transaction);
+        if (enableDeduplication) {
+            builder.sequenceId(nextSequenceId(topic, slot.producer));
+        }
+        return builder;
+    }
+
+    /**
+     * Create a bytes message builder for the serialized message. The value has been encoded by the
+     * message schema.
+     */
+    public TypedMessageBuilder<byte[]> createMessageBuilder(PulsarRequestEntry entry)
+            throws PulsarClientException {
+        TypedMessageBuilder<byte[]> builder = createMessageBuilder(entry.getTopic(), Schema.BYTES);
+
+        byte[] orderingKey = entry.getOrderingKey();
+        if (orderingKey != null && orderingKey.length > 0) {
+            builder.orderingKey(orderingKey);
+        }
+
+        String key = entry.getKey();
+        if (!Strings.isNullOrEmpty(key)) {
+            builder.key(key);
+        }
+
+        if (entry.isBase64EncodedKey()) {
+            ((TypedMessageBuilderImpl<?>) builder)
+                    .getMetadataBuilder()
+                    .setPartitionKeyB64Encoded(true);
         }
 
-        return (TypedMessageBuilder<T>)
-                new TypedMessageBuilderImpl<>(producer, schema, transaction);
+        if (entry.getEventTime() > 0) {
+            builder.eventTime(entry.getEventTime());
+        }
+
+        if (entry.getDeliverAt() > 0) {
+            builder.deliverAt(entry.getDeliverAt());
+        }
+
+        builder.value(entry.getValue());
+
+        Map<String, String> properties = entry.getProperties();
+        if (!properties.isEmpty()) {
+            builder.properties(properties);
+        }
+
+        Long sequenceId = entry.getSequenceId();
+        if (sequenceId != null) {
+            builder.sequenceId(sequenceId);
+        }
+
+        List<String> clusters = entry.getReplicationClusters();
+        if (!clusters.isEmpty()) {
+            builder.replicationClusters(clusters);
+        }
+
+        if (entry.isDisableReplication()) {
+            builder.disableReplication();
+        }
+
+        return builder;
+    }
+
+    /**
+     * Check if the producer for the given topic and schema has been created. The {@link
+     * #createMessageBuilder(String, Schema)} wouldn't block on creating producer if it's ready.
+     */
+    public boolean isProducerReady(String topic, @Nullable Schema<?> schema) {
+        topic = producerTopic(topic);
+        TopicSlot slot = slots.get(topic);
+        if (slot != null && slot.producer != null && slot.schema == schema) {
+            return true;
+        }
+
+        Map<SchemaHash, Producer<?>> set = producers.get(topic);
+        return set != null && set.containsKey(hashSchema(resolveSchema(topic, schema)));
+    }
+
+    /**
+     * Create the producer for the given topic and schema without blocking the caller. The returned
+     * future would be completed in the given executor after registering the producer. The executor
+     * should be the thread which calls the other methods of this register.
+     */
+    public CompletableFuture<Void> createProducerAsync(
+            String topic, @Nullable Schema<?> schema, Executor executor) {
+        String producerTopic = producerTopic(topic);
+        Schema<?> resolved = resolveSchema(producerTopic, schema);
+        SchemaHash hash = hashSchema(resolved);
+
+        return newProducerAsync(producerTopic, resolved)
+                .thenAcceptAsync(
+                        producer -> registerProducer(producerTopic, hash, producer), executor);
     }
 
     /**
-     * Convert the transactions into a committable list for Pulsar Committer. The transactions would
-     * be removed until Flink triggered a checkpoint.
+     * Convert the transaction into a committable list for Pulsar Committer. All the topics written
+     * in this checkpoint share the same transaction, so there is at most one committable. The
+     * transaction would be removed until Flink triggered a checkpoint.
      */
     public List<PulsarCommittable> prepareCommit() {
-        List<PulsarCommittable> committables = new ArrayList<>(transactions.size());
-        for (Map.Entry<String, Transaction> entry : transactions.entrySet()) {
-            String topic = entry.getKey();
-            Transaction transaction = entry.getValue();
-            TxnID txnID = transaction.getTxnID();
+        if (transaction == null) {
+            return Collections.emptyList();
+        }
 
-            committables.add(new PulsarCommittable(txnID, topic));
+        TxnID txnID = transaction.getTxnID();
+        List<String> topics = new ArrayList<>(transactionTopics);
+        transaction = null;
+        transactionTopics.clear();
+        resetSlotTransactions();
+
+        return Collections.singletonList(new PulsarCommittable(txnID, topics));
+    }
+
+    /**
+     * Return the transactions which have been opened but don't belong to any committable, they
+     * should be aborted after restoring from this checkpoint. The transaction of the next
+     * checkpoint is reserved here, so it's always recorded no matter whether it's taken from the
+     * pool or created directly.
+     */
+    public List<TxnID> snapshotTransactions() {
+        if (transactionPool == null) {
+            return Collections.emptyList();
         }
-        transactions.clear();
 
-        return committables;
+        List<TxnID> txnIDs = new ArrayList<>();
+        if (transaction != null) {
+            // The checkpoint is taken without preparing the commit, keep the current transaction.
+            txnIDs.add(transaction.getTxnID());
+        } else {
+            reserveTransaction();
+            txnIDs.add(checkNotNull(reservedTransaction).getTxnID());
+        }
+        txnIDs.addAll(transactionPool.getPooledTransactions());
+
+        return txnIDs;
+    }
+
+    /**
+     * Abort the lingering transactions which are opened before restoring. The transactions which
+     * have been committed, aborted or timed out would be ignored.
+     */
+    public void abortLingeringTransactions(Collection<TxnID> txnIDs) {
+        if (txnIDs.isEmpty()) {
+            return;
+        }
+        if (coordinatorClient == null) {
+            LOG.warn(
+                    "Couldn't abort the lingering transactions {} without enabling {}.",
+                    txnIDs,
+                    DeliveryGuarantee.EXACTLY_ONCE);
+            return;
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(txnIDs.size());
+        for (TxnID txnID : txnIDs) {
+            LOG.info("Abort the lingering transaction {} after restoring.", txnID);
+            futures.add(
+                    coordinatorClient
+                            .abortAsync(txnID)
+                            .exceptionally(
+                                    e -> {
+                                        LOG.debug("Couldn't abort transaction {}", txnID, e);
+                                        return null;
+                                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    /**
+     * Return the last sequence ids of the written topics in deduplication mode. The messages
+     * resent after restoring would be assigned with the same sequence ids, so they would be dropped
+     * by the brokers.
+     */
+    public Map<String, Long> snapshotSequenceIds() {
+        return new HashMap<>(sequenceIds);
+    }
+
+    /** The fixed producer name of this subtask, it's null if the deduplication isn't enabled. */
+    @Nullable
+    public String getProducerName() {
+        return producerName;
+    }
+
+    /**
+     * Restore the sequence ids from the checkpoint. The topics which aren't in the checkpoint
+     * would start from zero instead of the last sequence id on the brokers, because they may have
+     * been written after the checkpoint.
+     *
+     * <p>The sequence ids are tracked by the brokers per producer name. The sequence ids of another
+     * producer name can't be restored, this happens if the parallelism has been changed.
+     */
+    public void restoreSequenceIds(@Nullable String restoredName, Map<String, Long> restored) {
+        checkState(
+                restoredName == null || restoredName.equals(producerName),
+                "The sequence ids of the producer %s can't be restored by the producer %s."
+                        + " The parallelism of the sink shouldn't be changed in deduplication.",
+                restoredName,
+                producerName);
+        for (Map.Entry<String, Long> entry : restored.entrySet()) {
+            sequenceIds.merge(entry.getKey(), entry.getValue(), Math::max);
+        }
+        this.sequenceIdsRestored = true;
     }
 
     /**
      * Flush all the messages buffered in the client and wait until all messages have been
-     * successfully persisted.
+     * successfully persisted. All the producers are flushed in parallel.
      */
     public void flush() throws IOException {
+        try {
+            flushAsync().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw PulsarClientException.unwrap(e);
+        }
+    }
+
+    /**
+     * Send all the messages buffered in the client without waiting. The returned future would be
+     * completed once all the messages have been persisted.
+     */
+    public CompletableFuture<Void> flushAsync() {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
         for (Map<SchemaHash, Producer<?>> set : producers.values()) {
             for (Producer<?> producer : set.values()) {
-                producer.flush();
+                futures.add(producer.flushAsync());
+            }
+        }
+        // The evicted producers would be completed after flushing their pending messages.
+        futures.addAll(evictions);
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Flush and close the producers of the idle topics and the least recently used topics which
+     * exceed the {@link SinkConfiguration#getMaxProducers()}. The producers would be recreated when
+     * the topics are written again.
+     *
+     * <p>The caller should make sure that no message builders created by this register are waiting
+     * for sending, because the evicted producers would reject them.
+     */
+    public void evictProducers() {
+        long now = producerIdleTimeoutMillis > 0 ? System.currentTimeMillis() : 0;
+        // Check the idle producers at most once in the timeout.
+        boolean checkIdle =
+                producerIdleTimeoutMillis > 0
+                        && now - lastIdleCheckMillis >= producerIdleTimeoutMillis;
+        boolean exceeded = maxProducers > 0 && producerCount > maxProducers;
+        if (!checkIdle && !exceeded) {
+            return;
+        }
+
+        List<String> evicted = new ArrayList<>();
+        if (checkIdle) {
+            lastIdleCheckMillis = now;
+            for (Map.Entry<String, Long> entry : usedMillis.entrySet()) {
+                if (now - entry.getValue() < producerIdleTimeoutMillis) {
+                    // The topics after this are used more recently.
+                    break;
+                }
+                evicted.add(entry.getKey());
             }
         }
+
+        int remaining = producerCount;
+        for (String topic : evicted) {
+            remaining -= producerSize(topic);
+        }
+        if (maxProducers > 0 && remaining > maxProducers) {
+            // Keep the most recently used topic, the caller is writing to it.
+            Iterator<String> iterator = usedMillis.keySet().iterator();
+            for (int i = 0; i < usedMillis.size() - 1 && remaining > maxProducers; i++) {
+                String topic = iterator.next();
+                if (!evicted.contains(topic)) {
+                    evicted.add(topic);
+                    remaining -= producerSize(topic);
+                }
+            }
+        }
+
+        for (String topic : evicted) {
+            evictProducers(topic);
+        }
+    }
+
+    @VisibleForTesting
+    int getProducerCount() {
+        return producerCount;
     }
 
     @Override
     public void close() throws IOException {
+        // The closer would close the registered resources in LIFO order.
         try (Closer closer = Closer.create()) {
-            // Flush all the pending messages to Pulsar. This wouldn't cause exception.
-            closer.register(this::flush);
-
-            // Abort all the existed transactions.
-            closer.register(this::abortTransactions);
+            // Release the client after all the producers have been closed.
+            // The client may be shared with other components, so it may not be closed here.
+            closer.register(() -> releaseClient(pulsarClient));
 
             // Remove all the producers.
             closer.register(producers::clear);
+            closer.register(slots::clear);
+            closer.register(usedMillis::clear);
+
+            // Wait for the evicted producers.
+            closer.register(this::awaitEvictions);
 
-            // This method would close all the producers.
             // We would block until all the producers have been successfully closed.
-            closer.register(pulsarClient);
+            for (Map<SchemaHash, Producer<?>> set : producers.values()) {
+                for (Producer<?> producer : set.values()) {
+                    closer.register(producer);
+                }
+            }
+
+            // Abort all the existed transactions.
+            closer.register(this::abortTransactions);
+            if (transactionPool != null) {
+                closer.register(transactionPool);
+            }
+
+            // Flush all the pending messages to Pulsar. This wouldn't cause exception.
+            closer.register(this::flush);
         }
     }
 
+    /** Resolve the producer and transaction of the given topic and schema. */
+    private TopicSlot resolveSlot(String topic, @Nullable Schema<?> schema)
+            throws PulsarClientException {
+        TopicSlot slot = slots.computeIfAbsent(topic, t -> new TopicSlot());
+        markUsed(topic);
+        if (slot.producer == null || slot.schema != schema) {
+            Schema<?> resolved = resolveSchema(topic, schema);
+            slot.producer = (ProducerBase<?>) getOrCreateProducer(topic, resolved);
+            slot.resolvedSchema = resolved;
+            slot.schema = schema;
+        }
+
+        if (slot.transaction == null
+                && sinkConfiguration.getDeliveryGuarantee() == DeliveryGuarantee.EXACTLY_ONCE) {
+            slot.transaction = (TransactionImpl) getOrCreateTransaction(topic);
+        }
+
+        return slot;
+    }
+
     /** Create or return the cached topic-related producer. */
     @SuppressWarnings("unchecked")
     private <T> Producer<T> getOrCreateProducer(String topic, Schema<T> schema)
             throws PulsarClientException {
         Map<SchemaHash, Producer<?>> set = producers.computeIfAbsent(topic, t -> new HashMap<>());
-        SchemaHash hash = PulsarSchemaUtils.hash(schema);
+        SchemaHash hash = hashSchema(schema);
         if (set.containsKey(hash)) {
             return (Producer<T>) set.get(hash);
         }
 
         try {
-            // Use this method for auto creating the non-exist topics. Otherwise, it will throw an
-            // exception.
-            TopicName topicName = TopicName.get(topic);
-            ((PulsarClientImpl) pulsarClient)
-                    .getLookup()
-                    .getPartitionedTopicMetadata(topicName)
-                    .get();
+            Producer<T> producer = newProducerAsync(topic, schema).get();
+            registerProducer(topic, hash, producer);
+            return producer;
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new FlinkRuntimeException(FAIL_TO_CREATE_TOPIC, e);
         } catch (ExecutionException e) {
-            throw new FlinkRuntimeException(FAIL_TO_CREATE_TOPIC, e);
+            throw PulsarClientException.unwrap(e);
         }
+    }
 
+    private <T> CompletableFuture<Producer<T>> newProducerAsync(String topic, Schema<T> schema) {
         ProducerBuilder<T> builder = createProducerBuilder(pulsarClient, schema, sinkConfiguration);
 
         // Enable end-to-end encryption if provided.
@@ -239,16 +644,134 @@ public class ProducerRegister implements Closeable {
 
         // Set the required topic name.
         builder.topic(topic);
+        if (enableDeduplication) {
+            // The brokers deduplicate the messages by the producer name, it should be fixed.
+            builder.producerName(checkNotNull(producerName));
+        }
         // Set the sending counter for metrics.
         builder.intercept(new ProducerMetricsInterceptor(metricGroup));
 
-        Producer<T> producer = builder.create();
+        TopicName topicName = TopicName.get(topic);
+        if (enablePartitionedProducer && !topicName.isPartitioned()) {
+            // The partition is chosen in the sink writer, the router just passes it to producer.
+            // The partitions should be updated as the topic metadata in the writer.
+            long intervalSeconds =
+                    TimeUnit.MILLISECONDS.toSeconds(
+                            sinkConfiguration.getTopicMetadataRefreshInterval());
+            builder.messageRoutingMode(MessageRoutingMode.CustomPartition)
+                    .messageRouter(partitionRouter)
+                    .autoUpdatePartitions(true)
+                    .autoUpdatePartitionsInterval(
+                            (int) Math.max(1, intervalSeconds), TimeUnit.SECONDS)
+                    .enableLazyStartPartitionedProducers(true);
+        }
+
+        // Use this method for auto creating the non-exist topics. Otherwise, it will throw an
+        // exception.
+        return ((PulsarClientImpl) pulsarClient)
+                .getLookup()
+                .getPartitionedTopicMetadata(topicName)
+                .handle(
+                        (metadata, e) -> {
+                            if (e != null) {
+                                throw new FlinkRuntimeException(FAIL_TO_CREATE_TOPIC, e);
+                            }
+                            return metadata;
+                        })
+                .thenCompose(metadata -> builder.createAsync());
+    }
+
+    /** Register the created producer, the duplicated producer would be closed. */
+    private void registerProducer(String topic, SchemaHash hash, Producer<?> producer) {
+        Map<SchemaHash, Producer<?>> set = producers.computeIfAbsent(topic, t -> new HashMap<>());
+        if (set.containsKey(hash)) {
+            producer.closeAsync();
+            return;
+        }
 
         // Expose the stats for calculating and monitoring.
         exposeProducerMetrics(producer);
         set.put(hash, producer);
+        producerCount++;
+        numProducersCreated.inc();
+        // The producers created without writing should also be evicted if they are never used.
+        markUsed(topic);
+    }
+
+    /** Record the last used time of the producers of the given topic for evicting them. */
+    private void markUsed(String topic) {
+        if (enableEviction) {
+            usedMillis.put(topic, producerIdleTimeoutMillis > 0 ? System.currentTimeMillis() : 0L);
+        }
+    }
+
+    /**
+     * Return the topic name if it's a partition and the partitions of its topic share a partitioned
+     * producer.
+     */
+    @Nullable
+    private TopicName sharedPartition(String topic) {
+        if (!enablePartitionedProducer) {
+            return null;
+        }
+        TopicName topicName = TopicName.get(topic);
+        return topicName.isPartitioned() ? topicName : null;
+    }
 
-        return producer;
+    /** The topic which the producer of the given topic is created on. */
+    private String producerTopic(String topic) {
+        TopicName partition = sharedPartition(topic);
+        return partition == null ? topic : partition.getPartitionedTopicName();
+    }
+
+    /**
+     * Generate the sequence id for the next message of the given topic. The writer which isn't
+     * restored from the checkpoint would continue the last sequence id on the brokers.
+     */
+    private long nextSequenceId(String topic, Producer<?> producer) {
+        Long last = sequenceIds.get(topic);
+        if (last == null) {
+            last = sequenceIdsRestored ? -1L : producer.getLastSequenceId();
+        }
+        long sequenceId = last + 1;
+        sequenceIds.put(topic, sequenceId);
+        return sequenceId;
+    }
+
+    private void awaitEvictions() {
+        CompletableFuture.allOf(evictions.toArray(new CompletableFuture[0])).join();
+    }
+
+    private int producerSize(String topic) {
+        Map<SchemaHash, Producer<?>> set = producers.get(topic);
+        return set == null ? 0 : set.size();
+    }
+
+    /** Flush and close all the producers of the given topic in background. */
+    private void evictProducers(String topic) {
+        slots.remove(topic);
+        usedMillis.remove(topic);
+        Map<SchemaHash, Producer<?>> set = producers.remove(topic);
+        if (set == null) {
+            return;
+        }
+
+        for (Producer<?> producer : set.values()) {
+            LOG.debug("Evict the producer {} for topic {}", producer.getProducerName(), topic);
+            producerCount--;
+            numProducersEvicted.inc();
+
+            CompletableFuture<Void> eviction =
+                    producer.flushAsync()
+                            .thenCompose(v -> producer.closeAsync())
+                            .exceptionally(
+                                    e -> {
+                                        LOG.warn("Failed to close the evicted producer.", e);
+                                        return null;
+                                    });
+            evictions.add(eviction);
+            eviction.whenComplete((v, e) -> evictions.remove(eviction));
+        }
     }
 
     private void configPulsarCrypto(ProducerBuilder<?> builder) {
@@ -279,20 +802,85 @@ public class ProducerRegister implements Closeable {
     }
 
     /**
-     * Get the cached topic-related transaction. Or create a new transaction after checkpointing.
+     * Get the transaction of the current checkpoint. Or use the transaction reserved in the last
+     * snapshot after checkpointing. A new transaction is acquired from the pool only when there is
+     * no snapshot yet. A Pulsar transaction can span multiple topics, so it's shared by all the
+     * topics.
      */
     private Transaction getOrCreateTransaction(String topic) throws PulsarClientException {
-        if (transactions.containsKey(topic)) {
-            return transactions.get(topic);
+        if (transaction == null) {
+            if (reservedTransaction != null) {
+                this.transaction = reservedTransaction;
+                this.reservedTransaction = null;
+            } else {
+                this.transaction = checkNotNull(transactionPool).acquire();
+            }
         }
-
-        long timeoutMillis = sinkConfiguration.getTransactionTimeoutMillis();
-        Transaction transaction = createTransaction(pulsarClient, timeoutMillis);
-        transactions.put(topic, transaction);
+        transactionTopics.add(topic);
 
         return transaction;
     }
 
+    /**
+     * Reserve the transaction of the next checkpoint. The stale reserved transaction is replaced,
+     * it's safe to abort it since it has never been used and the new one is in this snapshot.
+     */
+    private void reserveTransaction() {
+        long now = System.currentTimeMillis();
+        if (reservedTransaction != null
+                && now - reservedMillis <= sinkConfiguration.getTransactionTimeoutMillis() / 2) {
+            return;
+        }
+        if (reservedTransaction != null) {
+            TxnID txnID = reservedTransaction.getTxnID();
+            LOG.debug("Abort the stale reserved transaction {}", txnID);
+            reservedTransaction
+                    .abort()
+                    .exceptionally(
+                            e -> {
+                                LOG.warn("Failed to abort the reserved transaction {}", txnID, e);
+                                return null;
+                            });
+            this.reservedTransaction = null;
+        }
+
+        try {
+            this.reservedTransaction = checkNotNull(transactionPool).acquire();
+            this.reservedMillis = now;
+        } catch (PulsarClientException e) {
+            throw new FlinkRuntimeException("Failed to open the transaction.", e);
+        }
+    }
+
+    /** The transactions have been committed or aborted, they shouldn't be used in slots. */
+    private void resetSlotTransactions() {
+        for (TopicSlot slot : slots.values()) {
+            slot.transaction = null;
+        }
+    }
+
+    /** Hash the schema by {@link PulsarSchemaUtils#hash(Schema)}, the hash is cached. */
+    private SchemaHash hashSchema(Schema<?> schema) {
+        SchemaHash hash = schemaHashes.get(schema);
+        if (hash == null) {
+            if (schemaHashes.size() >= MAX_CACHED_SCHEMA_HASHES) {
+                // Don't hold the schemas which are created for every record.
+                schemaHashes.clear();
+            }
+            hash = PulsarSchemaUtils.hash(schema);
+            schemaHashes.put(schema, hash);
+        }
+        return hash;
+    }
+
+    /** Use the bytes schema if the message has been serialized. */
+    private Schema<?> resolveSchema(String topic, @Nullable Schema<?> schema) {
+        if (schema == null || schema.getSchemaInfo().getType() == SchemaType.BYTES) {
+            return getBytesSchema(topic);
+        }
+        return schema;
+    }
+
     /**
      * {@link Schema#AUTO_PRODUCE_BYTES} is used for extra validation. But it should be initialized
      * with extra info in the Pulsar client. So it can't be reused and will be cached here.
@@ -305,20 +893,31 @@ public class ProducerRegister implements Closeable {
         }
     }
 
-    /** Abort the existed transactions. This method would be used when closing PulsarWriter. */
+    /**
+     * Abort the existed and the reserved transactions. This method would be used when closing
+     * PulsarWriter.
+     */
     private void abortTransactions() {
-        if (coordinatorClient == null || transactions.isEmpty()) {
+        if (coordinatorClient == null) {
             return;
         }
 
-        try (Closer closer = Closer.create()) {
-            for (Transaction transaction : transactions.values()) {
-                TxnID txnID = transaction.getTxnID();
-                closer.register(() -> coordinatorClient.abort(txnID));
+        List<TxnID> txnIDs = new ArrayList<>(2);
+        if (transaction != null) {
+            txnIDs.add(transaction.getTxnID());
+            transaction = null;
+            transactionTopics.clear();
+            resetSlotTransactions();
+        }
+        if (reservedTransaction != null) {
+            txnIDs.add(reservedTransaction.getTxnID());
+            reservedTransaction = null;
+        }
+        try {
+            for (TxnID txnID : txnIDs) {
+                coordinatorClient.abort(txnID);
             }
-
-            transactions.clear();
-        } catch (IOException e) {
+        } catch (TransactionCoordinatorClientException e) {
             throw new FlinkRuntimeException(e);
         }
     }
@@ -336,7 +935,9 @@ public class ProducerRegister implements Closeable {
     }
 
     private void exposeProducerMetrics(Producer<?> producer) {
-        if (sinkConfiguration.isEnableMetrics()) {
+        // The metric groups couldn't be removed, the recreated producers of the evicted topics
+        // would register new groups and the closed producers would be leaked by their gauges.
+        if (sinkConfiguration.isEnableMetrics() && !enableEviction) {
             String producerIdentity = producer.getProducerName();
             if (Strings.isNullOrEmpty(producerIdentity)) {
                 // Fallback to use the topic name.
@@ -369,4 +970,12 @@ public class ProducerRegister implements Closeable {
             group.gauge(PENDING_QUEUE_SIZE, stats::getPendingQueueSize);
         }
     }
+
+    /** The resolved producer and transaction of a topic for the last used schema instance. */
+    private static final class TopicSlot {
+        @Nullable private Schema<?> schema;
+        private Schema<?> resolvedSchema;
+        private ProducerBase<?> producer;
+        @Nullable private TransactionImpl transaction;
+    }
 }
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.topic;
+
+import org.apache.flink.annotation.Internal;
+
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.transaction.Transaction;
+import org.apache.pulsar.client.api.transaction.TxnID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.connector.pulsar.common.utils.PulsarTransactionUtils.createTransaction;
+
+/**
+ * A pool of the transactions which are opened in background. The sink writer could get a
+ * transaction from this pool without waiting for the transaction coordinator. The pool would open
+ * a new transaction once a transaction has been acquired.
+ *
+ * <p>The transactions would be timed out by the coordinator even if they are not used. A pooled
+ * transaction which has been opened for more than half of the timeout would be aborted instead of
+ * being used. This class isn't thread safe, it should be used in the sink writer thread.
+ */
+@Internal
+class TransactionPool implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionPool.class);
+
+    private final PulsarClient pulsarClient;
+    private final long timeoutMillis;
+    private final int size;
+    private final Deque<PooledTransaction> transactions;
+
+    TransactionPool(PulsarClient pulsarClient, long timeoutMillis, int size) {
+        this.pulsarClient = pulsarClient;
+        this.timeoutMillis = timeoutMillis;
+        this.size = size;
+        this.transactions = new ArrayDeque<>(size);
+
+        fill();
+    }
+
+    /**
+     * Get an opened transaction from the pool. A new transaction would be created in blocking if
+     * there is no available transaction in the pool.
+     */
+    Transaction acquire() throws PulsarClientException {
+        try {
+            // Every pooled transaction is checked at most once, the pool is refilled after this.
+            for (int i = 0; i < size && !transactions.isEmpty(); i++) {
+                PooledTransaction pooled = transactions.poll();
+                Transaction transaction = pooled.get();
+                if (transaction == null) {
+                    continue;
+                }
+                if (System.currentTimeMillis() - pooled.openedMillis > timeoutMillis / 2) {
+                    LOG.debug("Abort the stale pooled transaction {}", transaction.getTxnID());
+                    abortQuietly(transaction);
+                    continue;
+                }
+
+                return transaction;
+            }
+
+            return createTransaction(pulsarClient, timeoutMillis);
+        } finally {
+            fill();
+        }
+    }
+
+    /**
+     * Return the ids of the pooled transactions. This method would wait for the transactions which
+     * are being opened, the transactions failed to be opened are excluded.
+     */
+    List<TxnID> getPooledTransactions() {
+        List<TxnID> txnIDs = new ArrayList<>(transactions.size());
+        for (PooledTransaction pooled : transactions) {
+            Transaction transaction = pooled.get();
+            if (transaction != null) {
+                txnIDs.add(transaction.getTxnID());
+            }
+        }
+        return txnIDs;
+    }
+
+    /** Abort all the pooled transactions, they are not used by the sink writer. */
+    @Override
+    public void close() {
+        List<CompletableFuture<?>> futures = new ArrayList<>(transactions.size());
+        for (PooledTransaction pooled : transactions) {
+            futures.add(
+                    pooled.future
+                            .thenCompose(Transaction::abort)
+                            .exceptionally(
+                                    e -> {
+                                        LOG.warn("Failed to abort the pooled transaction.", e);
+                                        return null;
+                                    }));
+        }
+        transactions.clear();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void fill() {
+        while (transactions.size() < size) {
+            CompletableFuture<Transaction> future =
+                    pulsarClient
+                            .newTransaction()
+                            .withTransactionTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                            .build();
+            transactions.add(new PooledTransaction(future, System.currentTimeMillis()));
+        }
+    }
+
+    private static void abortQuietly(Transaction transaction) {
+        transaction
+                .abort()
+                .exceptionally(
+                        e -> {
+                            LOG.warn("Failed to abort the stale pooled transaction.", e);
+                            return null;
+                        });
+    }
+
+    /** The transaction which is being opened or has been opened. */
+    private static final class PooledTransaction {
+
+        private final CompletableFuture<Transaction> future;
+        private final long openedMillis;
+
+        private PooledTransaction(CompletableFuture<Transaction> future, long openedMillis) {
+            this.future = future;
+            this.openedMillis = openedMillis;
+        }
+
+        /** Wait for the opened transaction, return null if it failed to be opened. */
+        @Nullable
+        private Transaction get() {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                LOG.warn("Failed to open the pooled transaction.", e);
+                return null;
+            }
+        }
+    }
+}
@@ -160,6 +160,58 @@ public final class PulsarSourceOptions {
                                             code("pulsar.source.maxFetchTime"))
                                     .build());
 
+    public static final ConfigOption<Double> PULSAR_MAX_FETCH_RECORDS_PER_SECOND =
+            ConfigOptions.key(SOURCE_CONFIG_PREFIX + "maxFetchRecordsPerSecond")
+                    .doubleType()
+                    .noDefaultValue()
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of records per second that a split reader could fetch from a topic partition.")
+                                    .text(
+                                            " The split reader would stop fetching instead of dropping the messages when it reaches this limit.")
+                                    .text(" The rate is unlimited if this option isn't set.")
+                                    .build());
+
+    public static final ConfigOption<Long> PULSAR_MAX_FETCH_BYTES_PER_SECOND =
+            ConfigOptions.key(SOURCE_CONFIG_PREFIX + "maxFetchBytesPerSecond")
+                    .longType()
+                    .noDefaultValue()
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The maximum number of payload bytes per second that a split reader could fetch from a topic partition.")
+                                    .text(
+                                            " The split reader would stop fetching instead of dropping the messages when it reaches this limit.")
+                                    .text(" The rate is unlimited if this option isn't set.")
+                                    .build());
+
+    public static final ConfigOption<Map<String, String>> PULSAR_TOPIC_MAX_FETCH_RECORDS_PER_SECOND =
+            ConfigOptions.key(SOURCE_CONFIG_PREFIX + "topicMaxFetchRecordsPerSecond")
+                    .mapType()
+                    .defaultValue(emptyMap())
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The per topic override of %s, the key is the topic or partition name and the value is the rate.",
+                                            code("pulsar.source.maxFetchRecordsPerSecond"))
+                                    .text(
+                                            " The partition name would be matched before the topic name.")
+                                    .build());
+
+    public static final ConfigOption<Map<String, String>> PULSAR_TOPIC_MAX_FETCH_BYTES_PER_SECOND =
+            ConfigOptions.key(SOURCE_CONFIG_PREFIX + "topicMaxFetchBytesPerSecond")
+                    .mapType()
+                    .defaultValue(emptyMap())
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The per topic override of %s, the key is the topic or partition name and the value is the rate.",
+                                            code("pulsar.source.maxFetchBytesPerSecond"))
+                                    .text(
+                                            " The partition name would be matched before the topic name.")
+                                    .build());
+
     public static final ConfigOption<CursorVerification> PULSAR_VERIFY_INITIAL_OFFSETS =
             ConfigOptions.key(SOURCE_CONFIG_PREFIX + "verifyInitialOffsets")
                     .enumType(CursorVerification.class)
@@ -24,14 +24,19 @@ import org.apache.flink.connector.base.source.reader.RecordsWithSplitIds;
 import org.apache.flink.connector.pulsar.common.config.PulsarConfiguration;
 import org.apache.flink.connector.pulsar.source.enumerator.cursor.CursorPosition;
 import org.apache.flink.connector.pulsar.source.enumerator.cursor.StartCursor;
+import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
 
 import org.apache.pulsar.client.api.ConsumerBuilder;
 import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.SubscriptionMode;
 import org.apache.pulsar.client.api.SubscriptionType;
+import org.apache.pulsar.common.naming.TopicName;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 
 import static org.apache.flink.connector.base.source.reader.SourceReaderOptions.ELEMENT_QUEUE_CAPACITY;
 import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_STATS_INTERVAL_SECONDS;
@@ -40,13 +45,17 @@ import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSA
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_ENABLE_AUTO_ACKNOWLEDGE_MESSAGE;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_ENABLE_SOURCE_METRICS;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_FETCH_ONE_MESSAGE_TIME;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_BYTES_PER_SECOND;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_RECORDS;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_RECORDS_PER_SECOND;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_TIME;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_PARTITION_DISCOVERY_INTERVAL_MS;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_READ_SCHEMA_EVOLUTION;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_RESET_SUBSCRIPTION_CURSOR;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_SUBSCRIPTION_MODE;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_SUBSCRIPTION_NAME;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_TOPIC_MAX_FETCH_BYTES_PER_SECOND;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_TOPIC_MAX_FETCH_RECORDS_PER_SECOND;
 import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_VERIFY_INITIAL_OFFSETS;
 
 /** The configuration class for pulsar source. */
@@ -61,6 +70,10 @@ public class SourceConfiguration extends PulsarConfiguration {
     private final int fetchOneMessageTime;
     private final Duration maxFetchTime;
     private final int maxFetchRecords;
+    private final double maxFetchRecordsPerSecond;
+    private final long maxFetchBytesPerSecond;
+    private final Map<String, Double> topicMaxFetchRecordsPerSecond;
+    private final Map<String, Long> topicMaxFetchBytesPerSecond;
     private final CursorVerification verifyInitialOffsets;
     private final String subscriptionName;
     private final SubscriptionMode subscriptionMode;
@@ -79,6 +92,13 @@ public class SourceConfiguration extends PulsarConfiguration {
         this.fetchOneMessageTime = getOptional(PULSAR_FETCH_ONE_MESSAGE_TIME).orElse(0);
         this.maxFetchTime = get(PULSAR_MAX_FETCH_TIME, Duration::ofMillis);
         this.maxFetchRecords = get(PULSAR_MAX_FETCH_RECORDS);
+        this.maxFetchRecordsPerSecond =
+                getOptional(PULSAR_MAX_FETCH_RECORDS_PER_SECOND).orElse(-1.0D);
+        this.maxFetchBytesPerSecond = getOptional(PULSAR_MAX_FETCH_BYTES_PER_SECOND).orElse(-1L);
+        this.topicMaxFetchRecordsPerSecond =
+                topicRates(get(PULSAR_TOPIC_MAX_FETCH_RECORDS_PER_SECOND), Double::parseDouble);
+        this.topicMaxFetchBytesPerSecond =
+                topicRates(get(PULSAR_TOPIC_MAX_FETCH_BYTES_PER_SECOND), Long::parseLong);
         this.verifyInitialOffsets = get(PULSAR_VERIFY_INITIAL_OFFSETS);
         this.subscriptionName = get(PULSAR_SUBSCRIPTION_NAME);
         this.subscriptionMode = get(PULSAR_SUBSCRIPTION_MODE);
@@ -156,6 +176,22 @@ public class SourceConfiguration extends PulsarConfiguration {
         return maxFetchRecords;
     }
 
+    /**
+     * The maximum records per second for fetching the given topic partition. A non-positive value
+     * means the rate is unlimited.
+     */
+    public double getMaxFetchRecordsPerSecond(TopicPartition partition) {
+        return topicRate(topicMaxFetchRecordsPerSecond, partition, maxFetchRecordsPerSecond);
+    }
+
+    /**
+     * The maximum payload bytes per second for fetching the given topic partition. A non-positive
+     * value means the rate is unlimited.
+     */
+    public long getMaxFetchBytesPerSecond(TopicPartition partition) {
+        return topicRate(topicMaxFetchBytesPerSecond, partition, maxFetchBytesPerSecond);
+    }
+
     /** Validate the {@link CursorPosition} generated by {@link StartCursor}. */
     public CursorVerification getVerifyInitialOffsets() {
         return verifyInitialOffsets;
@@ -228,6 +264,10 @@ public class SourceConfiguration extends PulsarConfiguration {
                 && fetchOneMessageTime == that.fetchOneMessageTime
                 && Objects.equals(maxFetchTime, that.maxFetchTime)
                 && maxFetchRecords == that.maxFetchRecords
+                && Double.compare(maxFetchRecordsPerSecond, that.maxFetchRecordsPerSecond) == 0
+                && maxFetchBytesPerSecond == that.maxFetchBytesPerSecond
+                && Objects.equals(topicMaxFetchRecordsPerSecond, that.topicMaxFetchRecordsPerSecond)
+                && Objects.equals(topicMaxFetchBytesPerSecond, that.topicMaxFetchBytesPerSecond)
                 && verifyInitialOffsets == that.verifyInitialOffsets
                 && Objects.equals(subscriptionName, that.subscriptionName)
                 && subscriptionMode == that.subscriptionMode
@@ -248,6 +288,10 @@ public class SourceConfiguration extends PulsarConfiguration {
                 fetchOneMessageTime,
                 maxFetchTime,
                 maxFetchRecords,
+                maxFetchRecordsPerSecond,
+                maxFetchBytesPerSecond,
+                topicMaxFetchRecordsPerSecond,
+                topicMaxFetchBytesPerSecond,
                 verifyInitialOffsets,
                 subscriptionName,
                 subscriptionMode,
@@ -256,4 +300,25 @@ public class SourceConfiguration extends PulsarConfiguration {
                 enableMetrics,
                 resetSubscriptionCursor);
     }
+
+    /** Convert the topic names into the complete format for matching the topic partitions. */
+    private static <T> Map<String, T> topicRates(
+            Map<String, String> rates, Function<String, T> parser) {
+        Map<String, T> results = new HashMap<>(rates.size());
+        for (Map.Entry<String, String> entry : rates.entrySet()) {
+            String topic = TopicName.get(entry.getKey().trim()).toString();
+            results.put(topic, parser.apply(entry.getValue().trim()));
+        }
+
+        return results;
+    }
+
+    private static <T> T topicRate(Map<String, T> rates, TopicPartition partition, T defaultRate) {
+        T rate = rates.get(partition.getFullTopicName());
+        if (rate == null) {
+            rate = rates.get(partition.getTopic());
+        }
+
+        return rate == null ? defaultRate : rate;
+    }
 }
@@ -45,10 +45,15 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import static java.util.Collections.singletonList;
-import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createAdmin;
-import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseClient;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarExecutorUtils.createBlockingExecutor;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarExecutorUtils.invokeAll;
 import static org.apache.flink.connector.pulsar.source.enumerator.PulsarSourceEnumState.initialState;
 import static org.apache.flink.connector.pulsar.source.enumerator.assigner.SplitAssigner.createAssigner;
 
@@ -61,6 +66,7 @@ public class PulsarSourceEnumerator
 
     private final PulsarClient pulsarClient;
     private final PulsarAdmin pulsarAdmin;
+    private final ExecutorService blockingExecutor;
     private final PulsarSubscriber subscriber;
     private final StartCursor startCursor;
     private final RangeGenerator rangeGenerator;
@@ -96,8 +102,10 @@ public class PulsarSourceEnumerator
             SplitEnumeratorContext<PulsarPartitionSplit> context,
             PulsarSourceEnumState enumState)
             throws PulsarClientException {
-        this.pulsarClient = createClient(sourceConfiguration);
-        this.pulsarAdmin = createAdmin(sourceConfiguration);
+        this.pulsarClient = acquireClient(sourceConfiguration);
+        this.pulsarAdmin = acquireAdmin(sourceConfiguration);
+        this.blockingExecutor =
+                createBlockingExecutor(sourceConfiguration, "pulsar-enumerator-blocking");
         this.subscriber = subscriber;
         this.startCursor = startCursor;
         this.rangeGenerator = rangeGenerator;
@@ -109,7 +117,7 @@ public class PulsarSourceEnumerator
 
     @Override
     public void start() {
-        subscriber.open(pulsarClient, pulsarAdmin);
+        subscriber.open(pulsarClient, pulsarAdmin, blockingExecutor);
         rangeGenerator.open(sourceConfiguration);
 
         // Expose the split assignment metrics if Flink has supported.
@@ -175,11 +183,12 @@ public class PulsarSourceEnumerator
 
     @Override
     public void close() throws PulsarClientException {
+        blockingExecutor.shutdownNow();
         if (pulsarClient != null) {
-            pulsarClient.close();
+            releaseClient(pulsarClient);
         }
         if (pulsarAdmin != null) {
-            pulsarAdmin.close();
+            releaseAdmin(pulsarAdmin);
         }
     }
 
@@ -220,22 +229,11 @@ public class PulsarSourceEnumerator
                 splitAssigner.registerTopicPartitions(fetchedPartitions);
 
         // Create subscription on newly discovered topic partitions if it doesn't contain related
-        // subscription.
-        for (TopicPartition partition : newPartitions) {
-            String topic = partition.getFullTopicName();
-            String subscriptionName = sourceConfiguration.getSubscriptionName();
-            CursorPosition position =
-                    startCursor.position(partition.getTopic(), partition.getPartitionId());
-
-            try {
-                if (sourceConfiguration.isResetSubscriptionCursor()) {
-                    position.seekPosition(pulsarAdmin, topic, subscriptionName);
-                } else {
-                    position.createInitialPosition(pulsarAdmin, topic, subscriptionName);
-                }
-            } catch (PulsarAdminException e) {
-                throw new FlinkRuntimeException(e);
-            }
+        // subscription. The cursors are created in parallel if the blocking executor is enabled.
+        try {
+            invokeAll(blockingExecutor, newPartitions, this::createCursor);
+        } catch (PulsarAdminException e) {
+            throw new FlinkRuntimeException(e);
         }
 
         // Assign the new readers.
@@ -243,6 +241,21 @@ public class PulsarSourceEnumerator
         assignPendingPartitionSplits(registeredReaders);
     }
 
+    private Void createCursor(TopicPartition partition) throws PulsarAdminException {
+        String topic = partition.getFullTopicName();
+        String subscriptionName = sourceConfiguration.getSubscriptionName();
+        CursorPosition position =
+                startCursor.position(partition.getTopic(), partition.getPartitionId());
+
+        if (sourceConfiguration.isResetSubscriptionCursor()) {
+            position.seekPosition(pulsarAdmin, topic, subscriptionName);
+        } else {
+            position.createInitialPosition(pulsarAdmin, topic, subscriptionName);
+        }
+
+        return null;
+    }
+
     /** Query the unassigned splits and assign them to the available readers. */
     private void assignPendingPartitionSplits(List<Integer> pendingReaders) {
         if (pendingReaders.isEmpty()) {
@@ -31,6 +31,7 @@ import org.apache.pulsar.client.api.RegexSubscriptionMode;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 
 /**
@@ -67,6 +68,17 @@ public interface PulsarSubscriber extends Serializable {
      */
     void open(PulsarClient client, PulsarAdmin admin);
 
+    /**
+     * Initialize the topic subscriber with an executor for the blocking admin queries.
+     *
+     * @param client The client interface for querying the topics by regex pattern.
+     * @param admin The admin interface used to retrieve subscribed topic partitions.
+     * @param executor The executor for querying the topic metadata in parallel.
+     */
+    default void open(PulsarClient client, PulsarAdmin admin, Executor executor) {
+        open(client, admin);
+    }
+
     // ----------------- factory methods --------------
 
     static PulsarSubscriber getTopicListSubscriber(List<String> topics) {
@@ -28,12 +28,15 @@ import org.apache.pulsar.client.admin.PulsarAdmin;
 import org.apache.pulsar.client.admin.PulsarAdminException;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.common.partition.PartitionedTopicMetadata;
+import org.apache.pulsar.shade.com.google.common.util.concurrent.MoreExecutors;
 
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+import static org.apache.flink.connector.pulsar.common.utils.PulsarExecutorUtils.invokeAll;
 import static org.apache.pulsar.common.partition.PartitionedTopicMetadata.NON_PARTITIONED;
 
 /** PulsarSubscriber abstract class to simplify Pulsar admin related operations. */
@@ -46,6 +49,7 @@ public abstract class BasePulsarSubscriber implements PulsarSubscriber {
 
     protected transient PulsarClient client;
     protected transient PulsarAdmin admin;
+    protected transient Executor executor;
 
     protected TopicMetadata queryTopicMetadata(String topic) throws PulsarAdminException {
         if (NON_PARTITIONED_TOPICS.contains(topic)) {
@@ -74,8 +78,8 @@ public abstract class BasePulsarSubscriber implements PulsarSubscriber {
             throws PulsarAdminException {
         Set<TopicPartition> results = new HashSet<>();
 
-        for (String topic : topics) {
-            TopicMetadata metadata = queryTopicMetadata(topic);
+        List<TopicMetadata> queried = invokeAll(executor, topics, this::queryTopicMetadata);
+        for (TopicMetadata metadata : queried) {
             if (metadata != null) {
                 List<TopicRange> ranges = generator.range(metadata, parallelism);
                 if (!metadata.isPartitioned()) {
@@ -95,7 +99,13 @@ public abstract class BasePulsarSubscriber implements PulsarSubscriber {
 
     @Override
     public void open(PulsarClient client, PulsarAdmin admin) {
+        open(client, admin, MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void open(PulsarClient client, PulsarAdmin admin, Executor executor) {
         this.client = client;
         this.admin = admin;
+        this.executor = executor;
     }
 }
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.connector.pulsar.source.config.SourceConfiguration;
+import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
+
+import org.apache.pulsar.shade.com.google.common.util.concurrent.RateLimiter;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The token bucket rate limiter for a split reader. It limits the records and payload bytes which
+ * could be fetched from a topic partition per second. The fetching thread would be blocked instead
+ * of dropping the messages when it reaches the limit.
+ *
+ * <p>The waiting is always bounded by the timeout from the caller and could be interrupted by
+ * {@link #wakeUp()}, so the split reader could be woken up or closed while it's throttled.
+ */
+@Internal
+public class PulsarFetchRateLimiter {
+
+    @Nullable private final RateLimiter recordsLimiter;
+    @Nullable private final RateLimiter bytesLimiter;
+
+    // The max time to wait before checking the limiters again.
+    private static final long MAX_WAIT_MILLIS = 100;
+
+    private final Object lock = new Object();
+
+    // The payload bytes of the fetched records which haven't been paid by the bytes limiter.
+    private long pendingBytes = 0;
+
+    // The record permit which has been given back because no record was fetched with it.
+    private boolean unusedPermit = false;
+
+    private boolean wakeUp = false;
+
+    // This is only modified in the fetcher thread, the metric reporter could read it.
+    private volatile long throttledTimeMillis = 0;
+
+    private PulsarFetchRateLimiter(
+            @Nullable RateLimiter recordsLimiter, @Nullable RateLimiter bytesLimiter) {
+        this.recordsLimiter = recordsLimiter;
+        this.bytesLimiter = bytesLimiter;
+    }
+
+    public static PulsarFetchRateLimiter create(
+            SourceConfiguration configuration, TopicPartition partition) {
+        double recordsRate = configuration.getMaxFetchRecordsPerSecond(partition);
+        long bytesRate = configuration.getMaxFetchBytesPerSecond(partition);
+
+        return new PulsarFetchRateLimiter(
+                recordsRate > 0 ? RateLimiter.create(recordsRate) : null,
+                bytesRate > 0 ? RateLimiter.create(bytesRate) : null);
+    }
+
+    /** Whether there is a limit for this topic partition. */
+    public boolean isEnabled() {
+        return recordsLimiter != null || bytesLimiter != null;
+    }
+
+    /**
+     * Acquire the permit for fetching the next record, the pending bytes of the fetched records
+     * would be paid first. Return false if the permit couldn't be acquired in the given timeout, or
+     * the limiter has been woken up by {@link #wakeUp()}.
+     */
+    public boolean acquireRecord(long timeoutMillis) throws InterruptedException {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMillis, 0));
+        boolean acquired = false;
+        synchronized (lock) {
+            while (!wakeUp) {
+                if (tryAcquire()) {
+                    acquired = true;
+                    break;
+                }
+
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    break;
+                }
+                lock.wait(Math.min(remaining, MAX_WAIT_MILLIS));
+            }
+            wakeUp = false;
+        }
+        recordThrottledTime(start);
+
+        return acquired;
+    }
+
+    /**
+     * Charge the payload bytes of a fetched record. The bytes would be paid by blocking the next
+     * fetching in {@link #acquireRecord(long)}, so a large record wouldn't exceed the limit in the
+     * long term.
+     */
+    public void chargeBytes(int bytes) {
+        if (bytesLimiter == null || bytes <= 0) {
+            return;
+        }
+
+        synchronized (lock) {
+            pendingBytes += bytes;
+        }
+    }
+
+    /**
+     * Give back the permit acquired by {@link #acquireRecord(long)} when no record was fetched
+     * with it. The next acquiring would reuse this permit instead of taking a new one from the
+     * records limiter.
+     */
+    public void releaseRecord() {
+        if (recordsLimiter == null) {
+            return;
+        }
+
+        synchronized (lock) {
+            unusedPermit = true;
+        }
+    }
+
+    /**
+     * Interrupt the waiting in {@link #acquireRecord(long)}. The next acquiring would return false
+     * immediately if there is no waiting.
+     */
+    public void wakeUp() {
+        synchronized (lock) {
+            wakeUp = true;
+            lock.notifyAll();
+        }
+    }
+
+    /** This should be called with the lock, the rate limiters would never block here. */
+    private boolean tryAcquire() {
+        if (bytesLimiter != null && pendingBytes > 0) {
+            int permits = (int) Math.min(pendingBytes, Integer.MAX_VALUE);
+            if (!bytesLimiter.tryAcquire(permits)) {
+                return false;
+            }
+            pendingBytes -= permits;
+            if (pendingBytes > 0) {
+                return false;
+            }
+        }
+
+        if (unusedPermit) {
+            unusedPermit = false;
+            return true;
+        }
+
+        return recordsLimiter == null || recordsLimiter.tryAcquire();
+    }
+
+    /** The total time in millis which the fetcher has been blocked by this limiter. */
+    public long getThrottledTimeMillis() {
+        return throttledTimeMillis;
+    }
+
+    private void recordThrottledTime(long startNanos) {
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (elapsed > 0) {
+            throttledTimeMillis += elapsed;
+        }
+    }
+}
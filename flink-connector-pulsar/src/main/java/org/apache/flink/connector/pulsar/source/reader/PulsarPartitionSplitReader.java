@@ -60,9 +60,12 @@ import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.FETCH_THROTTLED_TIME_MILLIS;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.MSG_NUM_IN_RECEIVER_QUEUE;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_ACKS_FAILED;
 import static org.apache.flink.connector.pulsar.common.metrics.MetricNames.NUM_ACKS_SENT;
@@ -87,6 +90,10 @@ import static org.apache.pulsar.client.api.KeySharedPolicy.stickyHashRange;
 /**
  * The split reader a given {@link PulsarPartitionSplit}, it would be closed once the {@link
  * PulsarSourceReader} is closed.
+ *
+ * <p>The consumer is created asynchronously when the split is assigned. The fetcher doesn't need to
+ * wait for the lookup and subscribe round trips, it would start fetching once the consumer is
+ * ready.
  */
 @Internal
 public class PulsarPartitionSplitReader
@@ -100,8 +107,14 @@ public class PulsarPartitionSplitReader
     private final PulsarCrypto pulsarCrypto;
     private final SourceReaderMetricGroup metricGroup;
 
-    private Consumer<byte[]> pulsarConsumer;
+    // The consumer could be accessed by the fetcher thread and the reader thread on checkpoint.
+    private volatile Consumer<byte[]> pulsarConsumer;
+    private volatile CompletableFuture<Consumer<byte[]>> pendingConsumer;
     private PulsarPartitionSplit registeredSplit;
+    // The rate limiter could be woken up by the reader thread.
+    private volatile PulsarFetchRateLimiter rateLimiter;
+    // Pause the consumer once it has been created if the split was paused before that.
+    private boolean pausedBeforeCreated = false;
 
     public PulsarPartitionSplitReader(
             PulsarClient pulsarClient,
@@ -124,7 +137,7 @@ public class PulsarPartitionSplitReader
         RecordsBySplits.Builder<Message<byte[]>> builder = new RecordsBySplits.Builder<>();
 
         // Return when no split registered to this reader.
-        if (pulsarConsumer == null || registeredSplit == null) {
+        if (registeredSplit == null) {
             return builder.build();
         }
 
@@ -132,6 +145,12 @@ public class PulsarPartitionSplitReader
         String splitId = registeredSplit.splitId();
         Deadline deadline = Deadline.fromNow(sourceConfiguration.getMaxFetchTime());
 
+        // Return when the consumer is still being created in the background.
+        Consumer<byte[]> consumer = awaitConsumer(deadline);
+        if (consumer == null) {
+            return builder.build();
+        }
+
         // Consume messages from pulsar until it was woken up by flink reader.
         for (int messageNum = 0;
                 messageNum < sourceConfiguration.getMaxFetchRecords() && deadline.hasTimeLeft();
@@ -142,10 +161,18 @@ public class PulsarPartitionSplitReader
                     fetchTime = (int) deadline.timeLeftIfAny().toMillis();
                 }
 
-                Message<byte[]> message = pulsarConsumer.receive(fetchTime, TimeUnit.MILLISECONDS);
+                // Stop fetching if the rate limit has been reached.
+                if (!rateLimiter.acquireRecord(deadline.timeLeftIfAny().toMillis())) {
+                    break;
+                }
+
+                Message<byte[]> message = consumer.receive(fetchTime, TimeUnit.MILLISECONDS);
                 if (message == null) {
+                    // No record was fetched, the permit could be used by the next fetching.
+                    rateLimiter.releaseRecord();
                     break;
                 }
+                rateLimiter.chargeBytes(message.size());
 
                 StopCondition condition = stopCursor.shouldStop(message);
 
@@ -161,6 +188,9 @@ public class PulsarPartitionSplitReader
                 }
             } catch (TimeoutException e) {
                 break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 throw new IOException(e);
             }
@@ -190,6 +220,16 @@ public class PulsarPartitionSplitReader
                 newSplits.size() == 1, "This pulsar split reader only supports one split.");
         this.registeredSplit = newSplits.get(0);
 
+        // Create the rate limiter for this split.
+        TopicPartition partition = registeredSplit.getPartition();
+        this.rateLimiter = PulsarFetchRateLimiter.create(sourceConfiguration, partition);
+        if (rateLimiter.isEnabled()) {
+            metricGroup
+                    .addGroup(PULSAR_CONSUMER_METRIC_NAME)
+                    .addGroup(partition.getFullTopicName())
+                    .gauge(FETCH_THROTTLED_TIME_MILLIS, rateLimiter::getThrottledTimeMillis);
+        }
+
         // Open stop cursor.
         try {
             registeredSplit.open(pulsarAdmin);
@@ -234,12 +274,9 @@ public class PulsarPartitionSplitReader
             }
         }
 
-        // Create pulsar consumer.
-        try {
-            this.pulsarConsumer = createPulsarConsumer(registeredSplit.getPartition());
-        } catch (PulsarClientException e) {
-            throw new FlinkRuntimeException(e);
-        }
+        // Create pulsar consumer in background, the fetch() would wait for it.
+        this.pendingConsumer =
+                newConsumerBuilder(registeredSplit.getPartition()).subscribeAsync();
 
         LOG.info("Register split {} consumer for current reader.", registeredSplit);
     }
@@ -253,39 +290,130 @@ public class PulsarPartitionSplitReader
                 splitsToPause.size() + splitsToResume.size() <= 1,
                 "This pulsar split reader only supports one split.");
 
-        if (!splitsToPause.isEmpty()) {
-            pulsarConsumer.pause();
-        } else if (!splitsToResume.isEmpty()) {
-            pulsarConsumer.resume();
+        synchronized (this) {
+            if (pulsarConsumer == null) {
+                // The consumer is still being created. Apply the status once it is ready.
+                if (!splitsToPause.isEmpty()) {
+                    pausedBeforeCreated = true;
+                } else if (!splitsToResume.isEmpty()) {
+                    pausedBeforeCreated = false;
+                }
+            } else if (!splitsToPause.isEmpty()) {
+                pulsarConsumer.pause();
+            } else if (!splitsToResume.isEmpty()) {
+                pulsarConsumer.resume();
+            }
         }
     }
 
     @Override
     public void wakeUp() {
-        // Nothing to do on this method.
+        // Stop waiting for the rate limiter, the receiving is always bounded by the fetch time.
+        PulsarFetchRateLimiter limiter = rateLimiter;
+        if (limiter != null) {
+            limiter.wakeUp();
+        }
     }
 
     @Override
     public void close() throws PulsarClientException {
-        if (pulsarConsumer != null) {
-            pulsarConsumer.close();
+        Consumer<byte[]> consumer;
+        synchronized (this) {
+            CompletableFuture<Consumer<byte[]>> future = pendingConsumer;
+            if (future != null && pulsarConsumer == null) {
+                this.pendingConsumer = null;
+                // Close the consumer in background if it hasn't been created.
+                if (!future.isDone()) {
+                    future.thenAccept(Consumer::closeAsync);
+                    return;
+                }
+                if (future.isCompletedExceptionally()) {
+                    return;
+                }
+                this.pulsarConsumer = future.join();
+            }
+            consumer = pulsarConsumer;
+        }
+
+        if (consumer != null) {
+            consumer.close();
         }
     }
 
     public void notifyCheckpointComplete(TopicPartition partition, MessageId offsetsToCommit)
             throws PulsarClientException {
-        if (pulsarConsumer == null) {
-            this.pulsarConsumer = createPulsarConsumer(partition);
+        Consumer<byte[]> consumer = pulsarConsumer;
+        if (consumer == null) {
+            CompletableFuture<Consumer<byte[]>> future = pendingConsumer;
+            if (future == null) {
+                consumer = onConsumerCreated(newConsumerBuilder(partition).subscribe());
+            } else {
+                try {
+                    consumer = onConsumerCreated(future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PulsarClientException(e);
+                } catch (ExecutionException e) {
+                    throw PulsarClientException.unwrap(e);
+                }
+            }
         }
 
-        pulsarConsumer.acknowledgeCumulative(offsetsToCommit);
+        consumer.acknowledgeCumulative(offsetsToCommit);
     }
 
     // --------------------------- Helper Methods -----------------------------
 
-    /** Create a specified {@link Consumer} by the given topic partition. */
-    private Consumer<byte[]> createPulsarConsumer(TopicPartition partition)
+    /**
+     * Wait for the consumer which is created in background until the deadline. Return null if the
+     * consumer isn't ready or no split has been assigned.
+     */
+    private Consumer<byte[]> awaitConsumer(Deadline deadline) throws IOException {
+        Consumer<byte[]> consumer = pulsarConsumer;
+        if (consumer != null) {
+            return consumer;
+        }
+
+        CompletableFuture<Consumer<byte[]>> future = pendingConsumer;
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            long timeout = deadline.timeLeftIfAny().toMillis();
+            return onConsumerCreated(future.get(timeout, TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /** Register the created consumer, the consumer would be closed if it is a duplicated one. */
+    private synchronized Consumer<byte[]> onConsumerCreated(Consumer<byte[]> consumer)
             throws PulsarClientException {
+        if (pulsarConsumer == null) {
+            this.pulsarConsumer = consumer;
+            this.pendingConsumer = null;
+
+            // Exposing the consumer metrics.
+            exposeConsumerMetrics(consumer);
+
+            if (pausedBeforeCreated) {
+                consumer.pause();
+            }
+        } else if (pulsarConsumer != consumer) {
+            consumer.close();
+        }
+
+        return pulsarConsumer;
+    }
+
+    /** Create a specified {@link ConsumerBuilder} by the given topic partition. */
+    private ConsumerBuilder<byte[]> newConsumerBuilder(TopicPartition partition) {
         ConsumerBuilder<byte[]> consumerBuilder =
                 createConsumerBuilder(pulsarClient, schema, sourceConfiguration);
 
@@ -313,13 +441,7 @@ public class PulsarPartitionSplitReader
             consumerBuilder.keySharedPolicy(policy);
         }
 
-        // Create the consumer configuration by using common utils.
-        Consumer<byte[]> consumer = consumerBuilder.subscribe();
-
-        // Exposing the consumer metrics.
-        exposeConsumerMetrics(consumer);
-
-        return consumer;
+        return consumerBuilder;
     }
 
     private void exposeConsumerMetrics(Consumer<byte[]> consumer) {
@@ -62,8 +62,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
-import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createAdmin;
-import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseClient;
 
 /**
  * The source reader for pulsar subscription Failover and Exclusive, which consumes the ordered
@@ -219,9 +221,9 @@ public class PulsarSourceReader<OUT>
         // Close the all the consumers.
         super.close();
 
-        // Close shared pulsar resources.
-        pulsarClient.shutdown();
-        pulsarAdmin.close();
+        // Release shared pulsar resources.
+        releaseClient(pulsarClient);
+        releaseAdmin(pulsarAdmin);
     }
 
     // ----------------- helper methods --------------
@@ -263,8 +265,8 @@ public class PulsarSourceReader<OUT>
         FutureCompletingBlockingQueue<RecordsWithSplitIds<Message<byte[]>>> elementsQueue =
                 new FutureCompletingBlockingQueue<>(queueCapacity);
 
-        PulsarClient pulsarClient = createClient(sourceConfiguration);
-        PulsarAdmin pulsarAdmin = createAdmin(sourceConfiguration);
+        PulsarClient pulsarClient = acquireClient(sourceConfiguration);
+        PulsarAdmin pulsarAdmin = acquireAdmin(sourceConfiguration);
 
         // Initialize the deserialization schema before creating the pulsar reader.
         PulsarDeserializationSchemaInitializationContext initializationContext =
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader.deserializer;
+
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.impl.MessageImpl;
+import org.apache.pulsar.client.impl.TopicMessageImpl;
+import org.apache.pulsar.shade.io.netty.buffer.ByteBuf;
+import org.apache.pulsar.shade.io.netty.buffer.ByteBufInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/** The util for reading the message payload without copying it into a byte array. */
+final class MessagePayloadUtils {
+
+    private MessagePayloadUtils() {
+        // No public constructor.
+    }
+
+    /**
+     * Create an input stream over the payload buffer of the given message. We would fall back to
+     * {@link Message#getData()} if the message isn't created by the Pulsar consumer.
+     */
+    static InputStream payloadStream(Message<?> message) {
+        Message<?> original = message;
+        if (original instanceof TopicMessageImpl) {
+            original = ((TopicMessageImpl<?>) original).getMessage();
+        }
+
+        if (original instanceof MessageImpl) {
+            ByteBuf buffer = ((MessageImpl<?>) original).getDataBuffer();
+            if (buffer != null) {
+                // Use a duplicated buffer for keeping the reader index of the message untouched.
+                return new ByteBufInputStream(buffer.duplicate());
+            }
+        }
+
+        return new ByteArrayInputStream(message.getData());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader.deserializer;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.util.Collector;
+
+import org.apache.pulsar.client.api.Message;
+
+import java.io.InputStream;
+
+import static org.apache.flink.connector.pulsar.source.reader.deserializer.MessagePayloadUtils.payloadStream;
+
+/**
+ * A {@link PulsarDeserializationSchema} which reads the message payload from an {@link
+ * InputStream}. The stream is backed by the payload buffer of the message, so the large messages
+ * (such as the chunked messages reassembled by the Pulsar consumer) could be parsed incrementally
+ * without copying the payload into another byte array.
+ *
+ * <p>The stream is only valid in the {@link #deserialize(Message, InputStream, Collector)} method.
+ * The payload buffer would be released after the message has been deserialized.
+ *
+ * @param <T> The output message type for sinking to downstream flink operator.
+ */
+@PublicEvolving
+@SuppressWarnings("java:S112")
+public interface PulsarStreamingDeserializationSchema<T> extends PulsarDeserializationSchema<T> {
+
+    /**
+     * Deserializes the pulsar message from the payload stream.
+     *
+     * @param message The message which contains the metadata, such as the key and properties.
+     * @param payload The payload of the message. It's unnecessary to close it.
+     * @param out The collector to put the resulting messages.
+     */
+    void deserialize(Message<byte[]> message, InputStream payload, Collector<T> out)
+            throws Exception;
+
+    @Override
+    default void deserialize(Message<byte[]> message, Collector<T> out) throws Exception {
+        try (InputStream payload = payloadStream(message)) {
+            deserialize(message, payload, out);
+        }
+    }
+}
@@ -17,15 +17,13 @@ package org.apache.flink.connector.pulsar.table.sink;
 import org.apache.flink.api.common.serialization.SerializationSchema;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
 import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContext;
-import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
-import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessageBuilder;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessageSink;
+import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarDirectSerializationSchema;
 import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarSerializationSchema;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.types.RowKind;
 
-import org.apache.pulsar.client.api.Schema;
-
 import javax.annotation.Nullable;
 
 import java.io.Serializable;
@@ -37,7 +35,7 @@ import static org.apache.flink.util.Preconditions.checkNotNull;
  * responsible for retrieving fields from Flink row and serialize into Pulsar message key or body,
  * and set necessary metadata fields as required.
  */
-public class PulsarTableSerializationSchema implements PulsarSerializationSchema<RowData> {
+public class PulsarTableSerializationSchema implements PulsarDirectSerializationSchema<RowData> {
 
     private static final long serialVersionUID = 1L;
 
@@ -81,7 +79,8 @@ public class PulsarTableSerializationSchema implements PulsarSerializationSchema
     }
 
     @Override
-    public PulsarMessage<?> serialize(RowData consumedRow, PulsarSinkContext sinkContext) {
+    public void serialize(
+            RowData consumedRow, PulsarSinkContext sinkContext, PulsarMessageSink messageSink) {
 
         final RowKind kind = consumedRow.getRowKind();
         final byte[] serializedData;
@@ -99,20 +98,17 @@ public class PulsarTableSerializationSchema implements PulsarSerializationSchema
             final RowData valueRow = createProjectedRow(consumedRow, kind, valueFieldGetters);
             serializedData = valueSerialization.serialize(valueRow);
         }
-        PulsarMessageBuilder<byte[]> messageBuilder =
-                PulsarMessage.builder(Schema.BYTES, serializedData);
+        messageSink.value(serializedData);
 
         // apply metadata
-        writableMetadata.applyWritableMetadataInMessage(consumedRow, messageBuilder);
+        writableMetadata.applyWritableMetadataInMessage(consumedRow, messageSink);
 
         // get key row data
         if (keySerialization != null) {
             final RowData keyRow = createProjectedRow(consumedRow, RowKind.INSERT, keyFieldGetters);
             final byte[] keyBytes = keySerialization.serialize(keyRow);
-            messageBuilder.keyBytes(keyBytes);
+            messageSink.keyBytes(keyBytes);
         }
-
-        return messageBuilder.build();
     }
 
     private static RowData createProjectedRow(
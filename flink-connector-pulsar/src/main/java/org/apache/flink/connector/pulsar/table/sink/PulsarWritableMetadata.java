@@ -14,7 +14,7 @@
 
 package org.apache.flink.connector.pulsar.table.sink;
 
-import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessageBuilder;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessageSink;
 import org.apache.flink.table.api.DataTypes;
 import org.apache.flink.table.data.ArrayData;
 import org.apache.flink.table.data.MapData;
@@ -50,15 +50,14 @@ public class PulsarWritableMetadata implements Serializable {
         this.metadataPositions = getMetadataPositions();
     }
 
-    public void applyWritableMetadataInMessage(
-            RowData consumedRow, PulsarMessageBuilder<byte[]> messageBuilder) {
+    public void applyWritableMetadataInMessage(RowData consumedRow, PulsarMessageSink messageSink) {
         Map<String, String> properties = readMetadata(consumedRow, WritableMetadata.PROPERTIES);
         if (properties != null) {
-            messageBuilder.properties(properties);
+            messageSink.properties(properties);
         }
         final Long eventTime = readMetadata(consumedRow, WritableMetadata.EVENT_TIME);
         if (eventTime != null && eventTime > 0) {
-            messageBuilder.eventTime(eventTime);
+            messageSink.eventTime(eventTime);
         }
     }
 
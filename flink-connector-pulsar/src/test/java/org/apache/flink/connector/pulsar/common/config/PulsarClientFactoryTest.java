@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.common.config;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+
+import org.apache.pulsar.client.admin.PulsarAdmin;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.acquireClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.createClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.releaseClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.shareAdmin;
+import static org.apache.flink.connector.pulsar.common.config.PulsarClientFactory.shareClient;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ADMIN_URL;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_CLIENT_SHARING;
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_SERVICE_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Unit tests for {@link PulsarClientFactory}. */
+class PulsarClientFactoryTest {
+
+    @Test
+    void sharedClientWouldBeClosedAfterAllReferencesReleased() throws Exception {
+        SinkConfiguration configuration = configuration("pulsar://localhost:6650", true);
+
+        PulsarClient client1 = acquireClient(configuration);
+        PulsarClient client2 = acquireClient(configuration);
+        assertThat(client1).isSameAs(client2);
+
+        releaseClient(client1);
+        assertThat(client2.isClosed()).isFalse();
+
+        releaseClient(client2);
+        assertThat(client2.isClosed()).isTrue();
+    }
+
+    @Test
+    void clientsWithDifferentConfigurationWouldNotBeShared() throws Exception {
+        PulsarClient client1 = acquireClient(configuration("pulsar://localhost:6650", true));
+        PulsarClient client2 = acquireClient(configuration("pulsar://localhost:6651", true));
+        assertThat(client1).isNotSameAs(client2);
+
+        releaseClient(client1);
+        releaseClient(client2);
+        assertThat(client1.isClosed()).isTrue();
+        assertThat(client2.isClosed()).isTrue();
+    }
+
+    @Test
+    void clientWouldNotBeSharedByDefault() throws Exception {
+        SinkConfiguration configuration = configuration("pulsar://localhost:6650", false);
+
+        PulsarClient client1 = acquireClient(configuration);
+        PulsarClient client2 = acquireClient(configuration);
+        assertThat(client1).isNotSameAs(client2);
+
+        releaseClient(client1);
+        assertThat(client1.isClosed()).isTrue();
+        assertThat(client2.isClosed()).isFalse();
+
+        releaseClient(client2);
+    }
+
+    @Test
+    void sharedClientWouldBeAcquiredByTheSameConfiguration() throws Exception {
+        SinkConfiguration configuration = configuration("pulsar://localhost:6652", true);
+        PulsarClient client = createClient(configuration);
+        shareClient(configuration, client);
+
+        PulsarClient acquired = acquireClient(configuration);
+        assertThat(acquired).isSameAs(client);
+
+        releaseClient(acquired);
+        assertThat(client.isClosed()).isFalse();
+
+        releaseClient(client);
+        assertThat(client.isClosed()).isTrue();
+    }
+
+    @Test
+    void sharedAdminWouldBeAcquiredByTheSameConfiguration() throws Exception {
+        SinkConfiguration configuration = configuration("pulsar://localhost:6653", true);
+        PulsarAdmin admin = createAdmin(configuration);
+        shareAdmin(configuration, admin);
+
+        PulsarAdmin acquired = acquireAdmin(configuration);
+        assertThat(acquired).isSameAs(admin);
+
+        releaseAdmin(acquired);
+        releaseAdmin(admin);
+    }
+
+    private SinkConfiguration configuration(String serviceUrl, boolean enableSharing) {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_SERVICE_URL, serviceUrl);
+        configuration.set(PULSAR_ADMIN_URL, "http://localhost:8080");
+        configuration.set(PULSAR_ENABLE_CLIENT_SHARING, enableSharing);
+
+        return new SinkConfiguration(configuration);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.common.utils;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.flink.connector.pulsar.common.config.PulsarOptions.PULSAR_ENABLE_VIRTUAL_THREADS;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarExecutorUtils.createBlockingExecutor;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarExecutorUtils.invokeAll;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Unit tests for {@link PulsarExecutorUtils}. */
+class PulsarExecutorUtilsTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void invokeAllKeepsTheInputOrder(boolean enableVirtualThreads) throws Exception {
+        ExecutorService executor = createBlockingExecutor(configuration(enableVirtualThreads), "test");
+        try {
+            List<Integer> results =
+                    invokeAll(executor, Arrays.asList("a", "bb", "ccc"), String::length);
+            assertThat(results).containsExactly(1, 2, 3);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invokeAllRethrowsTheCheckedException() {
+        ExecutorService executor = createBlockingExecutor(configuration(true), "test");
+        try {
+            assertThatThrownBy(
+                            () ->
+                                    invokeAll(
+                                            executor,
+                                            Arrays.asList("a", "b"),
+                                            input -> {
+                                                throw new IOException(input);
+                                            }))
+                    .isInstanceOf(IOException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void blockingActionsAreExecutedInCallerThreadByDefault() throws Exception {
+        ExecutorService executor = createBlockingExecutor(configuration(false), "test");
+        Thread caller = Thread.currentThread();
+        try {
+            List<Thread> threads =
+                    invokeAll(executor, Arrays.asList(1, 2), input -> Thread.currentThread());
+            assertThat(threads).containsOnly(caller);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SinkConfiguration configuration(boolean enableVirtualThreads) {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_ENABLE_VIRTUAL_THREADS, enableVirtualThreads);
+        return new SinkConfiguration(configuration);
+    }
+}
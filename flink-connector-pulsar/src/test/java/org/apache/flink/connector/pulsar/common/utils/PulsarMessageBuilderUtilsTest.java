@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.common.utils;
+
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.impl.TypedMessageBuilderImpl;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.flink.connector.pulsar.common.utils.PulsarMessageBuilderUtils.setContent;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Unit tests for {@link PulsarMessageBuilderUtils}. */
+class PulsarMessageBuilderUtilsTest {
+
+    @Test
+    void directBufferIsSetAsContentWithoutCopying() {
+        byte[] value = "pulsar-message".getBytes(UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(value.length);
+        buffer.put(value).flip();
+
+        TypedMessageBuilderImpl<byte[]> builder = new TypedMessageBuilderImpl<>(null, Schema.BYTES);
+        setContent(builder, buffer);
+
+        assertThat(builder.getContent()).isSameAs(buffer);
+        assertThat(builder.getContent().remaining()).isEqualTo(value.length);
+    }
+}
@@ -25,7 +25,11 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Properties;
 
+import static org.apache.flink.connector.base.DeliveryGuarantee.AT_LEAST_ONCE;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_PRODUCERS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_IDLE_TIMEOUT;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SEND_TIMEOUT_MS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SPILL_MAX_BYTES;
 import static org.apache.flink.connector.pulsar.sink.writer.router.TopicRoutingMode.CUSTOM;
 import static org.apache.flink.connector.pulsar.sink.writer.router.TopicRoutingMode.MESSAGE_KEY_HASH;
 import static org.apache.flink.connector.pulsar.sink.writer.router.TopicRoutingMode.ROUND_ROBIN;
@@ -109,4 +113,42 @@ class PulsarSinkBuilderTest {
         builder.setAdminUrl("http://127.0.0.1:9999");
         assertThatCode(builder::build).doesNotThrowAnyException();
     }
+
+    @Test
+    void deduplicationCouldNotEvictProducers() {
+        PulsarSinkBuilder<String> builder1 = deduplicationBuilder();
+        builder1.setConfig(PULSAR_MAX_PRODUCERS, 10);
+        assertThatThrownBy(builder1::build).isInstanceOf(IllegalStateException.class);
+
+        PulsarSinkBuilder<String> builder2 = deduplicationBuilder();
+        builder2.setConfig(PULSAR_PRODUCER_IDLE_TIMEOUT, 1000L);
+        assertThatThrownBy(builder2::build).isInstanceOf(IllegalStateException.class);
+
+        assertThatCode(deduplicationBuilder()::build).doesNotThrowAnyException();
+    }
+
+    @Test
+    void spillBufferCouldNotExceedTheLimit() {
+        PulsarSinkBuilder<String> builder =
+                PulsarSink.<String>builder()
+                        .setServiceUrl("pulsar://127.0.0.1:8888")
+                        .setAdminUrl("http://127.0.0.1:9999")
+                        .setTopics("a")
+                        .setSerializationSchema(new SimpleStringSchema())
+                        .setDeliveryGuarantee(AT_LEAST_ONCE);
+        builder.setConfig(PULSAR_SPILL_MAX_BYTES, 1024 * 1024 * 1024L);
+
+        assertThatThrownBy(builder::build).isInstanceOf(IllegalStateException.class);
+    }
+
+    private PulsarSinkBuilder<String> deduplicationBuilder() {
+        return PulsarSink.<String>builder()
+                .setServiceUrl("pulsar://127.0.0.1:8888")
+                .setAdminUrl("http://127.0.0.1:9999")
+                .setTopics("a")
+                .setSerializationSchema(new SimpleStringSchema())
+                .setDeliveryGuarantee(AT_LEAST_ONCE)
+                .setProducerName("producer")
+                .enableDeduplication();
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.async;
+
+import org.apache.flink.connector.base.sink.writer.BufferedRequestState;
+import org.apache.flink.connector.base.sink.writer.RequestEntryWrapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for serializing and deserializing the buffered {@link PulsarRequestEntry} with {@link
+ * PulsarRequestEntrySerializer}.
+ */
+class PulsarRequestEntrySerializerTest {
+
+    private static final PulsarRequestEntrySerializer INSTANCE =
+            new PulsarRequestEntrySerializer();
+
+    @Test
+    void requestEntriesSerDe() throws IOException {
+        PulsarRequestEntry full =
+                new PulsarRequestEntry(
+                        randomAlphabetic(10),
+                        randomAlphabetic(5),
+                        true,
+                        randomAlphabetic(3).getBytes(UTF_8),
+                        randomAlphabetic(20).getBytes(UTF_8),
+                        System.currentTimeMillis(),
+                        System.currentTimeMillis() + 1000,
+                        Collections.singletonMap("k", "v"),
+                        100L,
+                        Arrays.asList("cluster-a", "cluster-b"),
+                        false);
+        PulsarRequestEntry local =
+                new PulsarRequestEntry(
+                        randomAlphabetic(10),
+                        null,
+                        false,
+                        null,
+                        randomAlphabetic(20).getBytes(UTF_8),
+                        0,
+                        0,
+                        Collections.emptyMap(),
+                        null,
+                        Collections.emptyList(),
+                        true);
+        PulsarRequestEntry tombstone =
+                new PulsarRequestEntry(
+                        randomAlphabetic(10), null, false, null, null, 0, 0, Collections.emptyMap());
+
+        List<RequestEntryWrapper<PulsarRequestEntry>> entries = new ArrayList<>();
+        entries.add(new RequestEntryWrapper<>(full, full.getSizeInBytes()));
+        entries.add(new RequestEntryWrapper<>(local, local.getSizeInBytes()));
+        entries.add(new RequestEntryWrapper<>(tombstone, tombstone.getSizeInBytes()));
+        BufferedRequestState<PulsarRequestEntry> state = new BufferedRequestState<>(entries);
+
+        byte[] bytes = INSTANCE.serialize(state);
+        BufferedRequestState<PulsarRequestEntry> state1 =
+                INSTANCE.deserialize(INSTANCE.getVersion(), bytes);
+
+        assertThat(state1.getBufferedRequestEntries())
+                .extracting(RequestEntryWrapper::getRequestEntry)
+                .containsExactly(full, local, tombstone);
+    }
+
+    @Test
+    void stringsLongerThanModifiedUtf8Limit() throws IOException {
+        // The strings are larger than the 65535 bytes supported by DataOutput#writeUTF.
+        String large = randomAlphabetic(70000);
+        PulsarRequestEntry entry =
+                new PulsarRequestEntry(
+                        randomAlphabetic(10),
+                        large,
+                        false,
+                        null,
+                        randomAlphabetic(20).getBytes(UTF_8),
+                        0,
+                        0,
+                        Collections.singletonMap(large, large + "\u4e2d\u6587"));
+
+        List<RequestEntryWrapper<PulsarRequestEntry>> entries = new ArrayList<>();
+        entries.add(new RequestEntryWrapper<>(entry, entry.getSizeInBytes()));
+        byte[] bytes = INSTANCE.serialize(new BufferedRequestState<>(entries));
+        BufferedRequestState<PulsarRequestEntry> state =
+                INSTANCE.deserialize(INSTANCE.getVersion(), bytes);
+
+        assertThat(state.getBufferedRequestEntries())
+                .extracting(RequestEntryWrapper::getRequestEntry)
+                .containsExactly(entry);
+    }
+}
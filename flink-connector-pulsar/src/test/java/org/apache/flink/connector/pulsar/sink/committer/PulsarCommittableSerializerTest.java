@@ -21,7 +21,10 @@ package org.apache.flink.connector.pulsar.sink.committer;
 import org.apache.pulsar.client.api.transaction.TxnID;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
@@ -37,17 +40,37 @@ class PulsarCommittableSerializerTest {
 
     @Test
     void committableSerDe() throws IOException {
-        String topic = randomAlphabetic(10);
         TxnID txnID =
                 new TxnID(
                         ThreadLocalRandom.current().nextLong(),
                         ThreadLocalRandom.current().nextLong());
 
-        PulsarCommittable committable = new PulsarCommittable(txnID, topic);
+        PulsarCommittable committable =
+                new PulsarCommittable(
+                        txnID, Arrays.asList(randomAlphabetic(10), randomAlphabetic(10)));
 
         byte[] bytes = INSTANCE.serialize(committable);
         PulsarCommittable committable1 = INSTANCE.deserialize(INSTANCE.getVersion(), bytes);
 
         assertThat(committable1).isEqualTo(committable);
     }
+
+    @Test
+    void deserializeCommittableInVersion1() throws IOException {
+        String topic = randomAlphabetic(10);
+        TxnID txnID =
+                new TxnID(
+                        ThreadLocalRandom.current().nextLong(),
+                        ThreadLocalRandom.current().nextLong());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeLong(txnID.getMostSigBits());
+        out.writeLong(txnID.getLeastSigBits());
+        out.writeUTF(topic);
+        out.flush();
+
+        PulsarCommittable committable = INSTANCE.deserialize(1, baos.toByteArray());
+        assertThat(committable).isEqualTo(new PulsarCommittable(txnID, topic));
+    }
 }
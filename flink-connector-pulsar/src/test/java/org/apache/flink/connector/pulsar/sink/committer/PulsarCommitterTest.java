@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.committer;
+
+import org.apache.flink.api.connector.sink2.Committer.CommitRequest;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.apache.pulsar.client.api.transaction.TransactionCoordinatorClient;
+import org.apache.pulsar.client.api.transaction.TransactionCoordinatorClientException;
+import org.apache.pulsar.client.api.transaction.TxnID;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_CONCURRENT_COMMITS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_RECOMMIT_TIMES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Unit tests for {@link PulsarCommitter}. */
+class PulsarCommitterTest {
+
+    @Test
+    void commitsArePipelinedInOrderPerShard() throws Exception {
+        int maxConcurrentCommits = 2;
+        Map<Long, List<TxnID>> committed = new ConcurrentHashMap<>();
+        Map<Long, AtomicInteger> inflight = new ConcurrentHashMap<>();
+        AtomicInteger maxInflightPerShard = new AtomicInteger();
+        AtomicInteger totalInflight = new AtomicInteger();
+        AtomicInteger maxTotalInflight = new AtomicInteger();
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        PulsarCommitter committer =
+                committer(
+                        maxConcurrentCommits,
+                        txnID -> {
+                            long shard = txnID.getMostSigBits();
+                            committed
+                                    .computeIfAbsent(shard, s -> new CopyOnWriteArrayList<>())
+                                    .add(txnID);
+                            AtomicInteger shardInflight =
+                                    inflight.computeIfAbsent(shard, s -> new AtomicInteger());
+                            maxInflightPerShard.accumulateAndGet(
+                                    shardInflight.incrementAndGet(), Math::max);
+                            maxTotalInflight.accumulateAndGet(
+                                    totalInflight.incrementAndGet(), Math::max);
+
+                            CompletableFuture<Void> future = new CompletableFuture<>();
+                            executor.schedule(
+                                    () -> {
+                                        shardInflight.decrementAndGet();
+                                        totalInflight.decrementAndGet();
+                                        future.complete(null);
+                                    },
+                                    10,
+                                    TimeUnit.MILLISECONDS);
+                            return future;
+                        });
+
+        Map<Long, List<TxnID>> expected = new HashMap<>();
+        List<MockCommitRequest> requests = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            for (long shard = 0; shard < 3; shard++) {
+                TxnID txnID = new TxnID(shard, i);
+                expected.computeIfAbsent(shard, s -> new ArrayList<>()).add(txnID);
+                requests.add(new MockCommitRequest(txnID, 0));
+            }
+        }
+
+        try {
+            committer.commit(new ArrayList<>(requests));
+        } finally {
+            executor.shutdownNow();
+            committer.close();
+        }
+
+        // The transactions of a coordinator are committed in order with limited concurrency.
+        assertThat(committed).isEqualTo(expected);
+        assertThat(maxInflightPerShard.get()).isEqualTo(maxConcurrentCommits);
+        // The coordinators are committed concurrently.
+        assertThat(maxTotalInflight.get()).isGreaterThan(maxConcurrentCommits);
+        for (MockCommitRequest request : requests) {
+            assertThat(request.result).isEqualTo(Result.COMMITTED);
+        }
+    }
+
+    @Test
+    void failureIsOnlySignaledToItsRequest() throws Exception {
+        TxnID failed = new TxnID(1, 2);
+        PulsarCommitter committer =
+                committer(
+                        1,
+                        txnID ->
+                                txnID.equals(failed)
+                                        ? failedFuture(new IllegalStateException("fatal"))
+                                        : CompletableFuture.completedFuture(null));
+
+        MockCommitRequest request1 = new MockCommitRequest(new TxnID(1, 1), 0);
+        MockCommitRequest request2 = new MockCommitRequest(failed, 0);
+        MockCommitRequest request3 = new MockCommitRequest(new TxnID(1, 3), 0);
+        MockCommitRequest request4 = new MockCommitRequest(new TxnID(2, 1), 0);
+        committer.commit(Arrays.asList(request1, request2, request3, request4));
+
+        assertThat(request1.result).isEqualTo(Result.COMMITTED);
+        assertThat(request2.result).isEqualTo(Result.FAILED_WITH_UNKNOWN_REASON);
+        assertThat(request3.result).isEqualTo(Result.COMMITTED);
+        assertThat(request4.result).isEqualTo(Result.COMMITTED);
+        committer.close();
+    }
+
+    @Test
+    void failedShardDoesNotBlockOtherShards() throws Exception {
+        TxnID failed = new TxnID(1, 1);
+        PulsarCommitter committer =
+                committer(
+                        1,
+                        txnID ->
+                                txnID.equals(failed)
+                                        ? failedFuture(retriableError())
+                                        : CompletableFuture.completedFuture(null));
+
+        MockCommitRequest request1 = new MockCommitRequest(failed, 0);
+        MockCommitRequest request2 = new MockCommitRequest(new TxnID(1, 2), 0);
+        MockCommitRequest request3 = new MockCommitRequest(new TxnID(2, 1), 0);
+        committer.commit(Arrays.asList(request1, request2, request3));
+
+        assertThat(request1.result).isEqualTo(Result.RETRY_LATER);
+        assertThat(request2.result).isEqualTo(Result.COMMITTED);
+        assertThat(request3.result).isEqualTo(Result.COMMITTED);
+        committer.close();
+    }
+
+    @Test
+    void retriableErrorsAreRetriedUntilTheLimit() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_MAX_RECOMMIT_TIMES, 3);
+        PulsarCommitter committer =
+                new PulsarCommitter(
+                        new SinkConfiguration(configuration),
+                        coordinatorClient(txnID -> failedFuture(retriableError())));
+
+        MockCommitRequest request1 = new MockCommitRequest(new TxnID(1, 1), 2);
+        MockCommitRequest request2 = new MockCommitRequest(new TxnID(1, 2), 3);
+        committer.commit(Arrays.asList(request1, request2));
+
+        assertThat(request1.result).isEqualTo(Result.RETRY_LATER);
+        assertThat(request2.result).isEqualTo(Result.FAILED_WITH_KNOWN_REASON);
+        committer.close();
+    }
+
+    @Test
+    void fatalErrorsFailTheRequests() throws Exception {
+        PulsarCommitter committer =
+                committer(1, txnID -> failedFuture(new IllegalStateException("fatal")));
+
+        MockCommitRequest request = new MockCommitRequest(new TxnID(1, 1), 0);
+        committer.commit(Collections.singletonList(request));
+
+        assertThat(request.result).isEqualTo(Result.FAILED_WITH_UNKNOWN_REASON);
+        committer.close();
+    }
+
+    @Test
+    void failureInHandlingResultsFailsTheCommit() throws Exception {
+        TxnID failed = new TxnID(1, 1);
+        PulsarCommitter committer =
+                committer(
+                        1,
+                        txnID ->
+                                txnID.equals(failed)
+                                        ? failedFuture(new IllegalStateException("fatal"))
+                                        : CompletableFuture.completedFuture(null));
+
+        MockCommitRequest request1 = new MockCommitRequest(failed, 0);
+        request1.signalFailure = new IllegalArgumentException("Broken request");
+        MockCommitRequest request2 = new MockCommitRequest(new TxnID(1, 2), 0);
+
+        // The commit should fail instead of waiting for the pipeline forever.
+        assertThatThrownBy(() -> committer.commit(Arrays.asList(request1, request2)))
+                .isInstanceOf(FlinkRuntimeException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(request2.result).isEqualTo(Result.COMMITTED);
+        committer.close();
+    }
+
+    private static PulsarCommitter committer(
+            int maxConcurrentCommits, Function<TxnID, CompletableFuture<Void>> commits) {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_MAX_CONCURRENT_COMMITS, maxConcurrentCommits);
+        return new PulsarCommitter(
+                new SinkConfiguration(configuration), coordinatorClient(commits));
+    }
+
+    /** A stub coordinator client which only supports committing the transactions. */
+    private static TransactionCoordinatorClient coordinatorClient(
+            Function<TxnID, CompletableFuture<Void>> commits) {
+        return (TransactionCoordinatorClient)
+                Proxy.newProxyInstance(
+                        PulsarCommitterTest.class.getClassLoader(),
+                        new Class<?>[] {TransactionCoordinatorClient.class},
+                        (proxy, method, args) -> {
+                            if ("commitAsync".equals(method.getName())) {
+                                return commits.apply((TxnID) args[0]);
+                            }
+                            throw new UnsupportedOperationException(method.getName());
+                        });
+    }
+
+    private static TransactionCoordinatorClientException retriableError() {
+        return new TransactionCoordinatorClientException("The coordinator is busy.");
+    }
+
+    private static CompletableFuture<Void> failedFuture(Throwable e) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private enum Result {
+        COMMITTED,
+        ALREADY_COMMITTED,
+        RETRY_LATER,
+        FAILED_WITH_KNOWN_REASON,
+        FAILED_WITH_UNKNOWN_REASON
+    }
+
+    /** A commit request which records how it's handled by the committer. */
+    private static final class MockCommitRequest implements CommitRequest<PulsarCommittable> {
+
+        private final PulsarCommittable committable;
+        private final int retries;
+        // The request is committed if no other result is signaled.
+        private volatile Result result = Result.COMMITTED;
+        // The exception thrown when signaling a failure.
+        private RuntimeException signalFailure;
+
+        private MockCommitRequest(TxnID txnID, int retries) {
+            this.committable = new PulsarCommittable(txnID, new ArrayList<>());
+            this.retries = retries;
+        }
+
+        @Override
+        public PulsarCommittable getCommittable() {
+            return committable;
+        }
+
+        @Override
+        public int getNumberOfRetries() {
+            return retries;
+        }
+
+        @Override
+        public void signalFailedWithKnownReason(Throwable t) {
+            signal(Result.FAILED_WITH_KNOWN_REASON);
+        }
+
+        @Override
+        public void signalFailedWithUnknownReason(Throwable t) {
+            signal(Result.FAILED_WITH_UNKNOWN_REASON);
+        }
+
+        @Override
+        public void retryLater() {
+            this.result = Result.RETRY_LATER;
+        }
+
+        @Override
+        public void updateAndRetryLater(PulsarCommittable committable) {
+            this.result = Result.RETRY_LATER;
+        }
+
+        @Override
+        public void signalAlreadyCommitted() {
+            this.result = Result.ALREADY_COMMITTED;
+        }
+
+        private void signal(Result failedResult) {
+            if (signalFailure != null) {
+                throw signalFailure;
+            }
+            this.result = failedResult;
+        }
+    }
+}
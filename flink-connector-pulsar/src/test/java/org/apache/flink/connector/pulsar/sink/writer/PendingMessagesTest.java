@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Unit tests for {@link PendingMessages}. */
+class PendingMessagesTest {
+
+    @Test
+    void awaitWithoutPendingMessages() throws Exception {
+        PendingMessages pendingMessages = new PendingMessages();
+        assertThat(pendingMessages.awaitCompletion(0)).isTrue();
+        assertThat(pendingMessages.awaitCompletion(10)).isTrue();
+    }
+
+    @Test
+    void awaitTimeoutWithPendingMessages() throws Exception {
+        PendingMessages pendingMessages = new PendingMessages();
+        pendingMessages.add(0);
+
+        assertThat(pendingMessages.awaitCompletion(10)).isFalse();
+        assertThat(pendingMessages.getMessages()).isOne();
+    }
+
+    @Test
+    void awaitUntilMessagesCompletedInOtherThread() throws Exception {
+        PendingMessages pendingMessages = new PendingMessages();
+        pendingMessages.add(0);
+        pendingMessages.add(0);
+
+        CompletableFuture.runAsync(
+                () -> {
+                    sleep();
+                    pendingMessages.complete(0, null);
+                    pendingMessages.complete(0, null);
+                });
+
+        assertThat(pendingMessages.awaitCompletion(0)).isTrue();
+        assertThat(pendingMessages.getMessages()).isZero();
+        assertThat(pendingMessages.getFailure()).isNull();
+    }
+
+    @Test
+    void recordTheFirstFailure() throws Exception {
+        PendingMessages pendingMessages = new PendingMessages();
+        pendingMessages.add(0);
+        pendingMessages.add(0);
+
+        IllegalStateException first = new IllegalStateException("first");
+        pendingMessages.complete(0, first);
+        pendingMessages.complete(0, new IllegalStateException("second"));
+
+        assertThat(pendingMessages.awaitCompletion(10)).isTrue();
+        assertThat(pendingMessages.getFailure()).isSameAs(first);
+    }
+
+    @Test
+    void inflightWindowIsLimitedByMessagesAndBytes() {
+        PendingMessages pendingMessages = new PendingMessages();
+        assertThat(pendingMessages.isFull(1, 10)).isFalse();
+
+        // A single large message is always allowed.
+        pendingMessages.add(100);
+        assertThat(pendingMessages.isFull(-1, -1)).isFalse();
+        assertThat(pendingMessages.isFull(2, -1)).isFalse();
+        assertThat(pendingMessages.isFull(-1, 100)).isTrue();
+
+        pendingMessages.add(1);
+        assertThat(pendingMessages.isFull(2, -1)).isTrue();
+        assertThat(pendingMessages.getBytes()).isEqualTo(101);
+
+        pendingMessages.complete(100, null);
+        assertThat(pendingMessages.isFull(2, 100)).isFalse();
+        assertThat(pendingMessages.getBytes()).isOne();
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
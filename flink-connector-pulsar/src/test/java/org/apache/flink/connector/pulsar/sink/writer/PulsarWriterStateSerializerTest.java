@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer;
+
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
+
+import org.apache.pulsar.client.api.transaction.TxnID;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for serializing and deserializing {@link PulsarWriterState} with {@link
+ * PulsarWriterStateSerializer}.
+ */
+class PulsarWriterStateSerializerTest {
+
+    private static final PulsarWriterStateSerializer INSTANCE = new PulsarWriterStateSerializer();
+
+    @Test
+    void writerStateSerDe() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        TxnID txnID1 = new TxnID(random.nextLong(), random.nextLong());
+        TxnID txnID2 = new TxnID(random.nextLong(), random.nextLong());
+
+        PulsarWriterState state = new PulsarWriterState(Arrays.asList(txnID1, txnID2));
+
+        byte[] bytes = INSTANCE.serialize(state);
+        PulsarWriterState state1 = INSTANCE.deserialize(INSTANCE.getVersion(), bytes);
+
+        assertThat(state1).isEqualTo(state);
+    }
+
+    @Test
+    void writerStateWithSpilledMessagesSerDe() throws IOException {
+        PulsarRequestEntry message =
+                new PulsarRequestEntry(
+                        randomAlphabetic(10),
+                        randomAlphabetic(5),
+                        false,
+                        null,
+                        randomAlphabetic(20).getBytes(UTF_8),
+                        System.currentTimeMillis(),
+                        0,
+                        Collections.singletonMap("k", "v"));
+        PulsarWriterState state =
+                new PulsarWriterState(Collections.emptyList(), Collections.singletonList(message));
+
+        byte[] bytes = INSTANCE.serialize(state);
+        PulsarWriterState state1 = INSTANCE.deserialize(INSTANCE.getVersion(), bytes);
+
+        assertThat(state1).isEqualTo(state);
+        assertThat(state1.getSpilledMessages()).containsExactly(message);
+    }
+
+    @Test
+    void writerStateWithSequenceIdsSerDe() throws IOException {
+        Map<String, Long> sequenceIds = new HashMap<>();
+        sequenceIds.put(randomAlphabetic(10), 42L);
+        sequenceIds.put(randomAlphabetic(10), 0L);
+        PulsarWriterState state =
+                new PulsarWriterState(
+                        Collections.emptyList(),
+                        Collections.emptyList(),
+                        sequenceIds,
+                        randomAlphabetic(10) + " - 0");
+
+        byte[] bytes = INSTANCE.serialize(state);
+        PulsarWriterState state1 = INSTANCE.deserialize(INSTANCE.getVersion(), bytes);
+
+        assertThat(state1).isEqualTo(state);
+        assertThat(state1.getSequenceIds()).isEqualTo(sequenceIds);
+        assertThat(state1.getProducerName()).isEqualTo(state.getProducerName());
+    }
+}
@@ -28,13 +28,17 @@ import org.apache.flink.api.connector.sink2.SinkWriter;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.connector.base.DeliveryGuarantee;
 import org.apache.flink.connector.pulsar.common.crypto.PulsarCrypto;
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
 import org.apache.flink.connector.pulsar.sink.committer.PulsarCommittable;
 import org.apache.flink.connector.pulsar.sink.config.SinkConfiguration;
 import org.apache.flink.connector.pulsar.sink.writer.context.PulsarSinkContext;
 import org.apache.flink.connector.pulsar.sink.writer.delayer.FixedMessageDelayer;
 import org.apache.flink.connector.pulsar.sink.writer.delayer.MessageDelayer;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessageSink;
 import org.apache.flink.connector.pulsar.sink.writer.router.RoundRobinTopicRouter;
 import org.apache.flink.connector.pulsar.sink.writer.router.TopicRouter;
+import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarDirectSerializationSchema;
 import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarSchemaWrapper;
 import org.apache.flink.connector.pulsar.sink.writer.serializer.PulsarSerializationSchema;
 import org.apache.flink.connector.pulsar.sink.writer.topic.MetadataListener;
@@ -44,27 +48,45 @@ import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.metrics.groups.OperatorIOMetricGroup;
 import org.apache.flink.metrics.groups.SinkWriterMetricGroup;
 import org.apache.flink.metrics.testutils.MetricListener;
-import org.apache.flink.runtime.mailbox.SyncMailboxExecutor;
 import org.apache.flink.runtime.metrics.groups.InternalSinkWriterMetricGroup;
 import org.apache.flink.runtime.metrics.groups.UnregisteredMetricGroups;
+import org.apache.flink.streaming.runtime.tasks.StreamTaskActionExecutor;
 import org.apache.flink.streaming.runtime.tasks.TestProcessingTimeService;
+import org.apache.flink.streaming.runtime.tasks.mailbox.MailboxExecutorImpl;
+import org.apache.flink.streaming.runtime.tasks.mailbox.TaskMailboxImpl;
 import org.apache.flink.util.UserCodeClassLoader;
 
+import org.apache.pulsar.client.api.Message;
+import org.apache.pulsar.client.api.Schema;
+import org.apache.pulsar.client.api.SchemaSerializationException;
 import org.apache.pulsar.client.api.transaction.TransactionCoordinatorClient;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.OptionalLong;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
 import static org.apache.flink.connector.base.DeliveryGuarantee.EXACTLY_ONCE;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_DEDUPLICATION;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_NAME;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SPILL_DIRECTORY;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_SPILL_MAX_BYTES;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_VALIDATE_SINK_MESSAGE_BYTES;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_WRITE_SCHEMA_EVOLUTION;
+import static org.apache.flink.util.ExceptionUtils.findThrowable;
 import static org.apache.pulsar.client.api.Schema.STRING;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /** Unit tests for {@link PulsarWriter}. */
 class PulsarWriterTest extends PulsarTestSuiteBase {
@@ -89,6 +111,194 @@ class PulsarWriterTest extends PulsarTestSuiteBase {
         writeMessageAndVerify(DeliveryGuarantee.AT_LEAST_ONCE, listener, topic);
     }
 
+    @Test
+    void slowTopicDoesNotBlockOtherTopics() throws Exception {
+        String slowTopic = "slow-topic-" + randomAlphabetic(10);
+        String readyTopic = "ready-topic-" + randomAlphabetic(10);
+        SinkConfiguration configuration = sinkConfiguration(DeliveryGuarantee.AT_LEAST_ONCE);
+        PulsarWriter<String> writer =
+                new PulsarWriter<>(
+                        configuration,
+                        new PulsarSchemaWrapper<>(STRING),
+                        new MetadataListener(),
+                        new PrefixTopicRouter(),
+                        MessageDelayer.never(),
+                        PulsarCrypto.disabled(),
+                        new MockInitContext());
+
+        // Create the producer of the ready topic.
+        writer.write(readyTopic + ":0", CONTEXT);
+        writer.flush(false);
+
+        // The producer of the slow topic couldn't be registered until the mailbox is processed.
+        int records = 100;
+        for (int i = 0; i < records; i++) {
+            writer.write(slowTopic + ":" + i, CONTEXT);
+            writer.write(readyTopic + ":" + (i + 1), CONTEXT);
+        }
+
+        // The messages for the ready topic are sent without waiting for the slow topic.
+        List<String> readyMessages =
+                values(operator().receiveMessages(readyTopic, STRING, records + 1));
+        assertThat(readyMessages).hasSize(records + 1).endsWith(readyTopic + ":" + records);
+
+        // No queued message for the slow topic is lost and the order is kept.
+        writer.flush(false);
+        List<String> slowMessages = values(operator().receiveMessages(slowTopic, STRING, records));
+        List<String> expected = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            expected.add(slowTopic + ":" + i);
+        }
+        assertThat(slowMessages).containsExactlyElementsOf(expected);
+
+        writer.close();
+    }
+
+    @Test
+    void spilledMessagesAreResentInOrderAfterRestoring(@TempDir File directory) throws Exception {
+        String topic = "spill-topic-" + randomAlphabetic(10);
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_SPILL_MAX_BYTES, 1024 * 1024L);
+        configuration.set(PULSAR_SPILL_DIRECTORY, directory.getAbsolutePath());
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+
+        PulsarWriter<String> writer1 =
+                prefixRoutingWriter(
+                        sinkConfiguration, new PulsarSchemaWrapper<>(STRING), emptyList());
+        writer1.write(topic + ":0", CONTEXT);
+        writer1.flush(false);
+
+        // The terminated topic fails the messages with a retriable error, they are spilled.
+        operator().admin().topics().terminateTopic(topic);
+        int records = 10;
+        List<String> expected = new ArrayList<>(records + 1);
+        for (int i = 1; i <= records; i++) {
+            writer1.write(topic + ":" + i, CONTEXT);
+            expected.add(topic + ":" + i);
+        }
+        // The message of a new topic is spilled without creating its producer.
+        String otherTopic = "spill-other-topic-" + randomAlphabetic(10);
+        writer1.write(otherTopic + ":0", CONTEXT);
+        writer1.flush(false);
+
+        List<PulsarWriterState> states = writer1.snapshotState(1);
+        assertThat(states).hasSize(1);
+        List<String> spilled = new ArrayList<>(records);
+        for (PulsarRequestEntry entry : states.get(0).getSpilledMessages()) {
+            spilled.add(new String(entry.getValue(), UTF_8));
+        }
+        List<String> expectedSpilled = new ArrayList<>(expected);
+        expectedSpilled.add(otherTopic + ":0");
+        assertThat(spilled).containsExactlyElementsOf(expectedSpilled);
+        writer1.close();
+
+        // The spilled messages are resent before the new records after restoring.
+        operator().deleteTopic(topic);
+        PulsarWriter<String> writer2 =
+                prefixRoutingWriter(sinkConfiguration, new PulsarSchemaWrapper<>(STRING), states);
+        writer2.write(topic + ":" + (records + 1), CONTEXT);
+        expected.add(topic + ":" + (records + 1));
+        writer2.flush(true);
+
+        List<String> messages = values(operator().receiveMessages(topic, STRING, records + 1));
+        assertThat(messages).containsExactlyElementsOf(expected);
+        assertThat(operator().receiveMessage(otherTopic, STRING).getValue())
+                .isEqualTo(otherTopic + ":0");
+
+        writer2.close();
+        assertThat(directory.listFiles()).isEmpty();
+    }
+
+    @Test
+    void writeDirectBuffersToPulsar() throws Exception {
+        String topic = "buffer-topic-" + randomAlphabetic(10);
+        SinkConfiguration configuration = sinkConfiguration(DeliveryGuarantee.AT_LEAST_ONCE);
+        PulsarWriter<String> writer =
+                prefixRoutingWriter(configuration, new DirectBufferSchema(), emptyList());
+
+        String element = topic + ":" + randomAlphabetic(10);
+        writer.write(element, CONTEXT);
+        writer.flush(false);
+
+        assertThat(operator().receiveMessage(topic, STRING).getValue()).isEqualTo(element);
+        writer.close();
+    }
+
+    @Test
+    void directBuffersAreValidatedWithSchemaCheck() throws Exception {
+        String topic = "buffer-topic-" + randomAlphabetic(10);
+        operator().createTopic(topic, 0);
+        operator().createSchema(topic, Schema.INT16);
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_VALIDATE_SINK_MESSAGE_BYTES, true);
+        PulsarWriter<String> writer =
+                prefixRoutingWriter(
+                        new SinkConfiguration(configuration),
+                        new DirectBufferSchema(),
+                        emptyList());
+
+        // The serialized element isn't a valid INT16 value.
+        assertThatThrownBy(
+                        () -> {
+                            writer.write(topic + ":" + randomAlphabetic(10), CONTEXT);
+                            writer.flush(false);
+                        })
+                .satisfies(
+                        e ->
+                                assertThat(findThrowable(e, SchemaSerializationException.class))
+                                        .isPresent());
+        writer.close();
+    }
+
+    @Test
+    void sequenceIdsOfMessagesAreRejectedInDeduplicationMode() throws Exception {
+        String topic = "dedup-topic-" + randomAlphabetic(10);
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_ENABLE_DEDUPLICATION, true);
+        configuration.set(PULSAR_PRODUCER_NAME, randomAlphabetic(10) + " - %s");
+        PulsarSerializationSchema<String> schema =
+                (element, sinkContext) ->
+                        PulsarMessage.builder(STRING, element).sequenceId(1L).build();
+        PulsarWriter<String> writer =
+                prefixRoutingWriter(new SinkConfiguration(configuration), schema, emptyList());
+
+        // The user sequence id would break the sequence ids assigned by the writer.
+        assertThatThrownBy(
+                        () -> {
+                            writer.write(topic + ":" + randomAlphabetic(10), CONTEXT);
+                            writer.flush(false);
+                        })
+                .satisfies(
+                        e ->
+                                assertThat(findThrowable(e, IllegalArgumentException.class))
+                                        .isPresent());
+        writer.close();
+    }
+
+    private PulsarWriter<String> prefixRoutingWriter(
+            SinkConfiguration configuration,
+            PulsarSerializationSchema<String> schema,
+            Collection<PulsarWriterState> recoveredStates)
+            throws Exception {
+        return new PulsarWriter<>(
+                configuration,
+                schema,
+                new MetadataListener(),
+                new PrefixTopicRouter(),
+                MessageDelayer.never(),
+                PulsarCrypto.disabled(),
+                new MockInitContext(),
+                recoveredStates);
+    }
+
+    private static List<String> values(List<Message<String>> messages) {
+        List<String> values = new ArrayList<>(messages.size());
+        for (Message<String> message : messages) {
+            values.add(message.getValue());
+        }
+        return values;
+    }
+
     private void writeMessageAndVerify(
             DeliveryGuarantee guarantee, MetadataListener listener, String topic) throws Exception {
         SinkConfiguration configuration = sinkConfiguration(guarantee);
@@ -160,12 +370,39 @@ class PulsarWriterTest extends PulsarTestSuiteBase {
         }
     }
 
+    /** Route the record by its prefix before the colon. */
+    private static class PrefixTopicRouter implements TopicRouter<String> {
+        private static final long serialVersionUID = 4718309461262540235L;
+
+        @Override
+        public TopicPartition route(
+                String in, String key, List<TopicPartition> partitions, PulsarSinkContext context) {
+            return new TopicPartition(in.substring(0, in.indexOf(':')));
+        }
+    }
+
+    /** Serialize the whole element into a direct buffer. */
+    private static class DirectBufferSchema implements PulsarDirectSerializationSchema<String> {
+        private static final long serialVersionUID = 6411632425162453418L;
+
+        @Override
+        public void serialize(
+                String element, PulsarSinkContext sinkContext, PulsarMessageSink messageSink) {
+            byte[] bytes = element.getBytes(UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+            messageSink.value(buffer);
+        }
+    }
+
     private static class MockInitContext implements InitContext {
 
         private final MetricListener metricListener;
         private final OperatorIOMetricGroup ioMetricGroup;
         private final SinkWriterMetricGroup metricGroup;
         private final ProcessingTimeService timeService;
+        private final MailboxExecutor mailboxExecutor;
 
         private MockInitContext() {
             this.metricListener = new MetricListener();
@@ -175,6 +412,12 @@ class PulsarWriterTest extends PulsarTestSuiteBase {
             MetricGroup metricGroup = metricListener.getMetricGroup();
             this.metricGroup = InternalSinkWriterMetricGroup.mock(metricGroup, ioMetricGroup);
             this.timeService = new TestProcessingTimeService();
+            // The mails are only processed when the writer yields in the test thread, like a task.
+            this.mailboxExecutor =
+                    new MailboxExecutorImpl(
+                            new TaskMailboxImpl(Thread.currentThread()),
+                            0,
+                            StreamTaskActionExecutor.IMMEDIATE);
         }
 
         @Override
@@ -184,7 +427,7 @@ class PulsarWriterTest extends PulsarTestSuiteBase {
 
         @Override
         public MailboxExecutor getMailboxExecutor() {
-            return new SyncMailboxExecutor();
+            return mailboxExecutor;
         }
 
         @Override
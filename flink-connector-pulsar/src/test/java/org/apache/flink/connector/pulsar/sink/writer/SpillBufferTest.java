@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer;
+
+import org.apache.flink.connector.pulsar.sink.async.PulsarRequestEntry;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Unit tests for {@link SpillBuffer}. */
+class SpillBufferTest {
+
+    @TempDir File directory;
+
+    @Test
+    void messagesAreReadInOrderAcrossSegments() throws IOException {
+        try (SpillBuffer buffer = new SpillBuffer(directory, 1024)) {
+            List<PulsarRequestEntry> messages = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                PulsarRequestEntry message = message(i);
+                messages.add(message);
+                assertThat(buffer.add(message)).isTrue();
+            }
+
+            assertThat(buffer.getMessages()).isEqualTo(20);
+            assertThat(buffer.peek(5)).isEqualTo(messages.subList(0, 5));
+            // Peek doesn't remove the messages.
+            assertThat(buffer.peek(20)).isEqualTo(messages);
+
+            buffer.remove(15);
+            assertThat(buffer.getMessages()).isEqualTo(5);
+            assertThat(buffer.peek(20)).isEqualTo(messages.subList(15, 20));
+
+            buffer.remove(5);
+            assertThat(buffer.isEmpty()).isTrue();
+            assertThat(buffer.getBytes()).isZero();
+            assertThat(segmentFiles()).isEmpty();
+        }
+
+        assertThat(directory.listFiles()).isEmpty();
+    }
+
+    @Test
+    void orphanedSegmentsAreDeletedWhenOpening() throws IOException {
+        // The lock file and the segment file left by a crashed writer, the lock is released.
+        String prefix = "pulsar-sink-spill-" + UUID.randomUUID();
+        Files.createFile(new File(directory, prefix + ".lock").toPath());
+        Files.createFile(new File(directory, prefix + "-0.segment").toPath());
+
+        try (SpillBuffer buffer1 = new SpillBuffer(directory, 1024)) {
+            assertThat(segmentFiles()).isEmpty();
+            assertThat(buffer1.add(message(0))).isTrue();
+
+            // The segments of the opened buffer are kept.
+            try (SpillBuffer buffer2 = new SpillBuffer(directory, 1024)) {
+                assertThat(buffer2.isEmpty()).isTrue();
+                assertThat(segmentFiles()).hasSize(1);
+                assertThat(buffer1.peek(1)).containsExactly(message(0));
+            }
+        }
+
+        assertThat(directory.listFiles()).isEmpty();
+    }
+
+    @Test
+    void rejectMessagesWhenBufferIsFull() throws IOException {
+        try (SpillBuffer buffer = new SpillBuffer(directory, 256)) {
+            int added = 0;
+            while (buffer.add(message(added))) {
+                added++;
+            }
+
+            assertThat(added).isPositive();
+            assertThat(buffer.getBytes()).isLessThanOrEqualTo(256);
+
+            // The space is reclaimed after removing the messages.
+            buffer.remove(added);
+            assertThat(buffer.add(message(added))).isTrue();
+        }
+    }
+
+    @Test
+    void peekAllMessagesWithNonPositiveLimit() throws IOException {
+        try (SpillBuffer buffer = new SpillBuffer(directory, 1024)) {
+            assertThat(buffer.peek(-1)).isEmpty();
+
+            List<PulsarRequestEntry> messages = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                PulsarRequestEntry message = message(i);
+                messages.add(message);
+                assertThat(buffer.add(message)).isTrue();
+            }
+
+            assertThat(buffer.peek(-1)).isEqualTo(messages);
+            assertThat(buffer.peek(0)).isEqualTo(messages);
+        }
+    }
+
+    private File[] segmentFiles() {
+        return directory.listFiles((dir, name) -> name.endsWith(".segment"));
+    }
+
+    private PulsarRequestEntry message(int index) {
+        return new PulsarRequestEntry(
+                "persistent://public/default/spill-topic",
+                "key-" + index,
+                false,
+                null,
+                ("value-" + index).getBytes(UTF_8),
+                index,
+                0,
+                Collections.emptyMap());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.serializer;
+
+import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.connector.pulsar.sink.writer.message.PulsarMessage;
+import org.apache.flink.connector.pulsar.sink.writer.message.ReusablePulsarMessage;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Unit tests for {@link PulsarDirectSerializationSchema}. */
+class PulsarDirectSerializationSchemaTest {
+
+    @Test
+    void serializeIntoReusableMessage() {
+        PulsarDirectSerializationSchema<String> schema =
+                new PulsarSerializationSchemaWrapper<>(new SimpleStringSchema());
+        ReusablePulsarMessage message = new ReusablePulsarMessage();
+
+        String value = randomAlphabetic(10);
+        message.key(randomAlphabetic(5)).eventTime(100L).property("k", "v");
+        message.reset();
+        schema.serialize(value, null, message);
+
+        assertThat(message.getValue()).isEqualTo(value.getBytes(UTF_8));
+        assertThat(message.getKey()).isNull();
+        assertThat(message.getEventTime()).isZero();
+        assertThat(message.getProperties()).isEmpty();
+    }
+
+    @Test
+    void serializeIntoPulsarMessageByDefault() {
+        PulsarDirectSerializationSchema<String> schema =
+                (element, sinkContext, messageSink) ->
+                        messageSink
+                                .value(element.getBytes(UTF_8))
+                                .keyBytes(element.getBytes(UTF_8))
+                                .property("k", "v");
+
+        String value = randomAlphabetic(10);
+        PulsarMessage<?> message = schema.serialize(value, null);
+
+        assertThat(message.getValue()).isEqualTo(value.getBytes(UTF_8));
+        assertThat(message.isBase64EncodedKey()).isTrue();
+        assertThat(message.getProperties()).containsEntry("k", "v");
+    }
+}
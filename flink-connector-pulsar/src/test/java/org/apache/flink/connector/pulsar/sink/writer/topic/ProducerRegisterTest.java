@@ -30,18 +30,31 @@ import org.apache.pulsar.client.api.Schema;
 import org.apache.pulsar.client.api.SchemaSerializationException;
 import org.apache.pulsar.client.api.TypedMessageBuilder;
 import org.apache.pulsar.client.api.transaction.TransactionCoordinatorClient;
+import org.apache.pulsar.client.api.transaction.TransactionCoordinatorClientException;
 import org.apache.pulsar.client.api.transaction.TxnID;
+import org.apache.pulsar.client.impl.TypedMessageBuilderImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
 import static org.apache.flink.connector.base.DeliveryGuarantee.EXACTLY_ONCE;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_DEDUPLICATION;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_ENABLE_PARTITIONED_PRODUCER;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_MAX_PRODUCERS;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_IDLE_TIMEOUT;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_PRODUCER_NAME;
+import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_TRANSACTION_POOL_SIZE;
 import static org.apache.flink.connector.pulsar.sink.PulsarSinkOptions.PULSAR_VALIDATE_SINK_MESSAGE_BYTES;
+import static org.apache.flink.connector.pulsar.source.enumerator.topic.TopicNameUtils.topicNameWithPartition;
 import static org.apache.flink.metrics.groups.UnregisteredMetricsGroup.createSinkWriterMetricGroup;
+import static org.apache.pulsar.shade.com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -99,6 +112,293 @@ class ProducerRegisterTest extends PulsarTestSuiteBase {
         assertThat(committables).isEmpty();
     }
 
+    @Test
+    void createNewTransactionAfterPrepareCommit() throws Exception {
+        String topic = randomAlphabetic(10);
+        operator().createTopic(topic, 8);
+
+        SinkConfiguration configuration =
+                new SinkConfiguration(operator().sinkConfig(EXACTLY_ONCE));
+        ProducerRegister register =
+                new ProducerRegister(
+                        configuration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+
+        register.createMessageBuilder(topic, Schema.STRING).value(randomAlphabetic(10)).send();
+        register.createMessageBuilder(topic, Schema.STRING).value(randomAlphabetic(10)).send();
+        List<PulsarCommittable> committables1 = register.prepareCommit();
+        assertThat(committables1).hasSize(1);
+
+        register.createMessageBuilder(topic, Schema.STRING).value(randomAlphabetic(10)).send();
+        List<PulsarCommittable> committables2 = register.prepareCommit();
+        assertThat(committables2).hasSize(1);
+        assertThat(committables2.get(0).getTxnID()).isNotEqualTo(committables1.get(0).getTxnID());
+
+        register.close();
+    }
+
+    @Test
+    void topicsShareTheTransactionInCheckpoint() throws Exception {
+        String topic1 = randomAlphabetic(10);
+        String topic2 = randomAlphabetic(10);
+        operator().createTopic(topic1, 1);
+        operator().createTopic(topic2, 1);
+
+        SinkConfiguration configuration =
+                new SinkConfiguration(operator().sinkConfig(EXACTLY_ONCE));
+        ProducerRegister register =
+                new ProducerRegister(
+                        configuration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+
+        register.createMessageBuilder(topic1, Schema.STRING).value(randomAlphabetic(10)).send();
+        register.createMessageBuilder(topic2, Schema.STRING).value(randomAlphabetic(10)).send();
+        List<PulsarCommittable> committables = register.prepareCommit();
+        assertThat(committables).hasSize(1);
+        assertThat(committables.get(0).getTopics()).containsExactly(topic1, topic2);
+
+        register.close();
+    }
+
+    @Test
+    void abortLingeringTransactionsAfterRestoring() throws Exception {
+        SinkConfiguration configuration =
+                new SinkConfiguration(operator().sinkConfig(EXACTLY_ONCE));
+        ProducerRegister register1 =
+                new ProducerRegister(
+                        configuration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+        List<TxnID> transactions = register1.snapshotTransactions();
+        // The reserved transaction of the next checkpoint and the pooled transaction.
+        assertThat(transactions).hasSize(2);
+
+        ProducerRegister register2 =
+                new ProducerRegister(
+                        configuration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+        register2.abortLingeringTransactions(transactions);
+
+        TransactionCoordinatorClient coordinatorClient = operator().coordinatorClient();
+        for (TxnID txnID : transactions) {
+            assertThatThrownBy(() -> coordinatorClient.commit(txnID))
+                    .isInstanceOf(TransactionCoordinatorClientException.class);
+        }
+
+        register1.close();
+        register2.close();
+    }
+
+    @Test
+    void abortUsedTransactionAfterRestoringWithoutPool() throws Exception {
+        String topic = randomAlphabetic(10);
+        operator().createTopic(topic, 1);
+
+        Configuration configuration = operator().sinkConfig(EXACTLY_ONCE);
+        configuration.set(PULSAR_TRANSACTION_POOL_SIZE, 0);
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+        ProducerRegister register1 =
+                new ProducerRegister(
+                        sinkConfiguration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+        List<TxnID> transactions = register1.snapshotTransactions();
+        assertThat(transactions).hasSize(1);
+
+        // The transaction created after the snapshot should be the recorded one.
+        register1.createMessageBuilder(topic, Schema.STRING).value(randomAlphabetic(10)).send();
+        List<PulsarCommittable> committables = register1.prepareCommit();
+        assertThat(committables).hasSize(1);
+        TxnID txnID = committables.get(0).getTxnID();
+        assertThat(transactions).containsExactly(txnID);
+
+        ProducerRegister register2 =
+                new ProducerRegister(
+                        sinkConfiguration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+        register2.abortLingeringTransactions(transactions);
+
+        TransactionCoordinatorClient coordinatorClient = operator().coordinatorClient();
+        assertThatThrownBy(() -> coordinatorClient.commit(txnID))
+                .isInstanceOf(TransactionCoordinatorClientException.class);
+
+        register1.close();
+        register2.close();
+    }
+
+    @Test
+    void evictLeastRecentlyUsedProducers() throws Exception {
+        String topic1 = randomAlphabetic(10);
+        String topic2 = randomAlphabetic(10);
+        operator().createTopic(topic1, 1);
+        operator().createTopic(topic2, 1);
+
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_MAX_PRODUCERS, 1);
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+        ProducerRegister register =
+                new ProducerRegister(
+                        sinkConfiguration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+
+        register.createMessageBuilder(topic1, Schema.STRING).value(randomAlphabetic(10)).send();
+        register.createMessageBuilder(topic2, Schema.STRING).value(randomAlphabetic(10)).send();
+        assertThat(register.getProducerCount()).isEqualTo(2);
+
+        register.evictProducers();
+        assertThat(register.getProducerCount()).isEqualTo(1);
+
+        // The evicted producer would be recreated.
+        String message = randomAlphabetic(10);
+        register.createMessageBuilder(topic1, Schema.STRING).value(message).send();
+        assertThat(register.getProducerCount()).isEqualTo(2);
+
+        register.close();
+    }
+
+    @Test
+    void evictIdleProducersCreatedInBackground() throws Exception {
+        String topic = randomAlphabetic(10);
+        operator().createTopic(topic, 1);
+
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_PRODUCER_IDLE_TIMEOUT, 100L);
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+        ProducerRegister register =
+                new ProducerRegister(
+                        sinkConfiguration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+
+        // The producer is never used for writing.
+        register.createProducerAsync(topic, Schema.STRING, Runnable::run).get();
+        assertThat(register.getProducerCount()).isEqualTo(1);
+
+        sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+        register.evictProducers();
+        assertThat(register.getProducerCount()).isZero();
+        assertThat(register.isProducerReady(topic, Schema.STRING)).isFalse();
+
+        register.close();
+    }
+
+    @Test
+    void createProducerInBackground() throws Exception {
+        String topic = randomAlphabetic(10);
+        operator().createTopic(topic, 1);
+
+        SinkConfiguration configuration =
+                new SinkConfiguration(operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE));
+        ProducerRegister register =
+                new ProducerRegister(
+                        configuration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+
+        assertThat(register.isProducerReady(topic, Schema.STRING)).isFalse();
+        register.createProducerAsync(topic, Schema.STRING, Runnable::run).get();
+        assertThat(register.isProducerReady(topic, Schema.STRING)).isTrue();
+        assertThat(register.isProducerReady(topic, Schema.BYTES)).isFalse();
+
+        String message = randomAlphabetic(10);
+        register.createMessageBuilder(topic, Schema.STRING).value(message).send();
+        assertThat(register.getProducerCount()).isEqualTo(1);
+
+        Message<String> receiveMessage = operator().receiveMessage(topic, Schema.STRING);
+        assertThat(receiveMessage.getValue()).isEqualTo(message);
+
+        register.close();
+    }
+
+    @Test
+    void partitionsShareThePartitionedProducer() throws Exception {
+        String topic = randomAlphabetic(10);
+        operator().createTopic(topic, 4);
+
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_ENABLE_PARTITIONED_PRODUCER, true);
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+        ProducerRegister register =
+                new ProducerRegister(
+                        sinkConfiguration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+
+        String partition1 = topicNameWithPartition(topic, 1);
+        String partition3 = topicNameWithPartition(topic, 3);
+        String message1 = randomAlphabetic(10);
+        String message3 = randomAlphabetic(10);
+        register.createMessageBuilder(partition1, Schema.STRING).value(message1).send();
+        register.createMessageBuilder(partition3, Schema.STRING).value(message3).send();
+        assertThat(register.getProducerCount()).isEqualTo(1);
+        assertThat(register.isProducerReady(partition1, Schema.STRING)).isTrue();
+
+        // The messages should be sent to the chosen partitions.
+        Message<String> receiveMessage1 = operator().receiveMessage(partition1, Schema.STRING);
+        assertThat(receiveMessage1.getValue()).isEqualTo(message1);
+        Message<String> receiveMessage3 = operator().receiveMessage(partition3, Schema.STRING);
+        assertThat(receiveMessage3.getValue()).isEqualTo(message3);
+
+        register.close();
+    }
+
+    @Test
+    void sequenceIdsAreRestoredInDeduplication() throws Exception {
+        String topic = randomAlphabetic(10);
+        operator().createTopic(topic, 2);
+        String partition = topicNameWithPartition(topic, 0);
+
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_ENABLE_DEDUPLICATION, true);
+        configuration.set(PULSAR_PRODUCER_NAME, randomAlphabetic(10) + " - %s");
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+
+        ProducerRegister register1 =
+                new ProducerRegister(
+                        sinkConfiguration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+        for (int i = 0; i < 3; i++) {
+            TypedMessageBuilder<String> builder =
+                    register1.createMessageBuilder(partition, Schema.STRING);
+            assertThat(sequenceId(builder)).isEqualTo(i);
+            builder.value(randomAlphabetic(10)).send();
+        }
+        Map<String, Long> sequenceIds = register1.snapshotSequenceIds();
+        assertThat(sequenceIds).containsEntry(partition, 2L);
+        register1.close();
+
+        // The restored register continues the sequence ids in the checkpoint.
+        ProducerRegister register2 =
+                new ProducerRegister(
+                        sinkConfiguration, PulsarCrypto.disabled(), createSinkWriterMetricGroup());
+        register2.restoreSequenceIds(
+                register1.getProducerName(), Collections.singletonMap(partition, 1L));
+        assertThat(sequenceId(register2.createMessageBuilder(partition, Schema.STRING)))
+                .isEqualTo(2);
+        register2.close();
+    }
+
+    @Test
+    void sequenceIdsOfOtherSubtasksAreNotRestored() throws Exception {
+        Configuration configuration = operator().sinkConfig(DeliveryGuarantee.AT_LEAST_ONCE);
+        configuration.set(PULSAR_ENABLE_DEDUPLICATION, true);
+        configuration.set(PULSAR_PRODUCER_NAME, randomAlphabetic(10) + " - %s");
+        SinkConfiguration sinkConfiguration = new SinkConfiguration(configuration);
+
+        ProducerRegister register0 =
+                new ProducerRegister(
+                        sinkConfiguration,
+                        PulsarCrypto.disabled(),
+                        createSinkWriterMetricGroup(),
+                        0);
+        ProducerRegister register1 =
+                new ProducerRegister(
+                        sinkConfiguration,
+                        PulsarCrypto.disabled(),
+                        createSinkWriterMetricGroup(),
+                        1);
+        assertThat(register0.getProducerName()).isNotEqualTo(register1.getProducerName());
+
+        // The state of subtask 1 is assigned to subtask 0 after changing the parallelism.
+        Map<String, Long> sequenceIds = Collections.singletonMap(randomAlphabetic(10), 1L);
+        assertThatThrownBy(
+                        () ->
+                                register0.restoreSequenceIds(
+                                        register1.getProducerName(), sequenceIds))
+                .isInstanceOf(IllegalStateException.class);
+
+        register0.close();
+        register1.close();
+    }
+
+    private long sequenceId(TypedMessageBuilder<?> builder) {
+        return ((TypedMessageBuilderImpl<?>) builder).getMetadataBuilder().getSequenceId();
+    }
+
     @Test
     void sendMessageBytesWithWrongSchemaAndEnableCheck() throws Exception {
         String topic = randomAlphabetic(10);
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.sink.writer.topic;
+
+import org.apache.flink.connector.pulsar.testutils.PulsarTestSuiteBase;
+
+import org.apache.pulsar.client.api.transaction.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Unit tests for {@link TransactionPool}. */
+class TransactionPoolTest extends PulsarTestSuiteBase {
+
+    @Test
+    void acquireOpenedTransactions() throws Exception {
+        TransactionPool pool =
+                new TransactionPool(operator().client(), TimeUnit.MINUTES.toMillis(5), 2);
+
+        Transaction transaction1 = pool.acquire();
+        Transaction transaction2 = pool.acquire();
+        assertThat(transaction1.getState()).isEqualTo(Transaction.State.OPEN);
+        assertThat(transaction2.getState()).isEqualTo(Transaction.State.OPEN);
+        assertThat(transaction1.getTxnID()).isNotEqualTo(transaction2.getTxnID());
+
+        // The acquired transactions wouldn't be aborted by the pool.
+        pool.close();
+        assertThat(transaction1.getState()).isEqualTo(Transaction.State.OPEN);
+
+        transaction1.abort().get();
+        transaction2.abort().get();
+    }
+
+    @Test
+    void disabledPoolCreatesTransactionDirectly() throws Exception {
+        TransactionPool pool =
+                new TransactionPool(operator().client(), TimeUnit.MINUTES.toMillis(5), 0);
+
+        Transaction transaction = pool.acquire();
+        assertThat(transaction.getState()).isEqualTo(Transaction.State.OPEN);
+
+        pool.close();
+        transaction.abort().get();
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.pulsar.source.reader;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.pulsar.source.config.SourceConfiguration;
+import org.apache.flink.connector.pulsar.source.enumerator.topic.TopicPartition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_BYTES_PER_SECOND;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_MAX_FETCH_RECORDS_PER_SECOND;
+import static org.apache.flink.connector.pulsar.source.PulsarSourceOptions.PULSAR_TOPIC_MAX_FETCH_RECORDS_PER_SECOND;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Unit tests for {@link PulsarFetchRateLimiter}. */
+class PulsarFetchRateLimiterTest {
+
+    @Test
+    void rateLimiterIsDisabledByDefault() throws Exception {
+        SourceConfiguration configuration = new SourceConfiguration(new Configuration());
+        PulsarFetchRateLimiter limiter =
+                PulsarFetchRateLimiter.create(configuration, new TopicPartition("topic", 0));
+
+        assertThat(limiter.isEnabled()).isFalse();
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.acquireRecord(0)).isTrue();
+        }
+        assertThat(limiter.getThrottledTimeMillis()).isZero();
+    }
+
+    @Test
+    void stopFetchingWhenReachTheRecordsLimit() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_MAX_FETCH_RECORDS_PER_SECOND, 1.0D);
+        PulsarFetchRateLimiter limiter =
+                PulsarFetchRateLimiter.create(
+                        new SourceConfiguration(configuration), new TopicPartition("topic", 0));
+
+        assertThat(limiter.isEnabled()).isTrue();
+        assertThat(limiter.acquireRecord(0)).isTrue();
+        assertThat(limiter.acquireRecord(0)).isFalse();
+    }
+
+    @Test
+    void releasedPermitWouldBeReused() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_MAX_FETCH_RECORDS_PER_SECOND, 1.0D);
+        PulsarFetchRateLimiter limiter =
+                PulsarFetchRateLimiter.create(
+                        new SourceConfiguration(configuration), new TopicPartition("topic", 0));
+
+        // The permit is given back because the receiving returned nothing.
+        assertThat(limiter.acquireRecord(0)).isTrue();
+        limiter.releaseRecord();
+
+        assertThat(limiter.acquireRecord(0)).isTrue();
+        assertThat(limiter.acquireRecord(0)).isFalse();
+    }
+
+    @Test
+    void waitingForTheBytesIsBoundedByTheTimeout() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_MAX_FETCH_BYTES_PER_SECOND, 1L);
+        PulsarFetchRateLimiter limiter =
+                PulsarFetchRateLimiter.create(
+                        new SourceConfiguration(configuration), new TopicPartition("topic", 0));
+
+        // The first large record is paid immediately, then the limiter owes a lot of time.
+        limiter.chargeBytes(1000);
+        assertThat(limiter.acquireRecord(0)).isTrue();
+        limiter.chargeBytes(1000);
+
+        long start = System.nanoTime();
+        assertThat(limiter.acquireRecord(200)).isFalse();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertThat(elapsed).isBetween(150L, 5000L);
+    }
+
+    @Test
+    void wakeUpInterruptsTheWaiting() throws Exception {
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_MAX_FETCH_RECORDS_PER_SECOND, 0.001D);
+        PulsarFetchRateLimiter limiter =
+                PulsarFetchRateLimiter.create(
+                        new SourceConfiguration(configuration), new TopicPartition("topic", 0));
+        assertThat(limiter.acquireRecord(0)).isTrue();
+
+        CompletableFuture<Boolean> acquired =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return limiter.acquireRecord(TimeUnit.MINUTES.toMillis(10));
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IllegalStateException(e);
+                            }
+                        });
+
+        // Keep waking up the limiter in case the waiting hasn't started yet.
+        while (!acquired.isDone()) {
+            limiter.wakeUp();
+            Thread.sleep(10);
+        }
+        assertThat(acquired.get(1, TimeUnit.MINUTES)).isFalse();
+    }
+
+    @Test
+    void topicRateOverridesTheGlobalRate() {
+        Map<String, String> rates = new HashMap<>();
+        rates.put("topic1", "10");
+        rates.put("persistent://public/default/topic2-partition-1", "20");
+
+        Configuration configuration = new Configuration();
+        configuration.set(PULSAR_MAX_FETCH_RECORDS_PER_SECOND, 5.0D);
+        configuration.set(PULSAR_TOPIC_MAX_FETCH_RECORDS_PER_SECOND, rates);
+        configuration.set(PULSAR_MAX_FETCH_BYTES_PER_SECOND, 1024L);
+        SourceConfiguration conf = new SourceConfiguration(configuration);
+
+        assertThat(conf.getMaxFetchRecordsPerSecond(new TopicPartition("topic1", 3)))
+                .isEqualTo(10.0D);
+        assertThat(conf.getMaxFetchRecordsPerSecond(new TopicPartition("topic2", 1)))
+                .isEqualTo(20.0D);
+        assertThat(conf.getMaxFetchRecordsPerSecond(new TopicPartition("topic2", 0)))
+                .isEqualTo(5.0D);
+        assertThat(conf.getMaxFetchBytesPerSecond(new TopicPartition("topic1", 0)))
+                .isEqualTo(1024L);
+    }
+}
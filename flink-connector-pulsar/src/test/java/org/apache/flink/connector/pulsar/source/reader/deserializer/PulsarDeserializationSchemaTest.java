@@ -20,6 +20,7 @@ package org.apache.flink.connector.pulsar.source.reader.deserializer;
 
 import org.apache.flink.api.common.eventtime.WatermarkStrategy;
 import org.apache.flink.api.common.serialization.SimpleStringSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.common.typeinfo.Types;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.connector.pulsar.SampleMessage.TestMessage;
@@ -47,11 +48,15 @@ import org.apache.pulsar.common.api.proto.MessageMetadata;
 import org.apache.pulsar.common.schema.KeyValue;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
 import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
 import static org.apache.flink.util.Preconditions.checkState;
@@ -363,6 +368,22 @@ class PulsarDeserializationSchemaTest extends PulsarTestSuiteBase {
         return user;
     }
 
+    @Test
+    void createFromStreamingDeserializationSchema() throws Exception {
+        PulsarDeserializationSchema<String> schema = new LineStreamingDeserializationSchema();
+        schema.open(new PulsarTestingDeserializationContext(), sourceConfig);
+        assertThatCode(() -> InstantiationUtil.clone(schema)).doesNotThrowAnyException();
+
+        String content = "streaming-content-" + randomAlphanumeric(10);
+        Message<byte[]> message = getMessage(content, s -> s.getBytes(UTF_8));
+        SingleMessageCollector<String> collector = new SingleMessageCollector<>();
+        schema.deserialize(message, collector);
+
+        assertThat(collector.result).isNotNull().isEqualTo(content);
+        // The payload of the message shouldn't be consumed by the stream.
+        assertThat(new String(message.getData(), UTF_8)).isEqualTo(content);
+    }
+
     /** Create a test message by given bytes. The message don't contains any meta data. */
     private <T> Message<byte[]> getMessage(
             T message, FunctionWithException<T, byte[], Exception> decoder) throws Exception {
@@ -373,6 +394,24 @@ class PulsarDeserializationSchemaTest extends PulsarTestSuiteBase {
         return MessageImpl.create(metadata, payload, Schema.BYTES, "");
     }
 
+    /** Read the first line of the message payload from the stream. Used for test purpose. */
+    private static class LineStreamingDeserializationSchema
+            implements PulsarStreamingDeserializationSchema<String> {
+        private static final long serialVersionUID = -3208164285938436212L;
+
+        @Override
+        public void deserialize(Message<byte[]> message, InputStream payload, Collector<String> out)
+                throws Exception {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(payload, UTF_8));
+            out.collect(reader.readLine());
+        }
+
+        @Override
+        public TypeInformation<String> getProducedType() {
+            return Types.STRING;
+        }
+    }
+
     /** This collector is used for collecting only one message. Used for test purpose. */
     private static class SingleMessageCollector<T> implements Collector<T> {
 